@@ -18,11 +18,24 @@
 package org.jweaver.crawler;
 
 import java.net.http.HttpClient;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.Set;
+import org.jweaver.crawler.internal.fetch.AimdConfig;
+import org.jweaver.crawler.internal.fetch.BodySizePolicy;
+import org.jweaver.crawler.internal.fetch.FetchMode;
+import org.jweaver.crawler.internal.fetch.LimiterStats;
+import org.jweaver.crawler.internal.fetch.ThrottleConfig;
+import org.jweaver.crawler.internal.frontier.FrontierConfig;
+import org.jweaver.crawler.internal.frontier.VisitedSetConfig;
 import org.jweaver.crawler.internal.parse.DocumentParser;
 import org.jweaver.crawler.internal.parse.JWeaverDocumentParser;
+import org.jweaver.crawler.internal.runner.CrawlBudget;
+import org.jweaver.crawler.internal.runner.CrawlMode;
 import org.jweaver.crawler.internal.runner.JWeaverBuilderImpl;
+import org.jweaver.crawler.internal.url.TrapDetectorConfig;
+import org.jweaver.crawler.internal.url.UrlCanonicalizer;
+import org.jweaver.crawler.internal.url.UrlRule;
 import org.jweaver.crawler.internal.write.ExportConfig;
 import org.jweaver.crawler.internal.write.JWeaverFileWriter;
 import org.jweaver.crawler.internal.write.JWeaverWriter;
@@ -108,7 +121,9 @@ public interface JWeaverCrawler {
     Builder exportConfiguration(ExportConfig configuration);
 
     /**
-     * Sets the politeness delay between consecutive requests made by the crawler to the same host
+     * Sets the politeness delay between consecutive requests made by the crawler to the same host.
+     * The delay is measured from the start of the previous request, so only the part that has not
+     * already elapsed is waited for. Tasks crawling the same host share the delay.
      *
      * <p><b>Default</b> 3 seconds.
      *
@@ -127,6 +142,264 @@ public interface JWeaverCrawler {
      */
     Builder maxDepth(int maxDepth);
 
+    /**
+     * Sets the maximum number of concurrent requests sent to the host of each task. Every request
+     * slot observes the politeness delay, so the host receives up to this many requests per
+     * politeness delay.
+     *
+     * <p><b>Default</b> 1, meaning the pages of a host are crawled sequentially.
+     *
+     * @param maxConcurrentRequests The maximum number of in-flight requests per host. (Optional)
+     * @return This builder instance for method chaining.
+     */
+    Builder maxConcurrentRequestsPerHost(int maxConcurrentRequests);
+
+    /**
+     * Sets the number of workers shared by all hosts in {@link JWeaverCrawler#runParallel()}.
+     * Instead of crawling every host on its own threads, the hosts whose politeness delay has
+     * elapsed are handed in turn to this pool, so the total number of requests in flight stays
+     * bounded whatever the number of URIs. The workers send blocking requests, whatever the
+     * {@link FetchMode}.
+     *
+     * <p><b>Default</b> Not set, meaning every host is crawled by its own workers.
+     *
+     * @param workers The number of workers shared by all hosts. (Optional)
+     * @return This builder instance for method chaining.
+     * @throws IllegalArgumentException If the number of workers is not positive.
+     */
+    Builder globalConcurrency(int workers);
+
+    /**
+     * Caps the number of requests in flight over the whole crawler and for each host, whichever
+     * task sends them, to keep large crawls within the sockets and file descriptors of the
+     * machine. Waiting requests are served in arrival order. The time spent waiting is logged for
+     * each host and for the crawler as {@link LimiterStats}.
+     *
+     * <p><b>Default</b> Not limited.
+     *
+     * @param maxInFlight The maximum number of requests in flight over the crawler. (Optional)
+     * @param maxInFlightPerHost The maximum number of requests in flight per host. (Optional)
+     * @return This builder instance for method chaining.
+     * @throws IllegalArgumentException If a limit is not positive.
+     */
+    Builder maxRequestsInFlight(int maxInFlight, int maxInFlightPerHost);
+
+    /**
+     * Adapts the concurrency and request rate of each host to its latency and errors, with
+     * additive increase and multiplicative decrease. A host starts at the lowest concurrency and
+     * rate of the bounds, speeds up while its requests stay fast and successful, and backs off on
+     * slow responses, timeouts and 429 or 5xx responses. The bounds replace the politeness delay
+     * and the maximum number of concurrent requests per host.
+     *
+     * <p><b>Default</b> Disabled. {@link AimdConfig#defaults()} gives bounds suited to most sites.
+     *
+     * @param aimdConfig The bounds of the controller. (Optional)
+     * @return This builder instance for method chaining.
+     * @throws NullPointerException If the bounds are null.
+     */
+    Builder adaptiveConcurrency(AimdConfig aimdConfig);
+
+    /**
+     * Sets how throttling responses, 429 Too Many Requests and 503 Service Unavailable, are
+     * handled. The host is paused for the delay of the {@code Retry-After} header, in seconds or
+     * as an HTTP date, or for an exponential backoff if the header is missing. The page is then
+     * crawled again, up to a number of retries after which it is reported as an error.
+     *
+     * <p><b>Default</b> {@link ThrottleConfig#defaults()}
+     *
+     * @param throttleConfig The retries of throttled pages. (Optional)
+     * @return This builder instance for method chaining.
+     * @throws NullPointerException If the configuration is null.
+     */
+    Builder throttling(ThrottleConfig throttleConfig);
+
+    /**
+     * Sets the engine used to fetch pages. {@link FetchMode#ASYNC} sends the requests with {@code
+     * HttpClient#sendAsync} and parses the responses in completion stages, overlapping network
+     * waits with parsing.
+     *
+     * <p><b>Default</b> {@link FetchMode#BLOCKING}
+     *
+     * @param fetchMode The fetch engine. (Optional)
+     * @return This builder instance for method chaining.
+     */
+    Builder fetchMode(FetchMode fetchMode);
+
+    /**
+     * Sets the maximum number of bytes read from a response body. The content type and length of
+     * a response are checked before its body is read, so disallowed content types are never
+     * downloaded and bodies announced as too large are rejected immediately.
+     *
+     * <p><b>Default</b> 10 MiB with {@link BodySizePolicy#TRUNCATE}.
+     *
+     * @param maxBodySize The maximum body size in bytes. (Optional)
+     * @param policy The action taken when a body exceeds the limit. (Optional)
+     * @return This builder instance for method chaining.
+     */
+    Builder maxBodySize(long maxBodySize, BodySizePolicy policy);
+
+    /**
+     * Sets what is extracted from the crawled pages. {@link CrawlMode#DISCOVERY} only extracts the
+     * titles and links needed for the connection map, and never extracts or writes the content of
+     * the pages.
+     *
+     * <p><b>Default</b> {@link CrawlMode#FULL}
+     *
+     * @param crawlMode The crawl mode. (Optional)
+     * @return This builder instance for method chaining.
+     */
+    Builder crawlMode(CrawlMode crawlMode);
+
+    /**
+     * Sets the size of the queue of pages waiting to be written and the number of workers writing
+     * them. When the queue is full the crawl waits for the writers, which bounds the memory held by
+     * pending pages. Pages waiting in the queue are written in batches.
+     *
+     * <p><b>Default</b> A capacity of 256 pages and 2 workers.
+     *
+     * @param capacity The maximum number of pages waiting to be written. (Optional)
+     * @param workers The number of workers writing pages. (Optional)
+     * @return This builder instance for method chaining.
+     */
+    Builder writeQueue(int capacity, int workers);
+
+    /**
+     * Sets how the URLs seen by each host are stored. Each URL is queued for crawling only the
+     * first time it is seen. {@link VisitedSetConfig#fingerprint(int)}
+     * stores 64-bit URL fingerprints off-heap instead of the URL strings, for crawls of millions of
+     * URLs. {@link VisitedSetConfig#bloom(long, double, long)} caps the memory of the set with a
+     * scalable Bloom filter, at the cost of skipping a small share of the pages. The footprint,
+     * hits, misses and estimated false positives of the set are logged when a host has been
+     * crawled.
+     *
+     * <p><b>Default</b> {@link VisitedSetConfig#exact()}
+     *
+     * @param visitedSetConfig The visited set configuration. (Optional)
+     * @return This builder instance for method chaining.
+     */
+    Builder visitedSet(VisitedSetConfig visitedSetConfig);
+
+    /**
+     * Sets where the links waiting to be crawled are held. {@link
+     * FrontierConfig#disk(java.nio.file.Path, int, long)} keeps a bounded number of links in memory
+     * and spills the rest to segment files on local disk, for crawls whose frontier does not fit in
+     * the heap. The segment files of a host are deleted once it has been crawled. {@link
+     * FrontierConfig#priority(org.jweaver.crawler.internal.frontier.LinkScorer)} crawls the links
+     * best-first, so that the most valuable pages are reached before a budget runs out.
+     *
+     * <p><b>Default</b> {@link FrontierConfig#memory()}
+     *
+     * @param frontierConfig The frontier configuration. (Optional)
+     * @return This builder instance for method chaining.
+     */
+    Builder frontier(FrontierConfig frontierConfig);
+
+    /**
+     * Sets the canonicalizer applied to every discovered link before it is filtered and
+     * deduplicated, so that different spellings of the same page are fetched only once. The
+     * canonical form is only the key of the link: the page is fetched, and its relative links are
+     * resolved, with the URL as it was written. Use {@link UrlCanonicalizer#create(boolean,
+     * java.util.Collection)} to choose the stripped query parameters and whether trailing slashes
+     * are ignored, or {@link UrlCanonicalizer#disabled()} to compare the links as they are written.
+     *
+     * <p><b>Default</b> {@link UrlCanonicalizer#defaults()}
+     *
+     * @param canonicalizer The URL canonicalizer. (Optional)
+     * @return This builder instance for method chaining.
+     */
+    Builder urlCanonicalizer(UrlCanonicalizer canonicalizer);
+
+    /**
+     * Sets the rules restricting the crawl to matching links. A discovered link is crawled only if
+     * it matches at least one of the rules. Rules are created with {@link UrlRule#glob(String)},
+     * {@link UrlRule#pathPrefix(String)} or {@link UrlRule#regex(String)} and compiled once.
+     *
+     * <p><b>Default</b> Every link of the host is crawled.
+     *
+     * @param rules The include rules. (Optional)
+     * @return This builder instance for method chaining.
+     * @throws NullPointerException If a rule is null.
+     */
+    Builder includeUrls(UrlRule... rules);
+
+    /**
+     * Sets the rules excluding matching links from the crawl. Exclude rules take precedence over
+     * include rules.
+     *
+     * <p><b>Default</b> No link is excluded.
+     *
+     * @param rules The exclude rules. (Optional)
+     * @return This builder instance for method chaining.
+     * @throws NullPointerException If a rule is null.
+     */
+    Builder excludeUrls(UrlRule... rules);
+
+    /**
+     * Sets the budget of each host: the maximum number of pages fetched, response bytes received
+     * and wall-clock time. When the budget of a host runs out, the requests in flight complete, no
+     * new request is sent, and the connection map and errors gathered so far are written.
+     *
+     * <p><b>Default</b> {@link CrawlBudget#unlimited()}
+     *
+     * @param budget The budget of each host. (Optional)
+     * @return This builder instance for method chaining.
+     */
+    Builder taskBudget(CrawlBudget budget);
+
+    /**
+     * Sets the budget shared by all the hosts of the crawler. The clock of the budget starts with
+     * the first host. When it runs out, every host stops as if its own budget had run out.
+     *
+     * <p><b>Default</b> {@link CrawlBudget#unlimited()}
+     *
+     * @param budget The budget of the whole crawl. (Optional)
+     * @return This builder instance for method chaining.
+     */
+    Builder globalBudget(CrawlBudget budget);
+
+    /**
+     * Enables the detection of crawl traps, such as calendars, faceted search and endlessly nested
+     * paths. New links exceeding the URL length, repeated path segment or query parameter limits
+     * are dropped, as are the links of a numeric pattern seen too many times, such as {@code
+     * /events/{n}/{n}}. The suppressed patterns are logged when a host has been crawled.
+     *
+     * <p><b>Default</b> Disabled. {@link TrapDetectorConfig#defaults()} gives limits which rarely
+     * affect regular pages.
+     *
+     * @param trapDetectorConfig The limits of the trap detector. (Optional)
+     * @return This builder instance for method chaining.
+     */
+    Builder trapDetection(TrapDetectorConfig trapDetectorConfig);
+
+    /**
+     * Enables the journal of each host, a write-ahead log of the links enqueued and the pages
+     * crawled, so that a long crawl can be resumed with {@link #resumeFrom(Path)} after a crash.
+     * The journals are written to the disk by a background thread at every flush interval, so the
+     * workers never wait for the disk. A crash loses at most the last interval of progress.
+     *
+     * <p><b>Default</b> Disabled.
+     *
+     * @param directory The directory of the journals. (Optional)
+     * @param flushInterval The interval between two flushes of a journal. (Optional)
+     * @return This builder instance for method chaining.
+     * @throws NullPointerException If the directory or the flush interval is null.
+     * @throws IllegalArgumentException If the flush interval is not positive.
+     */
+    Builder checkpoint(Path directory, Duration flushInterval);
+
+    /**
+     * Resumes the crawl from the journals of a previous crawl, and keeps journaling to them. The
+     * pages crawled before are not fetched again, and the links left pending are crawled. Hosts
+     * without a journal are crawled from their root URL. The journals are flushed every second.
+     *
+     * <p><b>Default</b> Disabled.
+     *
+     * @param directory The directory of the journals. (Optional)
+     * @return This builder instance for method chaining.
+     * @throws NullPointerException If the directory is null.
+     */
+    Builder resumeFrom(Path directory);
+
     /**
      * Builds and returns a new instance of JWeaverCrawler with the configured parameters.
      *
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.checkpoint;
+
+import static java.util.Objects.requireNonNull;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * The CheckpointConfig record represents where and how often the tasks record their progress, and
+ * whether they resume from the progress recorded by a previous crawl.
+ *
+ * @param directory The directory holding the journal of each task.
+ * @param flushInterval The interval between two flushes of a journal to the disk.
+ * @param resume Whether the tasks resume from their existing journal.
+ */
+public record CheckpointConfig(Path directory, Duration flushInterval, boolean resume) {
+
+  private static final String JOURNAL_EXTENSION = ".wal";
+  private static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(1);
+
+  /**
+   * Constructs a new CheckpointConfig, validating its parameters.
+   *
+   * @throws NullPointerException If the directory or the flush interval is null.
+   * @throws IllegalArgumentException If the flush interval is not positive.
+   */
+  public CheckpointConfig {
+    requireNonNull(directory);
+    requireNonNull(flushInterval);
+    if (flushInterval.isNegative() || flushInterval.isZero()) {
+      throw new IllegalArgumentException("Flush interval must be greater than zero");
+    }
+  }
+
+  /**
+   * Creates and returns a new CheckpointConfig resuming from the journals of a directory, which
+   * are flushed every second.
+   *
+   * @param directory The directory holding the journal of each task.
+   * @return A new CheckpointConfig instance resuming from the directory.
+   */
+  public static CheckpointConfig resumeFrom(Path directory) {
+    return new CheckpointConfig(directory, DEFAULT_FLUSH_INTERVAL, true);
+  }
+
+  /**
+   * Creates the journal of a task. The file name of the journal is derived from the base URI of
+   * the task, so that a resumed crawl finds the journal of each of its hosts.
+   *
+   * @param baseUri The base URI of the task.
+   * @return The journal of the task.
+   */
+  public CrawlJournal journal(String baseUri) {
+    var name = baseUri.replaceAll("[^A-Za-z0-9]", "_") + JOURNAL_EXTENSION;
+    return new CrawlJournal(directory.resolve(name), flushInterval, resume);
+  }
+}
@@ -0,0 +1,418 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.checkpoint;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.jweaver.crawler.internal.exception.CheckpointException;
+import org.jweaver.crawler.internal.result.Connection;
+import org.jweaver.crawler.internal.result.NodeError;
+import org.jweaver.crawler.internal.result.PageLink;
+import org.jweaver.crawler.internal.util.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The CrawlJournal class is the append-only write-ahead log of a task. It records the links the
+ * task enqueues and the pages it crawls, so that a crawl which died can be resumed without
+ * fetching the crawled pages again.
+ *
+ * <p>Records are appended to an in-memory buffer, which a background thread swaps for an empty
+ * one and writes to the journal file at every flush interval, or earlier once the buffer grows
+ * large. The workers therefore never wait for the disk: recording only holds a lock for the time
+ * of a memory copy, and a flush only holds it for the time of the swap. Records buffered when the
+ * process dies are lost, and the pages they describe are crawled again on resume. The task only
+ * records a page as crawled once its output has been written, so a page whose output was lost is
+ * crawled again as well.
+ *
+ * <p>A record is a type byte followed by its fields, strings being written as their UTF-8 length
+ * and bytes. A record cut short by a crash is discarded, and the file truncated, on recovery.
+ */
+public final class CrawlJournal implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(CrawlJournal.class);
+  private static final byte ENQUEUED = 'E';
+  private static final byte CRAWLED = 'S';
+  private static final byte FAILED = 'F';
+  private static final int MAX_MESSAGE_LENGTH = 1024;
+  private static final int MAX_STRING_BYTES = 1 << 20;
+  private static final int EARLY_FLUSH_BYTES = 4 * 1024 * 1024;
+  private static final CrawlJournal DISABLED = new CrawlJournal(null, Duration.ZERO, false);
+  private final Path file;
+  private final long flushIntervalNanos;
+  private final boolean resume;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition flushRequested = lock.newCondition();
+  private final ReentrantLock flushLock = new ReentrantLock();
+  private ByteArrayOutputStream active = new ByteArrayOutputStream();
+  private ByteArrayOutputStream spare = new ByteArrayOutputStream();
+  private DataOutputStream activeOut = new DataOutputStream(active);
+  private DataOutputStream spareOut = new DataOutputStream(spare);
+  private FileChannel channel;
+  private Thread flusher;
+  private volatile boolean closed;
+
+  /**
+   * Constructs a new CrawlJournal.
+   *
+   * @param file The journal file.
+   * @param flushInterval The interval between two flushes of the buffered records.
+   * @param resume Whether the records of an existing journal file are recovered, rather than
+   *     discarded.
+   */
+  CrawlJournal(Path file, Duration flushInterval, boolean resume) {
+    this.file = file;
+    this.flushIntervalNanos = flushInterval.toNanos();
+    this.resume = resume;
+  }
+
+  /**
+   * Returns a CrawlJournal which records nothing and recovers an empty state.
+   *
+   * @return The disabled CrawlJournal instance.
+   */
+  public static CrawlJournal disabled() {
+    return DISABLED;
+  }
+
+  /**
+   * Opens the journal for writing and starts its flusher. When resuming, the records of the
+   * existing journal file are recovered first, and new records are appended after them.
+   *
+   * @return The recovered state, which is empty unless resuming from an existing journal.
+   * @throws CheckpointException If the journal file cannot be read or opened.
+   */
+  public JournalState open() {
+    if (file == null) {
+      return JournalState.empty();
+    }
+    try {
+      Files.createDirectories(file.toAbsolutePath().getParent());
+      var state = JournalState.empty();
+      long validLength = 0;
+      if (resume && Files.exists(file)) {
+        var reader = new Reader(file);
+        state = reader.read();
+        validLength = reader.validLength;
+      }
+      channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+      channel.truncate(validLength);
+      channel.position(validLength);
+      flusher =
+          Thread.ofVirtual()
+              .name(Constants.JOURNAL_THREAD_NAME + file.getFileName())
+              .start(this::runFlusher);
+      return state;
+    } catch (IOException e) {
+      throw new CheckpointException(e);
+    }
+  }
+
+  /**
+   * Records links enqueued by the task.
+   *
+   * @param links The links enqueued.
+   */
+  public void enqueued(Collection<PageLink> links) {
+    if (file == null || links.isEmpty()) {
+      return;
+    }
+    lock.lock();
+    try {
+      for (var link : links) {
+        activeOut.writeByte(ENQUEUED);
+        activeOut.writeInt(link.depth());
+        writeString(activeOut, link.url());
+      }
+      requestEarlyFlush();
+    } catch (IOException e) {
+      throw new CheckpointException(e);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Records a page crawled successfully along with its links.
+   *
+   * @param url The URL of the page.
+   * @param depth The depth of the page.
+   * @param links The links found on the page.
+   */
+  public void crawled(String url, int depth, Collection<PageLink> links) {
+    if (file == null) {
+      return;
+    }
+    lock.lock();
+    try {
+      activeOut.writeByte(CRAWLED);
+      writeString(activeOut, url);
+      activeOut.writeInt(depth);
+      activeOut.writeInt(links.size());
+      for (var link : links) {
+        writeString(activeOut, link.url());
+      }
+      requestEarlyFlush();
+    } catch (IOException e) {
+      throw new CheckpointException(e);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Records a page which could not be crawled.
+   *
+   * @param url The URL of the page.
+   * @param depth The depth of the page.
+   * @param message The error message, truncated to 1024 characters.
+   */
+  public void failed(String url, int depth, String message) {
+    if (file == null) {
+      return;
+    }
+    var error = message == null ? "" : message;
+    lock.lock();
+    try {
+      activeOut.writeByte(FAILED);
+      writeString(activeOut, url);
+      activeOut.writeInt(depth);
+      writeString(activeOut, error.substring(0, Math.min(error.length(), MAX_MESSAGE_LENGTH)));
+      requestEarlyFlush();
+    } catch (IOException e) {
+      throw new CheckpointException(e);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Writes the buffered records to the journal file and forces them to the storage device.
+   *
+   * @throws CheckpointException If the records cannot be written.
+   */
+  public void flush() {
+    if (file == null || channel == null) {
+      return;
+    }
+    flushLock.lock();
+    try {
+      lock.lock();
+      try {
+        var buffer = active;
+        var out = activeOut;
+        active = spare;
+        activeOut = spareOut;
+        spare = buffer;
+        spareOut = out;
+      } finally {
+        lock.unlock();
+      }
+      if (spare.size() == 0) {
+        return;
+      }
+      var bytes = ByteBuffer.wrap(spare.toByteArray());
+      while (bytes.hasRemaining()) {
+        channel.write(bytes);
+      }
+      channel.force(false);
+      spare.reset();
+    } catch (IOException e) {
+      throw new CheckpointException(e);
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  /**
+   * Stops the flusher, writes the buffered records and closes the journal file.
+   *
+   * @throws CheckpointException If the records cannot be written.
+   */
+  @Override
+  public void close() {
+    if (file == null || channel == null) {
+      return;
+    }
+    closed = true;
+    lock.lock();
+    try {
+      flushRequested.signal();
+    } finally {
+      lock.unlock();
+    }
+    try {
+      flusher.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    var open = channel;
+    try (open) {
+      flush();
+    } catch (IOException e) {
+      throw new CheckpointException(e);
+    }
+  }
+
+  private void requestEarlyFlush() {
+    if (active.size() >= EARLY_FLUSH_BYTES) {
+      flushRequested.signal();
+    }
+  }
+
+  private void runFlusher() {
+    while (!closed) {
+      lock.lock();
+      try {
+        flushRequested.awaitNanos(flushIntervalNanos);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } finally {
+        lock.unlock();
+      }
+      if (closed) {
+        return;
+      }
+      try {
+        flush();
+      } catch (CheckpointException e) {
+        log.error("Unable to write the crawl journal {}", file, e);
+      }
+    }
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    var bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  /** Reads the records of a journal file, up to the first incomplete record. */
+  private static final class Reader {
+
+    private final Path file;
+    private long validLength;
+
+    private Reader(Path file) {
+      this.file = file;
+    }
+
+    private JournalState read() throws IOException {
+      var enqueued = new ArrayList<PageLink>();
+      var crawled = new HashSet<String>();
+      var connections = new ArrayList<Connection>();
+      var errors = new ArrayList<NodeError>();
+      try (var counter = new CountingInputStream(Files.newInputStream(file));
+          var in = new DataInputStream(counter)) {
+        while (true) {
+          int type = in.read();
+          if (type == ENQUEUED) {
+            int depth = in.readInt();
+            enqueued.add(new PageLink(readString(in), depth));
+          } else if (type == CRAWLED) {
+            var url = readString(in);
+            int depth = in.readInt();
+            int count = in.readInt();
+            var links = new ArrayList<Connection>(Math.max(0, Math.min(count, 1024)));
+            for (int i = 0; i < count; i++) {
+              links.add(new Connection(url, readString(in), depth));
+            }
+            crawled.add(url);
+            connections.addAll(links);
+          } else if (type == FAILED) {
+            var url = readString(in);
+            int depth = in.readInt();
+            var error = readString(in);
+            crawled.add(url);
+            errors.add(new NodeError(url, depth, error));
+          } else {
+            break;
+          }
+          validLength = counter.count;
+        }
+      } catch (EOFException e) {
+        log.warn("Discarding the incomplete last record of the crawl journal {}", file);
+      }
+      return new JournalState(enqueued, crawled, connections, errors);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+      int length = in.readInt();
+      if (length < 0 || length > MAX_STRING_BYTES) {
+        throw new EOFException("Invalid string length " + length);
+      }
+      var bytes = new byte[length];
+      in.readFully(bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+  }
+
+  /** Counts the bytes read from a buffered stream, so that the end of a record is known. */
+  private static final class CountingInputStream extends FilterInputStream {
+
+    private long count;
+
+    private CountingInputStream(InputStream in) {
+      super(new BufferedInputStream(in, 64 * 1024));
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+      if (b >= 0) {
+        count++;
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int n = super.read(b, off, len);
+      if (n > 0) {
+        count += n;
+      }
+      return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      long skipped = super.skip(n);
+      count += skipped;
+      return skipped;
+    }
+  }
+}
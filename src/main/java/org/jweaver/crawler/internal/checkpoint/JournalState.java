@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.checkpoint;
+
+import java.util.List;
+import java.util.Set;
+import org.jweaver.crawler.internal.result.Connection;
+import org.jweaver.crawler.internal.result.NodeError;
+import org.jweaver.crawler.internal.result.PageLink;
+
+/**
+ * The JournalState record holds the state of a task recovered from its journal.
+ *
+ * @param enqueued The links enqueued by the task, in the order they were enqueued.
+ * @param crawled The URLs of the pages which were crawled, successfully or not.
+ * @param connections The connections found on the crawled pages.
+ * @param errors The errors of the pages which could not be crawled.
+ */
+public record JournalState(
+    List<PageLink> enqueued,
+    Set<String> crawled,
+    List<Connection> connections,
+    List<NodeError> errors) {
+
+  private static final JournalState EMPTY =
+      new JournalState(List.of(), Set.of(), List.of(), List.of());
+
+  /**
+   * Returns the state of a task which has not crawled anything yet.
+   *
+   * @return The empty JournalState instance.
+   */
+  public static JournalState empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Checks whether a page was crawled before the journal was recovered.
+   *
+   * @param url The URL of the page.
+   * @return {@code true} if the page was crawled, otherwise {@code false}.
+   */
+  public boolean isCrawled(String url) {
+    return crawled.contains(url);
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.fetch;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+
+/**
+ * The AimdConfig record represents the bounds within which an {@link AimdController} adjusts the
+ * concurrency and request rate of each host, and the signals it treats as overload.
+ *
+ * @param minConcurrency The lowest number of requests in flight for a host, which is also the
+ *     number it starts with.
+ * @param maxConcurrency The highest number of requests in flight for a host.
+ * @param minDelay The shortest interval between two requests to a host.
+ * @param maxDelay The longest interval between two requests to a host, which is also the interval
+ *     it starts with.
+ * @param latencyTarget The 90th percentile latency above which a host is considered overloaded.
+ * @param maxErrorRate The share of timeouts, failures and 429 or 5xx responses above which a host
+ *     is considered overloaded.
+ */
+public record AimdConfig(
+    int minConcurrency,
+    int maxConcurrency,
+    Duration minDelay,
+    Duration maxDelay,
+    Duration latencyTarget,
+    double maxErrorRate) {
+
+  /**
+   * Constructs a new AimdConfig, validating its bounds.
+   *
+   * @throws NullPointerException If a duration is null.
+   * @throws IllegalArgumentException If a bound is not positive, a minimum exceeds its maximum or
+   *     the error rate is not between 0 and 1.
+   */
+  public AimdConfig {
+    requireNonNull(minDelay);
+    requireNonNull(maxDelay);
+    requireNonNull(latencyTarget);
+    if (minConcurrency <= 0 || maxConcurrency < minConcurrency) {
+      throw new IllegalArgumentException(
+          "Concurrency bounds must be greater than zero and ordered");
+    }
+    if (minDelay.isNegative() || minDelay.isZero() || maxDelay.compareTo(minDelay) < 0) {
+      throw new IllegalArgumentException("Delay bounds must be greater than zero and ordered");
+    }
+    if (latencyTarget.isNegative() || latencyTarget.isZero()) {
+      throw new IllegalArgumentException("Latency target must be greater than zero");
+    }
+    if (maxErrorRate < 0 || maxErrorRate >= 1) {
+      throw new IllegalArgumentException("Error rate must be between 0 and 1");
+    }
+  }
+
+  /**
+   * Creates and returns a new AimdConfig letting a host go from 1 to 8 requests in flight, and
+   * from one request every 5 seconds to one every 100 ms, as long as its 90th percentile latency
+   * stays under 2 seconds and fewer than 5% of its requests fail.
+   *
+   * @return A new AimdConfig instance with the default bounds.
+   */
+  public static AimdConfig defaults() {
+    return new AimdConfig(
+        1, 8, Duration.ofMillis(100), Duration.ofSeconds(5), Duration.ofSeconds(2), 0.05);
+  }
+
+  /**
+   * Creates a new controller applying these bounds.
+   *
+   * @return The controller.
+   */
+  public AimdController create() {
+    return new AimdController(this);
+  }
+}
@@ -0,0 +1,343 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.fetch;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.jweaver.crawler.internal.util.URIHelper;
+
+/**
+ * The AimdController class adapts the number of requests in flight and the request rate of each
+ * host to how the host copes with them, within the bounds of an {@link AimdConfig}.
+ *
+ * <p>Every host starts at the lowest concurrency and rate. The outcome of its requests is gathered
+ * in windows of 20 samples. After a healthy window, the concurrency of the host grows by one
+ * request and its rate by a tenth of its range (additive increase). Once the 90th percentile
+ * latency of a window exceeds the latency target, or its errors exceed the error rate, both are
+ * halved (multiplicative decrease). Errors are timeouts, failed requests and 429 or 5xx
+ * responses. The decrease happens as soon as the errors of the window exceed the rate, without
+ * waiting for the window to fill up.
+ */
+public final class AimdController {
+
+  private static final int WINDOW = 20;
+  private static final int RATE_STEPS = 10;
+  private static final double PERCENTILE = 0.9;
+  private static final double NANOS_PER_SECOND = 1e9;
+  private static final AimdController DISABLED = new AimdController(null);
+  private final AimdConfig config;
+  private final Map<String, HostState> hosts;
+
+  /**
+   * Constructs a new AimdController.
+   *
+   * @param config The bounds of the controller, or {@code null} for a disabled controller.
+   */
+  AimdController(AimdConfig config) {
+    this.config = config;
+    this.hosts = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Returns an AimdController which never makes a request wait.
+   *
+   * @return The disabled AimdController instance.
+   */
+  public static AimdController disabled() {
+    return DISABLED;
+  }
+
+  /**
+   * Waits until the limits of the specified host allow one more request and takes a slot.
+   *
+   * @param host The host of the request.
+   * @return The sample of the request, to complete with the status code of the response and to
+   *     close once the response has been received.
+   * @throws InterruptedException If the thread is interrupted while waiting.
+   */
+  public Sample acquire(String host) throws InterruptedException {
+    if (config == null) {
+      return Sample.NONE;
+    }
+    var state = state(host);
+    state.acquire();
+    return new Sample(state);
+  }
+
+  /**
+   * Takes a slot for a request to the specified host if the limits of the host allow it right away.
+   *
+   * @param host The host of the request.
+   * @return The sample of the request, or {@code null} if the request would have to wait.
+   */
+  public Sample tryAcquire(String host) {
+    if (config == null) {
+      return Sample.NONE;
+    }
+    var state = state(host);
+    return state.tryAcquire() ? new Sample(state) : null;
+  }
+
+  /**
+   * Returns how long a request to the specified host would have to wait, without taking a slot.
+   *
+   * @param host The host of the request.
+   * @return The number of nanoseconds before a request to the host is allowed.
+   */
+  public long nanosUntilAllowed(String host) {
+    if (config == null) {
+      return 0;
+    }
+    return state(host).nanosUntilAllowed(System.nanoTime());
+  }
+
+  /**
+   * Returns the limits currently applied to the specified host.
+   *
+   * @param host The host.
+   * @return The limits of the host, or an empty optional if the controller is disabled.
+   */
+  public Optional<AimdLimits> limits(String host) {
+    if (config == null) {
+      return Optional.empty();
+    }
+    return Optional.of(state(host).limits());
+  }
+
+  private HostState state(String host) {
+    var key = host == null ? "" : URIHelper.transformUri(host.toLowerCase());
+    return hosts.computeIfAbsent(key, k -> new HostState(config));
+  }
+
+  /** The slot of a request, which reports the outcome of the request when closed. */
+  public static final class Sample implements AutoCloseable {
+
+    private static final Sample NONE = new Sample(null);
+    private final HostState state;
+    private long startNanos;
+    private int statusCode = -1;
+    private boolean closed;
+
+    private Sample(HostState state) {
+      this.state = state;
+      this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Marks the request as sent. The latency of the request is measured from this call, or from the
+     * moment the slot was taken if the request was sent right away.
+     */
+    public void start() {
+      this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Records the status code of the response. A sample closed without a status code counts as a
+     * failed request.
+     *
+     * @param statusCode The status code of the response.
+     */
+    public void complete(int statusCode) {
+      this.statusCode = statusCode;
+    }
+
+    /** Releases the slot and reports the latency and outcome of the request. */
+    @Override
+    public void close() {
+      if (state == null || closed) {
+        return;
+      }
+      closed = true;
+      var error = statusCode < 0 || statusCode == 429 || statusCode >= 500;
+      state.release(System.nanoTime() - startNanos, error);
+    }
+
+    /**
+     * Releases the slot of a request which was never sent, without reporting any outcome. Closing
+     * the sample afterwards has no effect.
+     */
+    public void cancel() {
+      if (state == null || closed) {
+        return;
+      }
+      closed = true;
+      state.cancel();
+    }
+  }
+
+  /** Holds the limits and the current window of samples of a host. */
+  static final class HostState {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final AimdConfig config;
+    private final double minRate;
+    private final double maxRate;
+    private final double rateStep;
+    private final long latencyTargetNanos;
+    private final long[] latencies = new long[WINDOW];
+    private int concurrency;
+    private double rate;
+    private int inFlight;
+    private long nextAllowed;
+    private boolean used;
+    private int samples;
+    private int errors;
+
+    HostState(AimdConfig config) {
+      this.config = config;
+      this.minRate = NANOS_PER_SECOND / config.maxDelay().toNanos();
+      this.maxRate = NANOS_PER_SECOND / config.minDelay().toNanos();
+      this.rateStep = (maxRate - minRate) / RATE_STEPS;
+      this.latencyTargetNanos = config.latencyTarget().toNanos();
+      this.concurrency = config.minConcurrency();
+      this.rate = minRate;
+    }
+
+    void acquire() throws InterruptedException {
+      lock.lockInterruptibly();
+      try {
+        while (true) {
+          if (inFlight < concurrency) {
+            var now = System.nanoTime();
+            var waitNanos = used ? nextAllowed - now : 0;
+            if (waitNanos <= 0) {
+              inFlight++;
+              used = true;
+              nextAllowed = now + delayNanos();
+              return;
+            }
+            released.awaitNanos(waitNanos);
+          } else {
+            released.await();
+          }
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    boolean tryAcquire() {
+      lock.lock();
+      try {
+        var now = System.nanoTime();
+        if (inFlight >= concurrency || (used && nextAllowed - now > 0)) {
+          return false;
+        }
+        inFlight++;
+        used = true;
+        nextAllowed = now + delayNanos();
+        return true;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    long nanosUntilAllowed(long now) {
+      lock.lock();
+      try {
+        if (inFlight >= concurrency) {
+          return delayNanos();
+        }
+        return used ? Math.max(0, nextAllowed - now) : 0;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    void release(long latencyNanos, boolean error) {
+      lock.lock();
+      try {
+        inFlight--;
+        record(latencyNanos, error);
+        released.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    void cancel() {
+      lock.lock();
+      try {
+        inFlight--;
+        released.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    AimdLimits limits() {
+      lock.lock();
+      try {
+        return new AimdLimits(concurrency, Duration.ofNanos(delayNanos()));
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void record(long latencyNanos, boolean error) {
+      latencies[samples++] = latencyNanos;
+      if (error) {
+        errors++;
+      }
+      if (errors > config.maxErrorRate() * WINDOW) {
+        decrease();
+      } else if (samples == WINDOW) {
+        if (percentileLatency() > latencyTargetNanos) {
+          decrease();
+        } else {
+          increase();
+        }
+      }
+    }
+
+    private long percentileLatency() {
+      var sorted = Arrays.copyOf(latencies, samples);
+      Arrays.sort(sorted);
+      return sorted[(int) Math.ceil(PERCENTILE * samples) - 1];
+    }
+
+    private void increase() {
+      concurrency = Math.min(config.maxConcurrency(), concurrency + 1);
+      rate = Math.min(maxRate, rate + rateStep);
+      resetWindow();
+    }
+
+    private void decrease() {
+      concurrency = Math.max(config.minConcurrency(), concurrency / 2);
+      rate = Math.max(minRate, rate / 2);
+      // the next request waits for the longer delay
+      nextAllowed = System.nanoTime() + delayNanos();
+      resetWindow();
+    }
+
+    private void resetWindow() {
+      samples = 0;
+      errors = 0;
+    }
+
+    private long delayNanos() {
+      return (long) (NANOS_PER_SECOND / rate);
+    }
+  }
+}
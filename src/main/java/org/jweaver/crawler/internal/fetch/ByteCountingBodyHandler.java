@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.fetch;
+
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.function.LongConsumer;
+
+/**
+ * A {@link HttpResponse.BodyHandler} that reports the number of body bytes received to a counter,
+ * before handing them to the body handler it wraps.
+ *
+ * <p>The bytes are counted as they arrive from the client, before any decoding, so a body counts
+ * for its size on the wire whatever its charset. Bytes dropped by the wrapped handler, for instance
+ * past the maximum body size, are counted as well since they were received.
+ *
+ * @param <T> The type of the response body.
+ */
+public final class ByteCountingBodyHandler<T> implements HttpResponse.BodyHandler<T> {
+
+  private final HttpResponse.BodyHandler<T> delegate;
+  private final LongConsumer counter;
+
+  /**
+   * Constructs a new ByteCountingBodyHandler instance.
+   *
+   * @param delegate The body handler reading the body.
+   * @param counter The counter receiving the number of bytes of each received chunk.
+   */
+  public ByteCountingBodyHandler(HttpResponse.BodyHandler<T> delegate, LongConsumer counter) {
+    this.delegate = delegate;
+    this.counter = counter;
+  }
+
+  @Override
+  public HttpResponse.BodySubscriber<T> apply(HttpResponse.ResponseInfo responseInfo) {
+    return new CountingSubscriber<>(delegate.apply(responseInfo), counter);
+  }
+
+  /** A subscriber counting the bytes of each chunk before forwarding it. */
+  private static final class CountingSubscriber<T> implements HttpResponse.BodySubscriber<T> {
+
+    private final HttpResponse.BodySubscriber<T> delegate;
+    private final LongConsumer counter;
+
+    private CountingSubscriber(HttpResponse.BodySubscriber<T> delegate, LongConsumer counter) {
+      this.delegate = delegate;
+      this.counter = counter;
+    }
+
+    @Override
+    public CompletionStage<T> getBody() {
+      return delegate.getBody();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      delegate.onSubscribe(subscription);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> items) {
+      long bytes = 0;
+      for (var item : items) {
+        bytes += item.remaining();
+      }
+      counter.accept(bytes);
+      delegate.onNext(items);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      delegate.onError(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+      delegate.onComplete();
+    }
+  }
+}
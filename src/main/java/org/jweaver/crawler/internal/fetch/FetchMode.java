@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.fetch;
+
+/**
+ * The FetchMode enum represents the engines available for fetching the pages of a host. The root
+ * page of a task is always fetched in blocking mode.
+ */
+public enum FetchMode {
+
+  /**
+   * Each worker sends a request with {@code HttpClient#send} and parses the response on its own
+   * thread before fetching the next link.
+   */
+  BLOCKING,
+
+  /**
+   * Requests are sent with {@code HttpClient#sendAsync} and the responses are parsed and expanded
+   * in completion stages, so network waits overlap with the parsing of other pages without
+   * starting a thread per request.
+   */
+  ASYNC
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.fetch;
+
+import java.io.IOException;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import org.jweaver.crawler.internal.util.Constants;
+import org.jweaver.crawler.internal.util.URIHelper;
+
+/**
+ * A {@link HttpResponse.BodyHandler} that decides from the response headers whether a body is worth
+ * reading, before any byte of it is received.
+ *
+ * <p>Bodies with a content type that is not allowed are discarded by cancelling the subscription,
+ * and complete with a {@code null} body. Accepted bodies are read up to the maximum body size and
+ * decoded with the charset of the {@code Content-Type} header, falling back to UTF-8. Larger bodies
+ * are truncated or rejected according to the {@link BodySizePolicy}. A body announced by {@code
+ * Content-Length} as too large is rejected without reading it.
+ */
+public final class HtmlBodyHandler implements HttpResponse.BodyHandler<String> {
+
+  private static final String CHARSET_PARAM = "charset=";
+  private static final String CONTENT_LENGTH_STR = "Content-Length";
+  private static final long MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8L;
+  private final long maxBodySize;
+  private final BodySizePolicy policy;
+
+  /**
+   * Constructs a new HtmlBodyHandler instance.
+   *
+   * @param maxBodySize The maximum number of body bytes to read.
+   * @param policy The action taken when a body exceeds the maximum body size.
+   */
+  public HtmlBodyHandler(long maxBodySize, BodySizePolicy policy) {
+    if (maxBodySize <= 0 || maxBodySize > MAX_ARRAY_SIZE) {
+      throw new IllegalArgumentException("Body size must be between 1 and " + MAX_ARRAY_SIZE);
+    }
+    this.maxBodySize = maxBodySize;
+    this.policy = policy;
+  }
+
+  @Override
+  public HttpResponse.BodySubscriber<String> apply(HttpResponse.ResponseInfo responseInfo) {
+    var headers = responseInfo.headers();
+    if (!allowedContentType(headers)) {
+      return new CancellingSubscriber(null);
+    }
+    var contentLength = headers.firstValueAsLong(CONTENT_LENGTH_STR).orElse(-1);
+    if (contentLength > maxBodySize && policy == BodySizePolicy.REJECT) {
+      return new CancellingSubscriber(bodySizeExceeded());
+    }
+    return new LimitedBodySubscriber(charset(headers));
+  }
+
+  /**
+   * Returns the maximum number of body bytes read by this handler.
+   *
+   * @return The maximum body size in bytes.
+   */
+  public long maxBodySize() {
+    return maxBodySize;
+  }
+
+  /**
+   * Returns the action taken when a body exceeds the maximum body size.
+   *
+   * @return The body size policy.
+   */
+  public BodySizePolicy policy() {
+    return policy;
+  }
+
+  static boolean allowedContentType(HttpHeaders headers) {
+    var contentTypes = headers.allValues(Constants.CONTENT_TYPE_STR);
+    return contentTypes.isEmpty() || contentTypes.stream().anyMatch(URIHelper::isAllowedContentType);
+  }
+
+  static Charset charset(HttpHeaders headers) {
+    var contentType = headers.firstValue(Constants.CONTENT_TYPE_STR).orElse("");
+    var index = contentType.toLowerCase().indexOf(CHARSET_PARAM);
+    if (index < 0) {
+      return StandardCharsets.UTF_8;
+    }
+    var name = contentType.substring(index + CHARSET_PARAM.length()).split(";")[0];
+    name = name.trim().replace("\"", "");
+    try {
+      return Charset.forName(name);
+    } catch (IllegalArgumentException e) {
+      return StandardCharsets.UTF_8;
+    }
+  }
+
+  private IOException bodySizeExceeded() {
+    return new IOException("Response body exceeds " + maxBodySize + " bytes");
+  }
+
+  /**
+   * A subscriber that cancels the subscription as soon as it is received, completing with a {@code
+   * null} body or with the provided failure.
+   */
+  static final class CancellingSubscriber implements HttpResponse.BodySubscriber<String> {
+
+    private final CompletableFuture<String> result = new CompletableFuture<>();
+    private final IOException failure;
+
+    CancellingSubscriber(IOException failure) {
+      this.failure = failure;
+    }
+
+    @Override
+    public CompletionStage<String> getBody() {
+      return result;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      subscription.cancel();
+      if (failure == null) {
+        result.complete(null);
+      } else {
+        result.completeExceptionally(failure);
+      }
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> item) {
+      // the subscription is cancelled, any late buffer is dropped
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      result.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+      result.complete(null);
+    }
+  }
+
+  /** A subscriber that collects the body bytes up to the maximum body size. */
+  final class LimitedBodySubscriber implements HttpResponse.BodySubscriber<String> {
+
+    private final CompletableFuture<String> result = new CompletableFuture<>();
+    private final List<ByteBuffer> buffers = new ArrayList<>();
+    private final Charset charset;
+    private Flow.Subscription subscription;
+    private long received;
+
+    LimitedBodySubscriber(Charset charset) {
+      this.charset = charset;
+    }
+
+    @Override
+    public CompletionStage<String> getBody() {
+      return result;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+      subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> items) {
+      if (result.isDone()) {
+        return;
+      }
+      for (var buffer : items) {
+        var remaining = maxBodySize - received;
+        if (buffer.remaining() <= remaining) {
+          received += buffer.remaining();
+          buffers.add(buffer);
+          continue;
+        }
+        subscription.cancel();
+        if (policy == BodySizePolicy.TRUNCATE) {
+          buffers.add(buffer.slice(buffer.position(), (int) remaining));
+          received += remaining;
+          result.complete(decode());
+        } else {
+          result.completeExceptionally(bodySizeExceeded());
+        }
+        return;
+      }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      result.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+      result.complete(decode());
+    }
+
+    private String decode() {
+      var bytes = new byte[(int) received];
+      var offset = 0;
+      for (var buffer : buffers) {
+        var length = buffer.remaining();
+        buffer.get(bytes, offset, length);
+        offset += length;
+      }
+      buffers.clear();
+      return new String(bytes, charset);
+    }
+  }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.fetch;
+
+import java.time.Duration;
+
+/**
+ * The LimiterStats record represents the time requests spent waiting for a {@link RequestLimiter},
+ * which tells whether its limits hold the crawl back.
+ *
+ * @param acquired The number of permits acquired
+ * @param queued The number of permits which were not available right away
+ * @param totalWait The time spent waiting for all the permits
+ * @param maxWait The longest time spent waiting for a single permit
+ */
+public record LimiterStats(long acquired, long queued, Duration totalWait, Duration maxWait) {
+
+  /**
+   * Returns the average time spent waiting for a permit.
+   *
+   * @return The average wait, or {@link Duration#ZERO} if no permit was acquired.
+   */
+  public Duration averageWait() {
+    return acquired == 0 ? Duration.ZERO : totalWait.dividedBy(acquired);
+  }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.fetch;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jweaver.crawler.internal.util.URIHelper;
+
+/**
+ * The PolitenessScheduler class spaces the requests sent to a host by a fixed interval. Each host
+ * has a gate holding the next time a request is allowed; a caller reserves the next slot and only
+ * waits for the part of the interval that has not already elapsed, so the time spent parsing and
+ * writing the previous page counts towards the delay.
+ *
+ * <p>A single instance is shared by all the tasks of a crawler, so tasks crawling the same host
+ * share its budget. Hosts are compared without their 'www.' prefix.
+ */
+public final class PolitenessScheduler {
+
+  private final long intervalNanos;
+  private final Map<String, HostGate> gates;
+
+  /**
+   * Constructs a new PolitenessScheduler instance.
+   *
+   * @param interval The minimum interval between two requests to the same host.
+   */
+  public PolitenessScheduler(Duration interval) {
+    if (interval.isNegative()) {
+      throw new IllegalArgumentException("Interval cannot be negative");
+    }
+    this.intervalNanos = interval.toNanos();
+    this.gates = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Waits until a request to the specified host is allowed and reserves the slot.
+   *
+   * @param host The host of the request.
+   * @throws InterruptedException If the thread is interrupted while waiting.
+   */
+  public void acquire(String host) throws InterruptedException {
+    var waitNanos = reserve(host, System.nanoTime());
+    if (waitNanos > 0) {
+      Thread.sleep(Duration.ofNanos(waitNanos));
+    }
+  }
+
+  /**
+   * Reserves the slot of a request to the specified host if the request is allowed right away.
+   *
+   * @param host The host of the request.
+   * @return {@code true} if the slot was reserved, or {@code false} if the request would have to
+   *     wait, in which case nothing is reserved.
+   */
+  public boolean tryAcquire(String host) {
+    return tryReserve(host, System.nanoTime());
+  }
+
+  /**
+   * Returns how long a request to the specified host would have to wait, without reserving the
+   * slot.
+   *
+   * @param host The host of the request.
+   * @return The number of nanoseconds before a request to the host is allowed.
+   */
+  public long nanosUntilAllowed(String host) {
+    return nanosUntilAllowed(host, System.nanoTime());
+  }
+
+  /**
+   * Returns how long a request to the specified host would have to wait, without reserving the
+   * slot.
+   *
+   * @param host The host of the request.
+   * @param now The current {@link System#nanoTime()}.
+   * @return The number of nanoseconds before a request to the host is allowed.
+   */
+  long nanosUntilAllowed(String host, long now) {
+    var gate = gates.get(key(host));
+    return gate == null ? 0 : gate.waitNanos(now);
+  }
+
+  /**
+   * Pauses the requests to the specified host, typically after a throttling response. Requests
+   * already reserved beyond the pause are not affected.
+   *
+   * @param host The host to pause.
+   * @param pause The time during which no request is sent to the host.
+   */
+  public void pause(String host, Duration pause) {
+    pause(host, System.nanoTime(), pause.toNanos());
+  }
+
+  /**
+   * Pauses the requests to the specified host.
+   *
+   * @param host The host to pause.
+   * @param now The current {@link System#nanoTime()}.
+   * @param pauseNanos The time during which no request is sent to the host.
+   */
+  void pause(String host, long now, long pauseNanos) {
+    gates.computeIfAbsent(key(host), k -> new HostGate()).pause(now + pauseNanos);
+  }
+
+  /**
+   * Reserves the next request slot of the specified host.
+   *
+   * @param host The host of the request.
+   * @param now The current {@link System#nanoTime()}.
+   * @return The number of nanoseconds to wait before sending the request.
+   */
+  long reserve(String host, long now) {
+    return gates.computeIfAbsent(key(host), k -> new HostGate()).reserve(now, intervalNanos);
+  }
+
+  /**
+   * Reserves the next request slot of the specified host if it is allowed right away.
+   *
+   * @param host The host of the request.
+   * @param now The current {@link System#nanoTime()}.
+   * @return {@code true} if the slot was reserved, otherwise {@code false}.
+   */
+  boolean tryReserve(String host, long now) {
+    return gates.computeIfAbsent(key(host), k -> new HostGate()).tryReserve(now, intervalNanos);
+  }
+
+  private static String key(String host) {
+    return host == null ? "" : URIHelper.transformUri(host.toLowerCase());
+  }
+
+  /** Holds the next time a request to a host is allowed. */
+  static final class HostGate {
+
+    private long nextAllowed;
+    private boolean used;
+
+    synchronized long reserve(long now, long intervalNanos) {
+      var start = !used || now - nextAllowed > 0 ? now : nextAllowed;
+      used = true;
+      nextAllowed = start + intervalNanos;
+      return start - now;
+    }
+
+    synchronized boolean tryReserve(long now, long intervalNanos) {
+      if (used && nextAllowed - now > 0) {
+        return false;
+      }
+      used = true;
+      nextAllowed = now + intervalNanos;
+      return true;
+    }
+
+    synchronized void pause(long until) {
+      if (!used || until - nextAllowed > 0) {
+        nextAllowed = until;
+      }
+      used = true;
+    }
+
+    synchronized long waitNanos(long now) {
+      return used ? Math.max(0, nextAllowed - now) : 0;
+    }
+  }
+}
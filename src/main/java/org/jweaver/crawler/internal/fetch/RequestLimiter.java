@@ -0,0 +1,247 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.fetch;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.jweaver.crawler.internal.util.URIHelper;
+
+/**
+ * The RequestLimiter class caps the number of requests in flight, over the whole crawler and for
+ * each host, whichever task sends them. A request holds a {@link Permit} from just before it is
+ * sent until its response has been received.
+ *
+ * <p>The permits are handed out in arrival order, so a host with many waiting requests cannot
+ * starve the others. The permit of the host is taken before the global one, so a request waiting
+ * for its host never holds a global permit. The time spent waiting is recorded, globally and per
+ * host, to size the limits.
+ */
+public final class RequestLimiter {
+
+  private static final RequestLimiter UNLIMITED = new RequestLimiter(0, 0);
+  private final Semaphore global;
+  private final int maxPerHost;
+  private final Map<String, HostLimit> hosts;
+  private final WaitRecorder waits;
+
+  /**
+   * Constructs a new RequestLimiter. A limit of zero means the requests are not limited.
+   *
+   * @param maxInFlight The maximum number of requests in flight over the whole crawler.
+   * @param maxInFlightPerHost The maximum number of requests in flight for a single host.
+   */
+  RequestLimiter(int maxInFlight, int maxInFlightPerHost) {
+    this.global = maxInFlight > 0 ? new Semaphore(maxInFlight, true) : null;
+    this.maxPerHost = maxInFlightPerHost;
+    this.hosts = new ConcurrentHashMap<>();
+    this.waits = new WaitRecorder();
+  }
+
+  /**
+   * Creates a new RequestLimiter with the specified limits.
+   *
+   * @param maxInFlight The maximum number of requests in flight over the whole crawler.
+   * @param maxInFlightPerHost The maximum number of requests in flight for a single host.
+   * @return A new RequestLimiter instance.
+   * @throws IllegalArgumentException If a limit is not positive.
+   */
+  public static RequestLimiter create(int maxInFlight, int maxInFlightPerHost) {
+    if (maxInFlight <= 0 || maxInFlightPerHost <= 0) {
+      throw new IllegalArgumentException("Requests in flight must be greater than zero");
+    }
+    return new RequestLimiter(maxInFlight, maxInFlightPerHost);
+  }
+
+  /**
+   * Returns a RequestLimiter which never makes a request wait.
+   *
+   * @return The unlimited RequestLimiter instance.
+   */
+  public static RequestLimiter unlimited() {
+    return UNLIMITED;
+  }
+
+  /**
+   * Waits until a request to the specified host is allowed and takes its permits.
+   *
+   * @param host The host of the request.
+   * @return The permit to close once the response has been received.
+   * @throws InterruptedException If the thread is interrupted while waiting.
+   */
+  public Permit acquire(String host) throws InterruptedException {
+    if (this == UNLIMITED) {
+      return Permit.NONE;
+    }
+    var limit = hosts.computeIfAbsent(key(host), k -> new HostLimit(maxPerHost));
+    var start = System.nanoTime();
+    var queued = acquireInLine(limit.permits);
+    if (global != null) {
+      try {
+        queued |= acquireInLine(global);
+      } catch (InterruptedException e) {
+        limit.permits.release();
+        throw e;
+      }
+    }
+    var waitNanos = queued ? System.nanoTime() - start : 0;
+    waits.record(queued, waitNanos);
+    limit.waits.record(queued, waitNanos);
+    return new Permit(limit.permits, global);
+  }
+
+  /**
+   * Takes the permits of a request to the specified host if they are free right away. A free
+   * permit is not taken while other requests are waiting in line for it.
+   *
+   * @param host The host of the request.
+   * @return The permit to close once the response has been received, or {@code null} if the
+   *     request would have to wait, in which case nothing is taken.
+   */
+  public Permit tryAcquire(String host) {
+    if (this == UNLIMITED) {
+      return Permit.NONE;
+    }
+    var limit = hosts.computeIfAbsent(key(host), k -> new HostLimit(maxPerHost));
+    if (!tryAcquireInLine(limit.permits)) {
+      return null;
+    }
+    if (global != null && !tryAcquireInLine(global)) {
+      limit.permits.release();
+      return null;
+    }
+    waits.record(false, 0);
+    limit.waits.record(false, 0);
+    return new Permit(limit.permits, global);
+  }
+
+  /**
+   * Returns the time spent waiting for permits by all the requests.
+   *
+   * @return The wait statistics of the crawler.
+   */
+  public LimiterStats stats() {
+    return waits.stats();
+  }
+
+  /**
+   * Returns the time spent waiting for permits by the requests to the specified host.
+   *
+   * @param host The host of the requests.
+   * @return The wait statistics of the host.
+   */
+  public LimiterStats stats(String host) {
+    var limit = hosts.get(key(host));
+    return limit == null ? new WaitRecorder().stats() : limit.waits.stats();
+  }
+
+  /**
+   * Takes a permit right away if one is free, or otherwise waits in line for one.
+   *
+   * @return {@code true} if the permit was not free, otherwise {@code false}.
+   */
+  private static boolean acquireInLine(Semaphore semaphore) throws InterruptedException {
+    // unlike tryAcquire(), a timed tryAcquire does not jump ahead of the waiting threads
+    if (semaphore.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+      return false;
+    }
+    semaphore.acquire();
+    return true;
+  }
+
+  private static boolean tryAcquireInLine(Semaphore semaphore) {
+    try {
+      return semaphore.tryAcquire(0, TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private static String key(String host) {
+    return host == null ? "" : URIHelper.transformUri(host.toLowerCase());
+  }
+
+  /** The permits of a request, released when the permit is closed. */
+  public static final class Permit implements AutoCloseable {
+
+    private static final Permit NONE = new Permit(null, null);
+    private final Semaphore host;
+    private final Semaphore global;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private Permit(Semaphore host, Semaphore global) {
+      this.host = host;
+      this.global = global;
+    }
+
+    /** Releases the permits of the request. Closing a permit again has no effect. */
+    @Override
+    public void close() {
+      if (host == null || !released.compareAndSet(false, true)) {
+        return;
+      }
+      if (global != null) {
+        global.release();
+      }
+      host.release();
+    }
+  }
+
+  /** Holds the permits and wait statistics of a host. */
+  private static final class HostLimit {
+
+    private final Semaphore permits;
+    private final WaitRecorder waits = new WaitRecorder();
+
+    private HostLimit(int maxInFlight) {
+      this.permits = new Semaphore(maxInFlight > 0 ? maxInFlight : Integer.MAX_VALUE, true);
+    }
+  }
+
+  /** Records the time spent waiting for permits. */
+  private static final class WaitRecorder {
+
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    private void record(boolean wasQueued, long waitNanos) {
+      acquired.increment();
+      if (wasQueued) {
+        queued.increment();
+        totalNanos.add(waitNanos);
+        maxNanos.accumulateAndGet(waitNanos, Math::max);
+      }
+    }
+
+    private LimiterStats stats() {
+      return new LimiterStats(
+          acquired.sum(),
+          queued.sum(),
+          Duration.ofNanos(totalNanos.sum()),
+          Duration.ofNanos(maxNanos.get()));
+    }
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.fetch;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+
+/**
+ * The RetryAfter class parses the {@code Retry-After} header of throttling responses, which holds
+ * either a number of seconds or an HTTP date.
+ */
+public final class RetryAfter {
+
+  /** The name of the header. */
+  public static final String HEADER = "Retry-After";
+
+  private RetryAfter() {
+    // utility class
+  }
+
+  /**
+   * Parses the value of a {@code Retry-After} header. A date in the past gives a zero delay.
+   *
+   * @param value The value of the header.
+   * @param now The current time, against which a date is resolved.
+   * @return The delay requested by the server, or an empty optional if the value is invalid.
+   */
+  public static Optional<Duration> parse(String value, Instant now) {
+    if (value == null || value.isBlank()) {
+      return Optional.empty();
+    }
+    var trimmed = value.trim();
+    if (trimmed.chars().allMatch(Character::isDigit)) {
+      try {
+        return Optional.of(Duration.ofSeconds(Long.parseLong(trimmed)));
+      } catch (NumberFormatException e) {
+        return Optional.empty();
+      }
+    }
+    try {
+      var date = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+      var delay = Duration.between(now, date);
+      return Optional.of(delay.isNegative() ? Duration.ZERO : delay);
+    } catch (DateTimeParseException e) {
+      return Optional.empty();
+    }
+  }
+}
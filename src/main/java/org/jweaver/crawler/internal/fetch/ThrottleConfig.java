@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.fetch;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+
+/**
+ * The ThrottleConfig record represents how a task reacts to throttling responses, that is 429 Too
+ * Many Requests and 503 Service Unavailable. The host is paused and the page is crawled again
+ * after the delay of the {@code Retry-After} header, or after an exponential backoff if the header
+ * is missing, up to a number of retries.
+ *
+ * @param maxRetries The maximum number of retries of a page, after which it is reported as an
+ *     error.
+ * @param initialBackoff The delay before the first retry when the response has no {@code
+ *     Retry-After} header, doubled for every following retry.
+ * @param maxBackoff The longest delay before a retry, which also caps the {@code Retry-After}
+ *     header.
+ */
+public record ThrottleConfig(int maxRetries, Duration initialBackoff, Duration maxBackoff) {
+
+  /**
+   * Constructs a new ThrottleConfig, validating its parameters.
+   *
+   * @throws NullPointerException If a delay is null.
+   * @throws IllegalArgumentException If the number of retries or a delay is negative, or the
+   *     initial backoff exceeds the maximum backoff.
+   */
+  public ThrottleConfig {
+    requireNonNull(initialBackoff);
+    requireNonNull(maxBackoff);
+    if (maxRetries < 0) {
+      throw new IllegalArgumentException("Retries cannot be negative");
+    }
+    if (initialBackoff.isNegative() || maxBackoff.compareTo(initialBackoff) < 0) {
+      throw new IllegalArgumentException("Backoff cannot be negative or exceed the maximum");
+    }
+  }
+
+  /**
+   * Creates and returns a new ThrottleConfig retrying a page up to 3 times, with a backoff starting
+   * at 10 seconds and capped at 10 minutes.
+   *
+   * @return A new ThrottleConfig instance with the default parameters.
+   */
+  public static ThrottleConfig defaults() {
+    return new ThrottleConfig(3, Duration.ofSeconds(10), Duration.ofMinutes(10));
+  }
+
+  /**
+   * Returns the delay before a retry.
+   *
+   * @param retryAfter The delay of the {@code Retry-After} header, or {@code null} if there is
+   *     none.
+   * @param attempt The number of the retry, starting at 1.
+   * @return The delay before the retry, at most the maximum backoff.
+   */
+  public Duration backoff(Duration retryAfter, int attempt) {
+    if (retryAfter != null) {
+      return retryAfter.compareTo(maxBackoff) > 0 ? maxBackoff : retryAfter;
+    }
+    var backoff = initialBackoff;
+    for (int i = 1; i < attempt && backoff.compareTo(maxBackoff) < 0; i++) {
+      backoff = backoff.multipliedBy(2);
+    }
+    return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+  }
+}
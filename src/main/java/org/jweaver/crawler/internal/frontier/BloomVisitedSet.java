@@ -0,0 +1,251 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.frontier;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The BloomVisitedSet class is a {@link VisitedSet} backed by a scalable Bloom filter.
+ *
+ * <p>The filter is a chain of Bloom filters. Once the current filter holds the number of URLs it
+ * was sized for, a new filter twice as large, with half the false-positive rate, is added to the
+ * chain, so the false-positive rate of the whole chain stays below the target rate. A URL is
+ * visited if any filter of the chain contains it.
+ *
+ * <p>The filters never exceed the memory ceiling of the set. When the next filter would exceed
+ * it, the chain stops growing and the last filter keeps accepting URLs past its capacity, at a
+ * rising false-positive rate reported by {@link #stats()}. The size of a filter is checked against
+ * the ceiling before it is allocated, and a single filter never exceeds the largest array of longs,
+ * about 16 GiB, whatever its settings.
+ *
+ * <p>Checking and setting the bits of a URL is atomic: the adds of the same URL are serialized by
+ * a lock chosen from its fingerprint, so only one of them reports the URL as new. The adds of
+ * other URLs proceed concurrently.
+ */
+final class BloomVisitedSet implements VisitedSet {
+
+  private static final double LN2 = Math.log(2);
+  // each filter halves the false-positive rate of the previous one
+  private static final double TIGHTENING_RATIO = 0.5;
+  private static final int GROWTH_FACTOR = 2;
+  private static final int LOCK_STRIPES = 64;
+  // the largest array length the JVM allows
+  private static final long MAX_BITS = (long) (Integer.MAX_VALUE - 8) * Long.SIZE;
+  private final long maxBytes;
+  private final List<Filter> filters = new CopyOnWriteArrayList<>();
+  private final ReentrantLock growLock = new ReentrantLock();
+  private final ReentrantLock[] addLocks = new ReentrantLock[LOCK_STRIPES];
+  private final AtomicLong size = new AtomicLong();
+  private final LookupCounter lookups = new LookupCounter();
+
+  /**
+   * Constructs a new BloomVisitedSet.
+   *
+   * @param expectedUrls The number of URLs the first filter is sized for.
+   * @param falsePositiveRate The target false-positive rate of the set.
+   * @param maxBytes The memory ceiling of the filters.
+   */
+  BloomVisitedSet(long expectedUrls, double falsePositiveRate, long maxBytes) {
+    this.maxBytes = maxBytes;
+    double firstRate = falsePositiveRate * (1 - TIGHTENING_RATIO);
+    if (Filter.bytes(Filter.bitCount(expectedUrls, firstRate)) <= maxBytes) {
+      filters.add(Filter.create(expectedUrls, firstRate));
+    } else {
+      filters.add(Filter.withBytes(expectedUrls, maxBytes));
+    }
+    for (int i = 0; i < LOCK_STRIPES; i++) {
+      addLocks[i] = new ReentrantLock();
+    }
+  }
+
+  @Override
+  public boolean add(String url) {
+    long fingerprint = UrlFingerprint.of(url);
+    var lock = addLocks[(int) (fingerprint >>> 32) & (LOCK_STRIPES - 1)];
+    lock.lock();
+    try {
+      if (lookups.record(mightContain(fingerprint))) {
+        return false;
+      }
+      currentFilter().put(fingerprint);
+    } finally {
+      lock.unlock();
+    }
+    size.incrementAndGet();
+    return true;
+  }
+
+  @Override
+  public boolean contains(String url) {
+    return lookups.record(mightContain(UrlFingerprint.of(url)));
+  }
+
+  @Override
+  public long size() {
+    return size.get();
+  }
+
+  @Override
+  public VisitedSetStats stats() {
+    long bytes = 0;
+    double trueNegativeRate = 1;
+    for (var filter : filters) {
+      bytes += filter.bytes();
+      trueNegativeRate *= 1 - filter.falsePositiveRate();
+    }
+    return new VisitedSetStats(
+        size.get(), bytes, 1 - trueNegativeRate, lookups.hits(), lookups.misses());
+  }
+
+  /**
+   * Returns the number of filters in the chain.
+   *
+   * @return The number of filters.
+   */
+  int filterCount() {
+    return filters.size();
+  }
+
+  private boolean mightContain(long fingerprint) {
+    for (var filter : filters) {
+      if (filter.mightContain(fingerprint)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private Filter currentFilter() {
+    var last = filters.getLast();
+    if (!last.isFull()) {
+      return last;
+    }
+    growLock.lock();
+    try {
+      last = filters.getLast();
+      if (last.isFull()) {
+        long usedBytes = filters.stream().mapToLong(Filter::bytes).sum();
+        long nextCapacity = last.capacity() * GROWTH_FACTOR;
+        double nextRate = last.targetRate() * TIGHTENING_RATIO;
+        if (usedBytes + Filter.bytes(Filter.bitCount(nextCapacity, nextRate)) <= maxBytes) {
+          last = Filter.create(nextCapacity, nextRate);
+          filters.add(last);
+        }
+      }
+      return last;
+    } finally {
+      growLock.unlock();
+    }
+  }
+
+  /** A Bloom filter with a fixed number of bits, set with double hashing. */
+  private static final class Filter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final long capacity;
+    private final double targetRate;
+    private final AtomicLong insertions = new AtomicLong();
+    private final AtomicLong setBits = new AtomicLong();
+
+    private Filter(long bitCount, int hashCount, long capacity, double targetRate) {
+      this.words = new AtomicLongArray((int) ((bitCount + 63) >>> 6));
+      this.bitCount = bitCount;
+      this.hashCount = hashCount;
+      this.capacity = capacity;
+      this.targetRate = targetRate;
+    }
+
+    static Filter create(long capacity, double targetRate) {
+      long bitCount = bitCount(capacity, targetRate);
+      return new Filter(bitCount, hashCount(bitCount, capacity), capacity, targetRate);
+    }
+
+    static Filter withBytes(long capacity, long bytes) {
+      long bitCount = Math.clamp(bytes, 8, MAX_BITS / Byte.SIZE) * Byte.SIZE;
+      double targetRate = Math.pow(0.5, hashCount(bitCount, capacity));
+      return new Filter(bitCount, hashCount(bitCount, capacity), capacity, targetRate);
+    }
+
+    /** Returns the optimal number of bits for the capacity and rate, within the array limit. */
+    static long bitCount(long capacity, double targetRate) {
+      double optimalBits = -capacity * Math.log(targetRate) / (LN2 * LN2);
+      // the cast saturates at Long.MAX_VALUE
+      return Math.clamp((long) Math.ceil(optimalBits), 64, MAX_BITS);
+    }
+
+    static long bytes(long bitCount) {
+      return ((bitCount + 63) >>> 6) * Long.BYTES;
+    }
+
+    private static int hashCount(long bitCount, long capacity) {
+      return Math.max(1, (int) Math.round((double) bitCount / capacity * LN2));
+    }
+
+    void put(long fingerprint) {
+      long secondHash = UrlFingerprint.mix(fingerprint ^ 0x9e3779b97f4a7c15L) | 1;
+      for (int i = 0; i < hashCount; i++) {
+        long bit = Math.floorMod(fingerprint + i * secondHash, bitCount);
+        int word = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        long current = words.getAndUpdate(word, value -> value | mask);
+        if ((current & mask) == 0) {
+          setBits.incrementAndGet();
+        }
+      }
+      insertions.incrementAndGet();
+    }
+
+    boolean mightContain(long fingerprint) {
+      long secondHash = UrlFingerprint.mix(fingerprint ^ 0x9e3779b97f4a7c15L) | 1;
+      for (int i = 0; i < hashCount; i++) {
+        long bit = Math.floorMod(fingerprint + i * secondHash, bitCount);
+        if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    boolean isFull() {
+      return insertions.get() >= capacity;
+    }
+
+    /** Estimates the false-positive rate from the share of bits set. */
+    double falsePositiveRate() {
+      return Math.pow((double) setBits.get() / bitCount, hashCount);
+    }
+
+    long bytes() {
+      return (long) words.length() * Long.BYTES;
+    }
+
+    long capacity() {
+      return capacity;
+    }
+
+    double targetRate() {
+      return targetRate;
+    }
+  }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.frontier;
+
+/**
+ * The BloomVisitedSetConfig record represents the configuration of visited sets backed by a
+ * scalable Bloom filter. It implements the VisitedSetConfig interface.
+ *
+ * @param expectedUrls The expected number of URLs per task, used to size the first filter
+ * @param falsePositiveRate The target probability that an unvisited URL is skipped
+ * @param maxBytes The memory ceiling of the filters of a task
+ */
+public record BloomVisitedSetConfig(long expectedUrls, double falsePositiveRate, long maxBytes)
+    implements VisitedSetConfig {
+
+  /**
+   * Constructs a new BloomVisitedSetConfig, validating its settings.
+   *
+   * @throws IllegalArgumentException If the expected number of URLs or the memory ceiling is not
+   *     positive, or the false-positive rate is not between 0 and 1.
+   */
+  public BloomVisitedSetConfig {
+    if (expectedUrls <= 0) {
+      throw new IllegalArgumentException("Expected URLs must be greater than zero");
+    }
+    if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+      throw new IllegalArgumentException("False-positive rate must be between 0 and 1");
+    }
+    if (maxBytes <= 0) {
+      throw new IllegalArgumentException("Memory ceiling must be greater than zero");
+    }
+  }
+
+  @Override
+  public VisitedSet create() {
+    return new BloomVisitedSet(expectedUrls, falsePositiveRate, maxBytes);
+  }
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.frontier;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.concurrent.locks.ReentrantLock;
+import org.jweaver.crawler.internal.exception.FrontierException;
+import org.jweaver.crawler.internal.result.PageLink;
+
+/**
+ * The DiskFrontier class is a first-in first-out {@link Frontier} which keeps only its head and
+ * tail in memory and spills the links in between to segment files on local disk.
+ *
+ * <p>New links are buffered in an in-memory tail. Once the tail holds {@code bufferSize} links,
+ * they are appended to the segment file being written, which is sealed once it reaches {@code
+ * segmentBytes}. Links are polled from the oldest segment, memory-mapped and decoded one link at a
+ * time, and the segment file is deleted once it has been read. When no link is left on disk, links
+ * are polled straight from the tail, so a small frontier never touches the disk. The links put back
+ * by {@link #requeue(PageLink)} are held in memory and polled before any other link.
+ *
+ * <p>The segment directory is created on the first spill and deleted when the frontier is closed,
+ * along with the links left in the frontier. A closed frontier can be used again, and creates a new
+ * directory on its next spill.
+ *
+ * <p>Since links are read back in the order they were added, the frontier keeps the breadth-first
+ * order of the crawl: links are polled by increasing depth.
+ */
+final class DiskFrontier implements Frontier {
+
+  private static final String SEGMENT_PREFIX = "frontier-";
+  private static final String SEGMENT_SUFFIX = ".seg";
+  private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+  private final Path parentDirectory;
+  private final int bufferSize;
+  private final long segmentBytes;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Deque<PageLink> tail = new ArrayDeque<>();
+  private final Deque<PageLink> requeued = new ArrayDeque<>();
+  private final Deque<Path> sealedSegments = new ArrayDeque<>();
+  private Path directory;
+  private Path writeSegment;
+  private DataOutputStream writer;
+  private MappedByteBuffer head;
+  private Path headSegment;
+  private long segmentCount;
+  private long size;
+
+  /**
+   * Constructs a new DiskFrontier storing its segments in a new directory, created on the first
+   * spill.
+   *
+   * @param parentDirectory The directory in which the segment directory is created.
+   * @param bufferSize The number of links held in memory before they are spilled to disk.
+   * @param segmentBytes The size from which a segment file is sealed.
+   */
+  DiskFrontier(Path parentDirectory, int bufferSize, long segmentBytes) {
+    this.parentDirectory = parentDirectory;
+    this.bufferSize = bufferSize;
+    this.segmentBytes = segmentBytes;
+  }
+
+  @Override
+  public void addAll(Collection<PageLink> links) {
+    lock.lock();
+    try {
+      for (var link : links) {
+        tail.addLast(link);
+        if (tail.size() >= bufferSize) {
+          spillTail();
+        }
+      }
+      size += links.size();
+    } catch (IOException e) {
+      throw new FrontierException(e);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public PageLink poll() {
+    lock.lock();
+    try {
+      if (size == 0) {
+        return null;
+      }
+      size--;
+      var link = requeued.pollFirst();
+      if (link != null) {
+        return link;
+      }
+      while (head == null || !head.hasRemaining()) {
+        if (!nextHeadSegment()) {
+          return tail.pollFirst();
+        }
+      }
+      return decode(head);
+    } catch (IOException e) {
+      throw new FrontierException(e);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void requeue(PageLink link) {
+    lock.lock();
+    try {
+      requeued.addFirst(link);
+      size++;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public long size() {
+    lock.lock();
+    try {
+      return size;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the number of segment files written so far.
+   *
+   * @return The number of segment files.
+   */
+  long segmentCount() {
+    lock.lock();
+    try {
+      return segmentCount;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Deletes the segment files and the segment directory, and drops the links left in the frontier.
+   */
+  @Override
+  public void close() {
+    lock.lock();
+    try {
+      closeWriter();
+      head = null;
+      headSegment = null;
+      writeSegment = null;
+      sealedSegments.clear();
+      tail.clear();
+      requeued.clear();
+      size = 0;
+      if (directory == null) {
+        return;
+      }
+      try (var files = Files.list(directory)) {
+        for (var file : files.toList()) {
+          Files.deleteIfExists(file);
+        }
+      }
+      Files.deleteIfExists(directory);
+      directory = null;
+    } catch (IOException e) {
+      throw new FrontierException(e);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void spillTail() throws IOException {
+    if (directory == null) {
+      Files.createDirectories(parentDirectory);
+      directory = Files.createTempDirectory(parentDirectory, SEGMENT_PREFIX);
+    }
+    if (writer == null) {
+      writeSegment = directory.resolve(SEGMENT_PREFIX + segmentCount++ + SEGMENT_SUFFIX);
+      var channel =
+          FileChannel.open(writeSegment, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+      writer =
+          new DataOutputStream(
+              new BufferedOutputStream(Channels.newOutputStream(channel), WRITE_BUFFER_SIZE));
+    }
+    PageLink link;
+    while ((link = tail.pollFirst()) != null) {
+      var url = link.url().getBytes(StandardCharsets.UTF_8);
+      writer.writeInt(link.depth());
+      writer.writeInt(url.length);
+      writer.write(url);
+    }
+    if (writer.size() >= segmentBytes) {
+      sealWriteSegment();
+    }
+  }
+
+  private void sealWriteSegment() throws IOException {
+    closeWriter();
+    sealedSegments.addLast(writeSegment);
+    writeSegment = null;
+  }
+
+  private void closeWriter() throws IOException {
+    if (writer != null) {
+      writer.close();
+      writer = null;
+    }
+  }
+
+  /**
+   * Maps the next segment to read, after deleting the one that has been read. The segment being
+   * written is sealed first if it is the only one left.
+   *
+   * @return {@code true} if a segment was mapped, or {@code false} if no link is left on disk.
+   */
+  private boolean nextHeadSegment() throws IOException {
+    if (headSegment != null) {
+      head = null;
+      Files.deleteIfExists(headSegment);
+      headSegment = null;
+    }
+    if (sealedSegments.isEmpty() && writer != null) {
+      sealWriteSegment();
+    }
+    headSegment = sealedSegments.pollFirst();
+    if (headSegment == null) {
+      return false;
+    }
+    try (var channel = FileChannel.open(headSegment, StandardOpenOption.READ)) {
+      head = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    return true;
+  }
+
+  private static PageLink decode(MappedByteBuffer buffer) {
+    int depth = buffer.getInt();
+    var url = new byte[buffer.getInt()];
+    buffer.get(url);
+    return new PageLink(new String(url, StandardCharsets.UTF_8), depth);
+  }
+}
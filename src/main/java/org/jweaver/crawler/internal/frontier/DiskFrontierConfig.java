@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.frontier;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * The DiskFrontierConfig record represents the configuration of frontiers spilling links to disk.
+ * It implements the FrontierConfig interface.
+ *
+ * @param directory The directory in which the segment directories are created.
+ * @param bufferSize The number of links held in memory before they are spilled to disk.
+ * @param segmentBytes The size from which a segment file is sealed.
+ */
+public record DiskFrontierConfig(Path directory, int bufferSize, long segmentBytes)
+    implements FrontierConfig {
+
+  /**
+   * Constructs a new DiskFrontierConfig, validating its components.
+   *
+   * @throws NullPointerException If the directory is null.
+   * @throws IllegalArgumentException If the buffer size or segment size is not positive.
+   */
+  public DiskFrontierConfig {
+    Objects.requireNonNull(directory);
+    if (bufferSize <= 0) {
+      throw new IllegalArgumentException("Buffer size must be greater than zero");
+    }
+    if (segmentBytes <= 0) {
+      throw new IllegalArgumentException("Segment bytes must be greater than zero");
+    }
+  }
+
+  @Override
+  public Frontier create() {
+    return new DiskFrontier(directory, bufferSize, segmentBytes);
+  }
+}
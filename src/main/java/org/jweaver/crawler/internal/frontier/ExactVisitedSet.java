@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.frontier;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** The ExactVisitedSet class is a {@link VisitedSet} holding the full URL strings. */
+final class ExactVisitedSet implements VisitedSet {
+
+  // object header, fields and array of a String, plus a ConcurrentHashMap node and table slot
+  private static final long ENTRY_OVERHEAD = 24 + 16 + 32 + 8;
+  private final Set<String> urls = ConcurrentHashMap.newKeySet();
+  private final AtomicLong urlChars = new AtomicLong();
+  private final LookupCounter lookups = new LookupCounter();
+
+  @Override
+  public boolean add(String url) {
+    if (lookups.record(!urls.add(url))) {
+      return false;
+    }
+    urlChars.addAndGet(url.length());
+    return true;
+  }
+
+  @Override
+  public boolean contains(String url) {
+    return lookups.record(urls.contains(url));
+  }
+
+  @Override
+  public long size() {
+    return urls.size();
+  }
+
+  @Override
+  public VisitedSetStats stats() {
+    long entries = size();
+    // compact strings store one byte per Latin-1 character
+    return new VisitedSetStats(
+        entries, entries * ENTRY_OVERHEAD + urlChars.get(), 0, lookups.hits(), lookups.misses());
+  }
+}
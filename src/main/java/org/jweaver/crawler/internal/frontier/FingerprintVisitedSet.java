@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.frontier;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The FingerprintVisitedSet class is a {@link VisitedSet} holding the 64-bit fingerprints of the
+ * URLs instead of the URLs themselves.
+ *
+ * <p>The fingerprints are stored in an open-addressing table with linear probing, backed by a
+ * direct {@link ByteBuffer}. The table lives outside the Java heap, so it is never scanned by the
+ * garbage collector, and takes 8 bytes per slot. It doubles in size once half of its slots are
+ * used.
+ *
+ * <p>The table never grows past its maximum capacity. Once that table is half full, new URLs are
+ * refused and reported as visited, as a saturated Bloom filter would, so that probing stays short;
+ * a warning is logged the first time.
+ *
+ * <p>Two URLs with the same fingerprint are treated as the same URL. For {@code n} stored URLs, an
+ * unvisited URL is reported as visited with a probability of about {@code n / 2^64}.
+ */
+final class FingerprintVisitedSet implements VisitedSet {
+
+  private static final Logger log = LoggerFactory.getLogger(FingerprintVisitedSet.class);
+  private static final int MIN_CAPACITY = 16;
+  // the largest power of two whose table fits in a ByteBuffer
+  private static final int MAX_CAPACITY = 1 << 27;
+  private static final double LOAD_FACTOR = 0.5;
+  private static final long EMPTY = 0L;
+  private static final double TWO_POW_64 = 0x1p64;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final LookupCounter lookups = new LookupCounter();
+  private final int maxCapacity;
+  private ByteBuffer table;
+  private int mask;
+  private int size;
+  private boolean full;
+
+  /**
+   * Constructs a new FingerprintVisitedSet sized for the expected number of URLs.
+   *
+   * @param expectedUrls The expected number of URLs.
+   */
+  FingerprintVisitedSet(int expectedUrls) {
+    this(expectedUrls, MAX_CAPACITY);
+  }
+
+  /**
+   * Constructs a new FingerprintVisitedSet sized for the expected number of URLs, whose table
+   * never exceeds the given number of slots.
+   *
+   * @param expectedUrls The expected number of URLs.
+   * @param maxCapacity The maximum number of slots, a power of two.
+   */
+  FingerprintVisitedSet(int expectedUrls, int maxCapacity) {
+    this.maxCapacity = maxCapacity;
+    // the smallest power of two keeping the expected URLs under half of the slots
+    long capacity = Long.highestOneBit(Math.max(MIN_CAPACITY, 2L * expectedUrls + 1) - 1) << 1;
+    allocate((int) Math.min(capacity, maxCapacity));
+  }
+
+  @Override
+  public boolean add(String url) {
+    long fingerprint = fingerprint(url);
+    lock.lock();
+    try {
+      if (full) {
+        // a new URL is refused, and reported as visited like the URLs already added
+        lookups.record(lookup(fingerprint));
+        return false;
+      }
+      if (lookups.record(!insert(table, mask, fingerprint))) {
+        return false;
+      }
+      size++;
+      if (size >= (mask + 1) * LOAD_FACTOR) {
+        grow();
+      }
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public boolean contains(String url) {
+    return lookups.record(lookup(fingerprint(url)));
+  }
+
+  private boolean lookup(long fingerprint) {
+    lock.lock();
+    try {
+      int slot = (int) fingerprint & mask;
+      long current;
+      while ((current = table.getLong(slot << 3)) != EMPTY) {
+        if (current == fingerprint) {
+          return true;
+        }
+        slot = (slot + 1) & mask;
+      }
+      return false;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public long size() {
+    lock.lock();
+    try {
+      return size;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public VisitedSetStats stats() {
+    lock.lock();
+    try {
+      return new VisitedSetStats(
+          size, table.capacity(), size / TWO_POW_64, lookups.hits(), lookups.misses());
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private static long fingerprint(String url) {
+    long fingerprint = UrlFingerprint.of(url);
+    // zero marks an empty slot
+    return fingerprint == EMPTY ? 1L : fingerprint;
+  }
+
+  private static boolean insert(ByteBuffer table, int mask, long fingerprint) {
+    int slot = (int) fingerprint & mask;
+    long current;
+    while ((current = table.getLong(slot << 3)) != EMPTY) {
+      if (current == fingerprint) {
+        return false;
+      }
+      slot = (slot + 1) & mask;
+    }
+    table.putLong(slot << 3, fingerprint);
+    return true;
+  }
+
+  private void grow() {
+    int capacity = mask + 1;
+    if (capacity >= maxCapacity) {
+      full = true;
+      log.warn("Visited set is full at {} URLs, new URLs are treated as visited", size);
+      return;
+    }
+    var oldTable = table;
+    allocate(capacity << 1);
+    for (int offset = 0; offset < oldTable.capacity(); offset += Long.BYTES) {
+      long fingerprint = oldTable.getLong(offset);
+      if (fingerprint != EMPTY) {
+        insert(table, mask, fingerprint);
+      }
+    }
+  }
+
+  private void allocate(int capacity) {
+    // direct buffers are zeroed, so every slot starts empty
+    table = ByteBuffer.allocateDirect(capacity * Long.BYTES);
+    mask = capacity - 1;
+  }
+}
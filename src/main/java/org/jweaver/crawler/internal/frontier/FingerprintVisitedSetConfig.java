@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.frontier;
+
+/**
+ * The FingerprintVisitedSetConfig record represents the configuration of visited sets holding
+ * 64-bit URL fingerprints. It implements the VisitedSetConfig interface.
+ *
+ * @param expectedUrls The expected number of URLs per task, used to size the initial table
+ */
+public record FingerprintVisitedSetConfig(int expectedUrls) implements VisitedSetConfig {
+
+  /**
+   * Constructs a new FingerprintVisitedSetConfig, validating the expected number of URLs.
+   *
+   * @throws IllegalArgumentException If the expected number of URLs is not positive.
+   */
+  public FingerprintVisitedSetConfig {
+    if (expectedUrls <= 0) {
+      throw new IllegalArgumentException("Expected URLs must be greater than zero");
+    }
+  }
+
+  @Override
+  public VisitedSet create() {
+    return new FingerprintVisitedSet(expectedUrls);
+  }
+}
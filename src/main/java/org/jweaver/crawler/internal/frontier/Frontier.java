@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.frontier;
+
+import java.util.Collection;
+import org.jweaver.crawler.internal.result.PageLink;
+
+/**
+ * The Frontier interface holds the links waiting to be crawled by a task. Links are polled in the
+ * order defined by the implementation.
+ *
+ * <p>Implementations must be safe for use by concurrent workers.
+ */
+public interface Frontier extends AutoCloseable {
+
+  /**
+   * Adds links to the frontier.
+   *
+   * @param links The links to add.
+   */
+  void addAll(Collection<PageLink> links);
+
+  /**
+   * Retrieves and removes the next link of the frontier.
+   *
+   * @return The next link, or {@code null} if the frontier is empty.
+   */
+  PageLink poll();
+
+  /**
+   * Puts back a link which was polled but could not be crawled yet. The link keeps its place: it is
+   * polled again before the links which were behind it, rather than added at the end.
+   *
+   * @param link The polled link to put back.
+   */
+  void requeue(PageLink link);
+
+  /**
+   * Returns the number of links in the frontier.
+   *
+   * @return The number of links waiting to be crawled.
+   */
+  long size();
+
+  /**
+   * Records that a page has been crawled, along with every link found on it, including the links
+   * which were not added to the frontier because they had already been seen. Frontiers ordering
+   * links by their inbound links or importance use it to rescore the waiting links. The default
+   * implementation does nothing.
+   *
+   * @param url The URL of the crawled page.
+   * @param outlinks The links found on the page, empty if the crawl failed.
+   */
+  default void recordCrawl(String url, Collection<PageLink> outlinks) {
+    // the order of the links does not depend on the crawled pages by default
+  }
+
+  /** Releases the resources held by the frontier. The default implementation does nothing. */
+  @Override
+  default void close() {
+    // nothing to release by default
+  }
+}
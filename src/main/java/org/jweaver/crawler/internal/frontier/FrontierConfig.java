@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.frontier;
+
+import java.nio.file.Path;
+
+/**
+ * The FrontierConfig interface represents the configuration of the frontier holding the links
+ * waiting to be crawled by a task. It is a sealed interface that permits specific implementations.
+ */
+public sealed interface FrontierConfig
+    permits DiskFrontierConfig, MemoryFrontierConfig, PriorityFrontierConfig {
+
+  /**
+   * Creates and returns a new FrontierConfig instance holding every link in memory. Links are
+   * crawled in the order they were discovered, which is a breadth-first crawl.
+   *
+   * @return A new FrontierConfig instance for in-memory frontiers.
+   */
+  static FrontierConfig memory() {
+    return new MemoryFrontierConfig();
+  }
+
+  /**
+   * Creates and returns a new FrontierConfig instance keeping a bounded number of links in memory
+   * and spilling the rest to segment files, so that crawls larger than the heap can be run. Each
+   * task writes its segments to its own directory, which is created on the first spill and deleted
+   * when the task completes.
+   *
+   * @param directory The directory in which the segment directories are created.
+   * @param bufferSize The number of links held in memory before they are spilled to disk.
+   * @param segmentBytes The size from which a segment file is sealed and a new one is started.
+   * @return A new FrontierConfig instance for disk-backed frontiers.
+   * @throws NullPointerException If the directory is null.
+   * @throws IllegalArgumentException If the buffer size or segment size is not positive.
+   */
+  static FrontierConfig disk(Path directory, int bufferSize, long segmentBytes) {
+    return new DiskFrontierConfig(directory, bufferSize, segmentBytes);
+  }
+
+  /**
+   * Creates and returns a new FrontierConfig instance crawling the links best-first, in the order
+   * of the scores given by a {@link LinkScorer}. The links are held in memory.
+   *
+   * @param scorer The scorer ranking the links, such as {@link LinkScorer#standard()} or {@link
+   *     LinkScorer#opic()}.
+   * @return A new FrontierConfig instance for priority frontiers.
+   * @throws NullPointerException If the scorer is null.
+   */
+  static FrontierConfig priority(LinkScorer scorer) {
+    return new PriorityFrontierConfig(scorer);
+  }
+
+  /**
+   * Creates a new, empty frontier.
+   *
+   * @return The frontier.
+   */
+  Frontier create();
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.frontier;
+
+/**
+ * The LinkScorer interface ranks the links of a {@link PriorityFrontier}: links with a higher
+ * score are crawled first, and links with the same score in the order they were discovered.
+ *
+ * <p>A link is scored when it is added to the frontier, and scored again each time a crawled page
+ * links to it, so scores may use the inbound links and importance of the link. Scorers are called
+ * under the lock of the frontier and must be fast and free of side effects.
+ */
+@FunctionalInterface
+public interface LinkScorer {
+
+  /**
+   * Creates and returns a new LinkScorer computing a weighted sum of the signals of a link:
+   *
+   * <pre>
+   * depthWeight * depth + pathLengthWeight * pathLength + queryWeight * queryParameters
+   *     + inboundWeight * log(1 + inboundLinks) + importanceWeight * importance
+   * </pre>
+   *
+   * <p>Negative weights push links back, so that a negative query weight delays pagination and
+   * faceted URLs. The inbound links are damped by a logarithm so that navigation links found on
+   * every page do not outrank everything else.
+   *
+   * @param depthWeight The weight of the depth.
+   * @param pathLengthWeight The weight of the path length, in characters.
+   * @param queryWeight The weight of the number of query parameters.
+   * @param inboundWeight The weight of the logarithm of the number of inbound links.
+   * @param importanceWeight The weight of the OPIC importance estimate.
+   * @return A new LinkScorer instance.
+   */
+  static LinkScorer weighted(
+      double depthWeight,
+      double pathLengthWeight,
+      double queryWeight,
+      double inboundWeight,
+      double importanceWeight) {
+    return signals ->
+        depthWeight * signals.depth()
+            + pathLengthWeight * signals.pathLength()
+            + queryWeight * signals.queryParameterCount()
+            + inboundWeight * Math.log1p(signals.inboundLinks())
+            + importanceWeight * signals.importance();
+  }
+
+  /**
+   * Creates and returns a new LinkScorer favouring shallow links with short paths and few query
+   * parameters, and links with many inbound links.
+   *
+   * @return A new LinkScorer instance with the default weights.
+   */
+  static LinkScorer standard() {
+    return weighted(-1.0, -0.02, -1.0, 0.5, 0.0);
+  }
+
+  /**
+   * Creates and returns a new LinkScorer ranking links by their OPIC (On-line Page Importance
+   * Computation) estimate. The root page holds all the importance, and each crawled page splits
+   * its importance evenly among the pages it links to.
+   *
+   * @return A new LinkScorer instance for OPIC ordering.
+   */
+  static LinkScorer opic() {
+    return LinkSignals::importance;
+  }
+
+  /**
+   * Computes the score of a link.
+   *
+   * @param signals The signals of the link.
+   * @return The score of the link, higher scores being crawled first.
+   */
+  double score(LinkSignals signals);
+}
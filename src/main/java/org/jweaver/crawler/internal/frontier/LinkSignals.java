@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.frontier;
+
+import org.jweaver.crawler.internal.result.PageLink;
+
+/**
+ * The LinkSignals record holds what is known about a link waiting in a {@link PriorityFrontier}
+ * when it is scored.
+ *
+ * @param link The link.
+ * @param inboundLinks The number of crawled pages linking to the link so far.
+ * @param importance The OPIC importance estimate of the link: the share of the importance of the
+ *     crawled pages that flowed to it through their links.
+ */
+public record LinkSignals(PageLink link, int inboundLinks, double importance) {
+
+  /**
+   * Returns the depth of the link.
+   *
+   * @return The depth of the link.
+   */
+  public int depth() {
+    return link.depth();
+  }
+
+  /**
+   * Returns the number of characters of the path of the link, query excluded.
+   *
+   * @return The length of the path.
+   */
+  public int pathLength() {
+    var url = link.url();
+    int schemeEnd = url.indexOf("://");
+    int pathStart = url.indexOf('/', schemeEnd < 0 ? 0 : schemeEnd + 3);
+    if (pathStart < 0) {
+      return 0;
+    }
+    int pathEnd = url.indexOf('?', pathStart);
+    int fragmentStart = url.indexOf('#', pathStart);
+    if (pathEnd < 0 || (fragmentStart >= 0 && fragmentStart < pathEnd)) {
+      pathEnd = fragmentStart < 0 ? url.length() : fragmentStart;
+    }
+    return pathEnd - pathStart;
+  }
+
+  /**
+   * Returns the number of query parameters of the link.
+   *
+   * @return The number of query parameters.
+   */
+  public int queryParameterCount() {
+    var url = link.url();
+    int queryStart = url.indexOf('?');
+    if (queryStart < 0) {
+      return 0;
+    }
+    int count = 0;
+    int parameterStart = queryStart + 1;
+    for (int i = parameterStart; i <= url.length(); i++) {
+      if (i == url.length() || url.charAt(i) == '&' || url.charAt(i) == '#') {
+        if (i > parameterStart) {
+          count++;
+        }
+        if (i < url.length() && url.charAt(i) == '#') {
+          break;
+        }
+        parameterStart = i + 1;
+      }
+    }
+    return count;
+  }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.frontier;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The LookupCounter class counts the hits and misses of the lookups of a {@link VisitedSet}. Both
+ * {@link VisitedSet#contains(String)} and {@link VisitedSet#add(String)} look the URL up, an add
+ * being a hit when the URL was already visited.
+ */
+final class LookupCounter {
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * Records the result of a lookup.
+   *
+   * @param hit {@code true} if the lookup reported the URL as visited.
+   * @return The result of the lookup, unchanged.
+   */
+  boolean record(boolean hit) {
+    if (hit) {
+      hits.increment();
+    } else {
+      misses.increment();
+    }
+    return hit;
+  }
+
+  long hits() {
+    return hits.sum();
+  }
+
+  long misses() {
+    return misses.sum();
+  }
+}
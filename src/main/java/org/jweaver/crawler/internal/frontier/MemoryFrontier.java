@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.frontier;
+
+import java.util.Collection;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jweaver.crawler.internal.result.PageLink;
+
+/** The MemoryFrontier class is a first-in first-out {@link Frontier} held in memory. */
+final class MemoryFrontier implements Frontier {
+
+  private final Deque<PageLink> links = new ConcurrentLinkedDeque<>();
+  private final AtomicLong size = new AtomicLong();
+
+  @Override
+  public void addAll(Collection<PageLink> newLinks) {
+    size.addAndGet(newLinks.size());
+    links.addAll(newLinks);
+  }
+
+  @Override
+  public PageLink poll() {
+    var link = links.poll();
+    if (link != null) {
+      size.decrementAndGet();
+    }
+    return link;
+  }
+
+  @Override
+  public void requeue(PageLink link) {
+    size.incrementAndGet();
+    links.addFirst(link);
+  }
+
+  @Override
+  public long size() {
+    return size.get();
+  }
+}
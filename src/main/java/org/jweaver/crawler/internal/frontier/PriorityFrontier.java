@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.frontier;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import org.jweaver.crawler.internal.result.PageLink;
+
+/**
+ * The PriorityFrontier class is a best-first {@link Frontier} polling the link with the highest
+ * {@link LinkScorer} score, and the oldest link among links with the same score.
+ *
+ * <p>The waiting links are held in a binary heap, so that adding and polling a link are both
+ * O(log n). When a crawled page links to a waiting link, the inbound links and importance of the
+ * link are updated and the link is pushed again with its new score. The entry holding the old
+ * score stays in the heap and is skipped once it reaches the top. Once the stale entries outnumber
+ * the waiting links twice over, they are removed and the heap is rebuilt in linear time, so the
+ * heap stays proportional to the waiting links rather than to the links found on crawled pages.
+ *
+ * <p>The importance follows OPIC: the root page starts with an importance of 1, and a crawled page
+ * splits its importance evenly among the links found on it. The share of the links which are not
+ * waiting anymore is dropped. A link polled and added again before it is crawled, for instance to
+ * retry it, keeps its inbound links and importance.
+ */
+final class PriorityFrontier implements Frontier {
+
+  private static final double ROOT_IMPORTANCE = 1.0;
+  private static final int MAX_STALE_RATIO = 2;
+  // small heaps are not worth compacting
+  private static final int MIN_COMPACTION_SIZE = 64;
+  private static final Comparator<Entry> ORDER =
+      Comparator.comparingDouble(Entry::score).reversed().thenComparingLong(Entry::sequence);
+  private final LinkScorer scorer;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final PriorityQueue<Entry> heap = new PriorityQueue<>(ORDER);
+  private final Map<String, LinkState> states = new HashMap<>();
+  private long sequence;
+  private long size;
+
+  /**
+   * Constructs a new PriorityFrontier ordering links with the given scorer.
+   *
+   * @param scorer The scorer ranking the links.
+   */
+  PriorityFrontier(LinkScorer scorer) {
+    this.scorer = scorer;
+  }
+
+  @Override
+  public void addAll(Collection<PageLink> links) {
+    lock.lock();
+    try {
+      for (var link : links) {
+        enqueue(link);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public PageLink poll() {
+    lock.lock();
+    try {
+      Entry entry;
+      while ((entry = heap.poll()) != null) {
+        var state = entry.state();
+        if (!entry.isStale()) {
+          state.waiting = false;
+          size--;
+          return state.link;
+        }
+      }
+      return null;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Puts back a polled link with the score it had, so that it is polled before the links with a
+   * lower score.
+   *
+   * @param link The polled link to put back.
+   */
+  @Override
+  public void requeue(PageLink link) {
+    lock.lock();
+    try {
+      enqueue(link);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public long size() {
+    lock.lock();
+    try {
+      return size;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void recordCrawl(String url, Collection<PageLink> outlinks) {
+    lock.lock();
+    try {
+      var crawled = states.remove(url);
+      double importance = crawled == null ? ROOT_IMPORTANCE : crawled.importance;
+      double share = outlinks.isEmpty() ? 0 : importance / outlinks.size();
+      for (var outlink : outlinks) {
+        var state = states.get(outlink.url());
+        if (state == null || !state.waiting) {
+          continue;
+        }
+        state.inboundLinks++;
+        state.importance += share;
+        state.version++;
+        push(state);
+      }
+      long stale = heap.size() - size;
+      if (heap.size() > MIN_COMPACTION_SIZE && stale > MAX_STALE_RATIO * size) {
+        heap.removeIf(Entry::isStale);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Makes a link wait in the heap, unless it is waiting already. A link which was polled but not
+   * crawled yet keeps its state, so that it is not ranked below the links it outranked before.
+   *
+   * @param link The link to enqueue.
+   */
+  private void enqueue(PageLink link) {
+    var state = states.get(link.url());
+    if (state == null) {
+      state = new LinkState(link, sequence++);
+      states.put(link.url(), state);
+    } else if (state.waiting) {
+      return;
+    } else {
+      state.waiting = true;
+      state.version++;
+    }
+    push(state);
+    size++;
+  }
+
+  private void push(LinkState state) {
+    var signals = new LinkSignals(state.link, state.inboundLinks, state.importance);
+    heap.add(new Entry(state, scorer.score(signals), state.sequence, state.version));
+  }
+
+  /** The mutable state of a link which is waiting or being crawled. */
+  private static final class LinkState {
+    private final PageLink link;
+    private final long sequence;
+    private int inboundLinks;
+    private double importance;
+    private int version;
+    private boolean waiting = true;
+
+    private LinkState(PageLink link, long sequence) {
+      this.link = link;
+      this.sequence = sequence;
+    }
+  }
+
+  /**
+   * An entry of the heap. The entry is stale if the link has been rescored since it was pushed.
+   */
+  private record Entry(LinkState state, double score, long sequence, int version) {
+
+    private boolean isStale() {
+      return !state.waiting || version != state.version;
+    }
+  }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.frontier;
+
+import java.util.Objects;
+
+/**
+ * The PriorityFrontierConfig record represents the configuration of best-first frontiers. It
+ * implements the FrontierConfig interface.
+ *
+ * @param scorer The scorer ranking the links.
+ */
+public record PriorityFrontierConfig(LinkScorer scorer) implements FrontierConfig {
+
+  /**
+   * Constructs a new PriorityFrontierConfig, validating the scorer.
+   *
+   * @throws NullPointerException If the scorer is null.
+   */
+  public PriorityFrontierConfig {
+    Objects.requireNonNull(scorer);
+  }
+
+  @Override
+  public Frontier create() {
+    return new PriorityFrontier(scorer);
+  }
+}
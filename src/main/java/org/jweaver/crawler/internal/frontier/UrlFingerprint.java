@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.frontier;
+
+/** This utility class computes the fingerprints identifying URLs in compact data structures. */
+public final class UrlFingerprint {
+
+  private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private UrlFingerprint() {}
+
+  /**
+   * Computes the 64-bit fingerprint of a URL. The characters are hashed with FNV-1a and the result
+   * is finalized with the MurmurHash3 mixer, so that every bit of the fingerprint depends on every
+   * character of the URL.
+   *
+   * @param url The URL to fingerprint.
+   * @return The 64-bit fingerprint of the URL.
+   */
+  public static long of(CharSequence url) {
+    long hash = FNV_OFFSET_BASIS;
+    for (int i = 0; i < url.length(); i++) {
+      char c = url.charAt(i);
+      hash = (hash ^ (c & 0xff)) * FNV_PRIME;
+      hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+    }
+    return mix(hash);
+  }
+
+  /**
+   * Applies the 64-bit finalizer of MurmurHash3 to a hash.
+   *
+   * @param hash The hash to mix.
+   * @return The mixed hash.
+   */
+  static long mix(long hash) {
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
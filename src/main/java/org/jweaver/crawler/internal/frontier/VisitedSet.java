@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.frontier;
+
+/**
+ * The VisitedSet interface tracks the URLs already crawled by a task. Implementations trade
+ * exactness for memory: a set may report a URL that was never added as visited, at the rate
+ * estimated by its {@link #stats()}, but never reports an added URL as unvisited.
+ *
+ * <p>Implementations must be safe for use by concurrent workers.
+ */
+public interface VisitedSet {
+
+  /**
+   * Marks a URL as visited.
+   *
+   * @param url The URL to add.
+   * @return {@code true} if the URL was not visited before, otherwise {@code false}.
+   */
+  boolean add(String url);
+
+  /**
+   * Checks whether a URL has been visited.
+   *
+   * @param url The URL to check.
+   * @return {@code true} if the URL is considered visited, otherwise {@code false}.
+   */
+  boolean contains(String url);
+
+  /**
+   * Returns the number of URLs added to the set.
+   *
+   * @return The number of visited URLs.
+   */
+  long size();
+
+  /**
+   * Returns the memory footprint and accuracy of the set.
+   *
+   * @return The current statistics of the set.
+   */
+  VisitedSetStats stats();
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.frontier;
+
+/**
+ * The VisitedSetConfig interface defines how the visited URLs of each task are stored. This
+ * interface permits specific implementations: ExactVisitedSetConfig, FingerprintVisitedSetConfig
+ * and BloomVisitedSetConfig.
+ */
+public sealed interface VisitedSetConfig
+    permits BloomVisitedSetConfig, ExactVisitedSetConfig, FingerprintVisitedSetConfig {
+
+  /**
+   * Creates and returns a new VisitedSetConfig instance storing the full URL strings, so that no
+   * URL is ever skipped by mistake.
+   *
+   * @return A new VisitedSetConfig instance for exact visited sets.
+   */
+  static VisitedSetConfig exact() {
+    return new ExactVisitedSetConfig();
+  }
+
+  /**
+   * Creates and returns a new VisitedSetConfig instance storing 64-bit fingerprints of the URLs in
+   * an off-heap table, which takes a fraction of the memory of the URL strings. Two URLs sharing a
+   * fingerprint are treated as the same URL, which is expected once in about 2<sup>64</sup>
+   * lookups per stored URL.
+   *
+   * @param expectedUrls The expected number of URLs per task, used to size the table.
+   * @return A new VisitedSetConfig instance for fingerprint visited sets.
+   * @throws IllegalArgumentException If the expected number of URLs is not positive.
+   */
+  static VisitedSetConfig fingerprint(int expectedUrls) {
+    return new FingerprintVisitedSetConfig(expectedUrls);
+  }
+
+  /**
+   * Creates and returns a new VisitedSetConfig instance backed by a scalable Bloom filter, whose
+   * memory never exceeds the given ceiling however many URLs are crawled. In exchange, a small
+   * share of the unvisited URLs is skipped as if it had been visited.
+   *
+   * <p>The first filter is sized for the expected number of URLs. Larger filters are chained as the
+   * crawl grows, keeping the false-positive rate below the target until the memory ceiling is
+   * reached.
+   *
+   * @param expectedUrls The expected number of URLs per task.
+   * @param falsePositiveRate The target probability that an unvisited URL is skipped.
+   * @param maxBytes The memory ceiling of the filters of a task.
+   * @return A new VisitedSetConfig instance for Bloom filter visited sets.
+   * @throws IllegalArgumentException If the expected number of URLs or the memory ceiling is not
+   *     positive, or the false-positive rate is not between 0 and 1.
+   */
+  static VisitedSetConfig bloom(long expectedUrls, double falsePositiveRate, long maxBytes) {
+    return new BloomVisitedSetConfig(expectedUrls, falsePositiveRate, maxBytes);
+  }
+
+  /**
+   * Creates a new, empty visited set.
+   *
+   * @return The visited set.
+   */
+  VisitedSet create();
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.frontier;
+
+/**
+ * The VisitedSetStats record represents the memory footprint and accuracy of a {@link VisitedSet}.
+ *
+ * @param entries The number of URLs added to the set
+ * @param footprintBytes The approximate number of bytes held by the set
+ * @param falsePositiveRate The estimated probability that an unvisited URL is reported as visited
+ * @param hits The number of lookups and adds reporting a URL as visited
+ * @param misses The number of lookups and adds reporting a URL as unvisited
+ */
+public record VisitedSetStats(
+    long entries, long footprintBytes, double falsePositiveRate, long hits, long misses) {
+
+  /**
+   * Estimates how many of the hits were false positives, that is unvisited URLs skipped by
+   * mistake. Every lookup of an unvisited URL is a hit with the false-positive rate of the set.
+   *
+   * @return The estimated number of false positives.
+   */
+  public long estimatedFalsePositives() {
+    if (falsePositiveRate >= 1) {
+      return hits;
+    }
+    return Math.min(hits, Math.round(misses * falsePositiveRate / (1 - falsePositiveRate)));
+  }
+}
@@ -52,4 +52,38 @@ public interface DocumentParser {
    * @return A set of URIs representing the links found in the web page.
    */
   Set<String> parseLinks(String htmlBody, String pageUri);
+
+  /**
+   * Parses the HTML body of a web page and extracts the title, the main content body and the links
+   * contained within it.
+   *
+   * <p>The default implementation delegates to {@link #parseTitle(String, String)}, {@link
+   * #parseBody(String, String)} and {@link #parseLinks(String, String)}. Implementations should
+   * override it to build the document model of the page only once.
+   *
+   * @param htmlBody The HTML body of the web page.
+   * @param pageUri The URI of the web page.
+   * @return The title, body and links of the web page.
+   */
+  default ParsedPage parse(String htmlBody, String pageUri) {
+    return new ParsedPage(
+        parseTitle(htmlBody, pageUri),
+        parseBody(htmlBody, pageUri),
+        parseLinks(htmlBody, pageUri));
+  }
+
+  /**
+   * Parses the HTML body of a web page and extracts only the title and the links contained within
+   * it. The body of the returned page is always empty.
+   *
+   * <p>The default implementation delegates to {@link #parseTitle(String, String)} and {@link
+   * #parseLinks(String, String)}.
+   *
+   * @param htmlBody The HTML body of the web page.
+   * @param pageUri The URI of the web page.
+   * @return The title and links of the web page, with an empty body.
+   */
+  default ParsedPage parseOutline(String htmlBody, String pageUri) {
+    return new ParsedPage(parseTitle(htmlBody, pageUri), "", parseLinks(htmlBody, pageUri));
+  }
 }
@@ -40,14 +40,37 @@ public final class JWeaverDocumentParser implements DocumentParser {
 
   @Override
   public String parseTitle(String htmlBody, String pageUri) {
-    Document document = Jsoup.parse(htmlBody, pageUri);
-    var titles = document.select(TITLE_ATTR);
-    return titles.isEmpty() ? "" : titles.getFirst().text();
+    return title(Jsoup.parse(htmlBody, pageUri));
   }
 
   @Override
   public String parseBody(String htmlBody, String pageUri) {
+    return body(Jsoup.parse(htmlBody, pageUri));
+  }
+
+  @Override
+  public Set<String> parseLinks(String htmlBody, String pageUri) {
+    return links(Jsoup.parse(htmlBody, pageUri));
+  }
+
+  @Override
+  public ParsedPage parse(String htmlBody, String pageUri) {
     Document document = Jsoup.parse(htmlBody, pageUri);
+    return new ParsedPage(title(document), body(document), links(document));
+  }
+
+  @Override
+  public ParsedPage parseOutline(String htmlBody, String pageUri) {
+    Document document = Jsoup.parse(htmlBody, pageUri);
+    return new ParsedPage(title(document), "", links(document));
+  }
+
+  private String title(Document document) {
+    var titles = document.select(TITLE_ATTR);
+    return titles.isEmpty() ? "" : titles.getFirst().text();
+  }
+
+  private String body(Document document) {
     var elements = document.select(PARAGRAPH_ATTR);
     var stringBuilder = new StringBuilder();
     elements.eachText().forEach(p -> appendParagraph(stringBuilder, p));
@@ -59,9 +82,7 @@ public final class JWeaverDocumentParser implements DocumentParser {
     instance.append("\n");
   }
 
-  @Override
-  public Set<String> parseLinks(String htmlBody, String pageUri) {
-    Document document = Jsoup.parse(htmlBody, pageUri);
+  private Set<String> links(Document document) {
     var links = document.select(LINK_HREF);
     return links.stream().map(p -> p.attr(LINK_ATTR_HREF)).collect(Collectors.toUnmodifiableSet());
   }
@@ -0,0 +1,421 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.parse;
+
+import java.util.function.Consumer;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+
+/**
+ * The LinkTokenizer class extracts the links and the title of an HTML document in a single forward
+ * pass, without building a document tree.
+ *
+ * <p>The tokenizer is incremental: the document can be fed in chunks as it arrives, and each {@code
+ * <a href>} is resolved against the page URI (or the first {@code <base href>}) and handed to the
+ * link consumer as soon as its tag is closed. Only the tag names, the {@code href} values and the
+ * title text are buffered, in builders that are reused across tags.
+ *
+ * <p>Comments, {@code <script>} and {@code <style>} contents and the other raw text elements are
+ * skipped, and entities and URLs are resolved with the same rules as jsoup, so the output matches
+ * {@link JWeaverDocumentParser}. Comments end as in the HTML specification, including the empty
+ * {@code <!-->} and the {@code --!>} closing. The one known difference is a {@code <title>} that is
+ * never closed: jsoup looks ahead for the end tag and closes the title early, while the tokenizer
+ * follows the HTML specification and reads the title up to the end of the document.
+ *
+ * <p>Instances are not thread-safe and must be used for a single document.
+ */
+public final class LinkTokenizer {
+
+  private static final int MAX_TAG_NAME = 10;
+  private static final int MAX_ATTR_NAME = 5;
+  private static final String HREF_ATTR = "href";
+  private final Consumer<String> linkConsumer;
+  private final StringBuilder tagName = new StringBuilder(MAX_TAG_NAME);
+  private final StringBuilder attrName = new StringBuilder(MAX_ATTR_NAME);
+  private final StringBuilder attrValue = new StringBuilder();
+  private final StringBuilder titleText = new StringBuilder();
+  private final Element resolver = new Element("a");
+  private boolean baseUriSet;
+  private State state = State.TEXT;
+  private boolean capturingValue;
+  private String href;
+  private String rawTextEnd;
+  private int rawTextMatch;
+  private boolean capturingTitle;
+  private String title;
+  private int dashes;
+
+  /**
+   * Constructs a new LinkTokenizer instance.
+   *
+   * @param pageUri The URI of the web page, used to resolve relative links.
+   * @param linkConsumer The consumer receiving each absolute link in document order.
+   */
+  public LinkTokenizer(String pageUri, Consumer<String> linkConsumer) {
+    this.resolver.setBaseUri(pageUri);
+    this.linkConsumer = linkConsumer;
+  }
+
+  /**
+   * Feeds the next chunk of the document to the tokenizer.
+   *
+   * @param chunk The next characters of the document.
+   */
+  public void feed(CharSequence chunk) {
+    for (int i = 0, length = chunk.length(); i < length; i++) {
+      consume(chunk.charAt(i));
+    }
+  }
+
+  /**
+   * Signals the end of the document. An unterminated title takes the remaining text of the
+   * document and unterminated tags are dropped.
+   */
+  public void finish() {
+    if (state == State.RAW_TEXT && capturingTitle) {
+      titleText.append(rawTextEnd, 0, rawTextMatch);
+      completeTitle();
+    }
+    state = State.TEXT;
+  }
+
+  /**
+   * Returns the text of the first title of the document.
+   *
+   * @return The title, or an empty string if the document has no title.
+   */
+  public String title() {
+    return title == null ? "" : title;
+  }
+
+  private void consume(char c) {
+    switch (state) {
+      case TEXT -> {
+        if (c == '<') state = State.TAG_OPEN;
+      }
+      case TAG_OPEN -> tagOpen(c);
+      case END_TAG_OPEN -> {
+        if (isAsciiLetter(c)) {
+          state = State.SKIP_TAG;
+        } else {
+          state = c == '>' ? State.TEXT : State.BOGUS_COMMENT;
+        }
+      }
+      case TAG_NAME -> tagName(c);
+      case BEFORE_ATTR_NAME -> beforeAttrName(c);
+      case ATTR_NAME -> attrName(c);
+      case AFTER_ATTR_NAME -> afterAttrName(c);
+      case BEFORE_ATTR_VALUE -> beforeAttrValue(c);
+      case ATTR_VALUE_DOUBLE_QUOTED -> quotedAttrValue(c, '"');
+      case ATTR_VALUE_SINGLE_QUOTED -> quotedAttrValue(c, '\'');
+      case ATTR_VALUE_UNQUOTED -> unquotedAttrValue(c);
+      case MARKUP_DECLARATION -> markupDeclaration(c);
+      case COMMENT_START -> commentStart(c);
+      case COMMENT -> comment(c);
+      case COMMENT_END_BANG -> commentEndBang(c);
+      case BOGUS_COMMENT, SKIP_TAG -> {
+        if (c == '>') state = State.TEXT;
+      }
+      case RAW_TEXT -> rawText(c);
+      case PLAIN_TEXT -> {
+        // everything after <plaintext> is text
+      }
+    }
+  }
+
+  private void tagOpen(char c) {
+    if (isAsciiLetter(c)) {
+      href = null;
+      tagName.setLength(0);
+      tagName.append(Character.toLowerCase(c));
+      state = State.TAG_NAME;
+    } else if (c == '/') {
+      state = State.END_TAG_OPEN;
+    } else if (c == '!') {
+      dashes = 0;
+      state = State.MARKUP_DECLARATION;
+    } else if (c == '?') {
+      state = State.BOGUS_COMMENT;
+    } else if (c != '<') {
+      state = State.TEXT;
+    }
+  }
+
+  private void tagName(char c) {
+    if (isWhitespace(c) || c == '/') {
+      state = State.BEFORE_ATTR_NAME;
+    } else if (c == '>') {
+      emitTag();
+    } else if (tagName.length() <= MAX_TAG_NAME) {
+      tagName.append(Character.toLowerCase(c));
+    }
+  }
+
+  private void beforeAttrName(char c) {
+    if (c == '>') {
+      emitTag();
+    } else if (!isWhitespace(c) && c != '/') {
+      startAttribute(c);
+    }
+  }
+
+  private void attrName(char c) {
+    if (isWhitespace(c)) {
+      state = State.AFTER_ATTR_NAME;
+    } else if (c == '=') {
+      capturingValue = isHrefAttribute();
+      attrValue.setLength(0);
+      state = State.BEFORE_ATTR_VALUE;
+    } else if (c == '/') {
+      endAttribute();
+      state = State.BEFORE_ATTR_NAME;
+    } else if (c == '>') {
+      endAttribute();
+      emitTag();
+    } else if (attrName.length() <= MAX_ATTR_NAME) {
+      attrName.append(Character.toLowerCase(c));
+    }
+  }
+
+  private void afterAttrName(char c) {
+    if (c == '=') {
+      capturingValue = isHrefAttribute();
+      attrValue.setLength(0);
+      state = State.BEFORE_ATTR_VALUE;
+    } else if (c == '>') {
+      endAttribute();
+      emitTag();
+    } else if (c == '/') {
+      endAttribute();
+      state = State.BEFORE_ATTR_NAME;
+    } else if (!isWhitespace(c)) {
+      endAttribute();
+      startAttribute(c);
+    }
+  }
+
+  private void beforeAttrValue(char c) {
+    if (c == '"') {
+      state = State.ATTR_VALUE_DOUBLE_QUOTED;
+    } else if (c == '\'') {
+      state = State.ATTR_VALUE_SINGLE_QUOTED;
+    } else if (c == '>') {
+      endAttributeValue();
+      emitTag();
+    } else if (!isWhitespace(c)) {
+      appendValue(c);
+      state = State.ATTR_VALUE_UNQUOTED;
+    }
+  }
+
+  private void quotedAttrValue(char c, char quote) {
+    if (c == quote) {
+      endAttributeValue();
+      state = State.BEFORE_ATTR_NAME;
+    } else {
+      appendValue(c);
+    }
+  }
+
+  private void unquotedAttrValue(char c) {
+    if (isWhitespace(c)) {
+      endAttributeValue();
+      state = State.BEFORE_ATTR_NAME;
+    } else if (c == '>') {
+      endAttributeValue();
+      emitTag();
+    } else {
+      appendValue(c);
+    }
+  }
+
+  private void markupDeclaration(char c) {
+    if (c == '-' && dashes == 0) {
+      dashes = 1;
+    } else if (c == '-') {
+      dashes = 0;
+      state = State.COMMENT_START;
+    } else {
+      state = c == '>' ? State.TEXT : State.BOGUS_COMMENT;
+    }
+  }
+
+  /** Handles the start of a comment, where {@code <!-->} and {@code <!--->} are empty comments. */
+  private void commentStart(char c) {
+    if (c == '-' && dashes == 0) {
+      dashes = 1;
+    } else if (c == '>') {
+      state = State.TEXT;
+    } else {
+      dashes = c == '-' ? 2 : 0;
+      state = State.COMMENT;
+    }
+  }
+
+  private void comment(char c) {
+    if (c == '-') {
+      dashes++;
+    } else if (c == '>' && dashes >= 2) {
+      state = State.TEXT;
+    } else if (c == '!' && dashes >= 2) {
+      state = State.COMMENT_END_BANG;
+    } else {
+      dashes = 0;
+    }
+  }
+
+  /** Handles the character after {@code --!}, which closes the comment if it is {@code >}. */
+  private void commentEndBang(char c) {
+    if (c == '>') {
+      state = State.TEXT;
+    } else {
+      dashes = c == '-' ? 1 : 0;
+      state = State.COMMENT;
+    }
+  }
+
+  private void rawText(char c) {
+    if (rawTextMatch == rawTextEnd.length()) {
+      if (isWhitespace(c) || c == '/' || c == '>') {
+        if (capturingTitle) completeTitle();
+        state = c == '>' ? State.TEXT : State.SKIP_TAG;
+        return;
+      }
+      appendTitle(rawTextEnd, rawTextMatch);
+      rawTextMatch = 0;
+    }
+    if (Character.toLowerCase(c) == rawTextEnd.charAt(rawTextMatch)) {
+      rawTextMatch++;
+      return;
+    }
+    appendTitle(rawTextEnd, rawTextMatch);
+    rawTextMatch = c == '<' ? 1 : 0;
+    if (rawTextMatch == 0 && capturingTitle) titleText.append(c);
+  }
+
+  private void startAttribute(char c) {
+    attrName.setLength(0);
+    attrName.append(Character.toLowerCase(c));
+    state = State.ATTR_NAME;
+  }
+
+  private boolean isHrefAttribute() {
+    return href == null && isLinkTag() && HREF_ATTR.contentEquals(attrName);
+  }
+
+  private boolean isLinkTag() {
+    return "a".contentEquals(tagName) || (!baseUriSet && "base".contentEquals(tagName));
+  }
+
+  /** Ends an attribute without a value; a bare href resolves to the base URI. */
+  private void endAttribute() {
+    if (isHrefAttribute()) {
+      href = "";
+    }
+  }
+
+  private void endAttributeValue() {
+    if (capturingValue) {
+      href = attrValue.indexOf("&") < 0
+          ? attrValue.toString()
+          : Parser.unescapeEntities(attrValue.toString(), true);
+      capturingValue = false;
+    }
+  }
+
+  private void appendValue(char c) {
+    if (capturingValue) attrValue.append(c);
+  }
+
+  private void emitTag() {
+    state = State.TEXT;
+    if (href != null) {
+      var link = resolve(href);
+      if ("a".contentEquals(tagName)) {
+        linkConsumer.accept(link);
+      } else if (!link.isEmpty()) {
+        resolver.setBaseUri(link);
+        baseUriSet = true;
+      }
+      href = null;
+    }
+    var name = tagName.toString();
+    switch (name) {
+      case "title", "textarea", "script", "style", "xmp", "iframe", "noembed", "noframes" -> {
+        capturingTitle = "title".equals(name) && title == null;
+        titleText.setLength(0);
+        rawTextEnd = "</" + name;
+        rawTextMatch = 0;
+        state = State.RAW_TEXT;
+      }
+      case "plaintext" -> state = State.PLAIN_TEXT;
+      default -> {
+        // any other tag carries no link or text of interest
+      }
+    }
+  }
+
+  private void appendTitle(CharSequence chars, int length) {
+    if (capturingTitle) titleText.append(chars, 0, length);
+  }
+
+  private void completeTitle() {
+    // title preserves its whitespace in jsoup, the text is only trimmed
+    title = Parser.unescapeEntities(titleText.toString(), false).trim();
+    capturingTitle = false;
+    titleText.setLength(0);
+  }
+
+  private static boolean isAsciiLetter(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+  }
+
+  private static boolean isWhitespace(char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f';
+  }
+
+  /**
+   * Resolves a link against the base URI through {@link Element#absUrl(String)}, the public API
+   * jsoup resolves links with, so that the links match those of the document parser.
+   */
+  private String resolve(String link) {
+    return resolver.attr(HREF_ATTR, link).absUrl(HREF_ATTR);
+  }
+
+  private enum State {
+    TEXT,
+    TAG_OPEN,
+    END_TAG_OPEN,
+    TAG_NAME,
+    BEFORE_ATTR_NAME,
+    ATTR_NAME,
+    AFTER_ATTR_NAME,
+    BEFORE_ATTR_VALUE,
+    ATTR_VALUE_DOUBLE_QUOTED,
+    ATTR_VALUE_SINGLE_QUOTED,
+    ATTR_VALUE_UNQUOTED,
+    MARKUP_DECLARATION,
+    COMMENT_START,
+    COMMENT,
+    COMMENT_END_BANG,
+    BOGUS_COMMENT,
+    SKIP_TAG,
+    RAW_TEXT,
+    PLAIN_TEXT
+  }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.parse;
+
+import java.util.Set;
+
+/**
+ * The ParsedPage record represents the information extracted from the HTML body of a web page in a
+ * single parse.
+ *
+ * @param title The title of the web page
+ * @param body The main content body of the web page
+ * @param links The URIs of the links found in the web page
+ */
+public record ParsedPage(String title, String body, Set<String> links) {}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.parse;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The StreamingLinkParser class is a {@link DocumentParser} for discovery-heavy crawls. It extracts
+ * the title and the links of a page with a {@link LinkTokenizer} in a single forward pass, without
+ * building a document tree, and does not extract any content: {@link #parseBody(String, String)}
+ * always returns an empty string.
+ *
+ * <p>The links and title match the ones extracted by {@link JWeaverDocumentParser}.
+ */
+public final class StreamingLinkParser implements DocumentParser {
+
+  /** Constructs a new StreamingLinkParser instance. */
+  public StreamingLinkParser() {
+    // create a new StreamingLinkParser parser
+  }
+
+  @Override
+  public String parseTitle(String htmlBody, String pageUri) {
+    return parse(htmlBody, pageUri).title();
+  }
+
+  @Override
+  public String parseBody(String htmlBody, String pageUri) {
+    return "";
+  }
+
+  @Override
+  public Set<String> parseLinks(String htmlBody, String pageUri) {
+    return parse(htmlBody, pageUri).links();
+  }
+
+  @Override
+  public ParsedPage parse(String htmlBody, String pageUri) {
+    var links = new HashSet<String>();
+    var tokenizer = new LinkTokenizer(pageUri, links::add);
+    tokenizer.feed(htmlBody);
+    tokenizer.finish();
+    return new ParsedPage(tokenizer.title(), "", Set.copyOf(links));
+  }
+
+  @Override
+  public ParsedPage parseOutline(String htmlBody, String pageUri) {
+    return parse(htmlBody, pageUri);
+  }
+}
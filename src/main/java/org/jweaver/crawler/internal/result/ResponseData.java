@@ -17,6 +17,8 @@
 
 package org.jweaver.crawler.internal.result;
 
+import java.time.Duration;
+
 /**
  * The ResponseData record represents the response data received from a web request. It includes the
  * HTTP status code and the body of the response.
@@ -24,8 +26,19 @@ package org.jweaver.crawler.internal.result;
  * @param <T> The type of the response body.
  * @param body HTTP response body
  * @param statusCode HTTP statusCode
+ * @param retryAfter The delay of the Retry-After header of a throttling response, or {@code null}
  */
-public record ResponseData<T>(int statusCode, T body) {
+public record ResponseData<T>(int statusCode, T body, Duration retryAfter) {
+
+  /**
+   * Constructs a new ResponseData without a Retry-After delay.
+   *
+   * @param statusCode HTTP statusCode
+   * @param body HTTP response body
+   */
+  public ResponseData(int statusCode, T body) {
+    this(statusCode, body, null);
+  }
 
   /**
    * Checks if the response indicates a successful request.
@@ -36,4 +49,14 @@ public record ResponseData<T>(int statusCode, T body) {
   public boolean isSuccess() {
     return statusCode >= 200 && statusCode < 300;
   }
+
+  /**
+   * Checks if the server refused the request for now.
+   *
+   * @return True if the status code is 429 Too Many Requests or 503 Service Unavailable; false
+   *     otherwise.
+   */
+  public boolean isThrottled() {
+    return statusCode == 429 || statusCode == 503;
+  }
 }
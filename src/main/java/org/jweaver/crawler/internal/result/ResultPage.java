@@ -19,9 +19,9 @@ package org.jweaver.crawler.internal.result;
 
 /**
  * The ResultPage interface represents a result page obtained during web crawling. It is sealed and
- * permits specific implementations: SuccessResultPage and ErrorResultPage.
+ * permits specific implementations: SuccessResultPage, ErrorResultPage and ThrottledResultPage.
  */
-public sealed interface ResultPage permits SuccessResultPage, ErrorResultPage {
+public sealed interface ResultPage permits SuccessResultPage, ErrorResultPage, ThrottledResultPage {
 
   /**
    * Returns the URI of the result page.
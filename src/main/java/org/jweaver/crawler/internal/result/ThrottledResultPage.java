@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.result;
+
+import java.time.Duration;
+
+/**
+ * Represents a page the server refused to serve for now, with a 429 Too Many Requests or 503
+ * Service Unavailable response.
+ *
+ * @param uri The URI of the page.
+ * @param depth The depth of the page.
+ * @param content The status line of the response.
+ * @param retryAfter The delay of the {@code Retry-After} header, or {@code null} if there is none.
+ */
+public record ThrottledResultPage(String uri, int depth, String content, Duration retryAfter)
+    implements ResultPage {
+
+  /**
+   * Creates a ThrottledResultPage instance based on the provided PageLink and response.
+   *
+   * @param pageLink The PageLink representing the URI and depth of the page.
+   * @param responseData The throttling response.
+   * @return A ThrottledResultPage instance.
+   */
+  public static ThrottledResultPage create(PageLink pageLink, ResponseData<?> responseData) {
+    return new ThrottledResultPage(
+        pageLink.url(),
+        pageLink.depth(),
+        "HTTP " + responseData.statusCode(),
+        responseData.retryAfter());
+  }
+
+  /**
+   * Returns the link of the page, to crawl it again.
+   *
+   * @return The link of the page.
+   */
+  public PageLink link() {
+    return new PageLink(uri, depth);
+  }
+}
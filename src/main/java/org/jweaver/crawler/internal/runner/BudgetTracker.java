@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.runner;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The BudgetTracker class tracks the use of a {@link CrawlBudget}. A task tracker is chained to
+ * the global tracker of the crawler, so that a page or byte counts against both budgets and a task
+ * stops as soon as either of them is exhausted.
+ *
+ * <p>The clock of a tracker starts with {@link #start()}, which also starts the clock of the
+ * global tracker the first time a task starts.
+ */
+final class BudgetTracker {
+
+  private static final long NOT_STARTED = Long.MIN_VALUE;
+  private final CrawlBudget budget;
+  private final BudgetTracker parent;
+  private final long maxNanos;
+  private final AtomicLong pages = new AtomicLong();
+  private final LongAdder bytes = new LongAdder();
+  private final AtomicLong startNanos = new AtomicLong(NOT_STARTED);
+
+  /**
+   * Constructs a new BudgetTracker.
+   *
+   * @param budget The budget to track.
+   * @param parent The tracker of the enclosing budget, or {@code null} if there is none.
+   */
+  BudgetTracker(CrawlBudget budget, BudgetTracker parent) {
+    this.budget = budget;
+    this.parent = parent;
+    this.maxNanos = toNanos(budget);
+  }
+
+  /**
+   * Creates a tracker for an unlimited budget.
+   *
+   * @return A new BudgetTracker instance which is never exhausted.
+   */
+  static BudgetTracker unlimited() {
+    return new BudgetTracker(CrawlBudget.unlimited(), null);
+  }
+
+  /** Starts the clock of the tracker and of its parent, unless they have already started. */
+  void start() {
+    startNanos.compareAndSet(NOT_STARTED, System.nanoTime());
+    if (parent != null) {
+      parent.start();
+    }
+  }
+
+  /**
+   * Reserves a page of the budget before it is fetched.
+   *
+   * @return {@code true} if the page may be fetched, or {@code false} if the budget is exhausted.
+   */
+  boolean tryAcquirePage() {
+    if (bytes.sum() >= budget.maxBytes() || isOutOfTime()) {
+      return false;
+    }
+    if (pages.incrementAndGet() > budget.maxPages()) {
+      pages.decrementAndGet();
+      return false;
+    }
+    if (parent != null && !parent.tryAcquirePage()) {
+      pages.decrementAndGet();
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Counts the bytes of a response against the budget.
+   *
+   * @param count The number of bytes received.
+   */
+  void recordBytes(long count) {
+    bytes.add(count);
+    if (parent != null) {
+      parent.recordBytes(count);
+    }
+  }
+
+  /**
+   * Checks whether a limit of the budget, or of the enclosing budget, has been reached.
+   *
+   * @return {@code true} if no more page may be fetched, otherwise {@code false}.
+   */
+  boolean exhausted() {
+    return pages.get() >= budget.maxPages()
+        || bytes.sum() >= budget.maxBytes()
+        || isOutOfTime()
+        || (parent != null && parent.exhausted());
+  }
+
+  /**
+   * Checks whether the links left when the budget stops a task are handed to the writer.
+   *
+   * @return {@code true} if the budget, or the enclosing budget, persists the frontier.
+   */
+  boolean persistFrontier() {
+    return budget.persistFrontier() || (parent != null && parent.persistFrontier());
+  }
+
+  /**
+   * Returns the number of pages reserved so far.
+   *
+   * @return The number of pages.
+   */
+  long pages() {
+    return pages.get();
+  }
+
+  /**
+   * Returns the number of bytes received so far.
+   *
+   * @return The number of bytes.
+   */
+  long bytes() {
+    return bytes.sum();
+  }
+
+  private boolean isOutOfTime() {
+    long start = startNanos.get();
+    return start != NOT_STARTED && System.nanoTime() - start >= maxNanos;
+  }
+
+  private static long toNanos(CrawlBudget budget) {
+    try {
+      return budget.maxDuration().toNanos();
+    } catch (ArithmeticException e) {
+      return Long.MAX_VALUE;
+    }
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.runner;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+
+/**
+ * The CrawlBudget record represents the limits of a crawl, either per task or over all the tasks of
+ * a crawler. Once a limit is reached, no new request is sent: the requests in flight are drained,
+ * and the connection map and errors gathered so far are written as usual.
+ *
+ * <p>Budgets are immutable. Start from {@link #unlimited()} and set the limits with the {@code
+ * with} methods.
+ *
+ * @param maxPages The maximum number of pages fetched, root pages included.
+ * @param maxBytes The maximum number of response body bytes received, counted after decoding as
+ *     the number of characters of the bodies.
+ * @param maxDuration The maximum wall-clock time, counted from the start of the first task.
+ * @param persistFrontier Whether the links left in the frontier of a task stopped by the budget
+ *     are handed to the writer.
+ */
+public record CrawlBudget(
+    long maxPages, long maxBytes, Duration maxDuration, boolean persistFrontier) {
+
+  private static final CrawlBudget UNLIMITED =
+      new CrawlBudget(Long.MAX_VALUE, Long.MAX_VALUE, ChronoUnit.FOREVER.getDuration(), false);
+
+  /**
+   * Constructs a new CrawlBudget, validating its limits.
+   *
+   * @throws NullPointerException If the maximum duration is null.
+   * @throws IllegalArgumentException If a limit is not positive.
+   */
+  public CrawlBudget {
+    Objects.requireNonNull(maxDuration);
+    if (maxPages <= 0) {
+      throw new IllegalArgumentException("Max pages must be greater than zero");
+    }
+    if (maxBytes <= 0) {
+      throw new IllegalArgumentException("Max bytes must be greater than zero");
+    }
+    if (maxDuration.isNegative() || maxDuration.isZero()) {
+      throw new IllegalArgumentException("Max duration must be greater than zero");
+    }
+  }
+
+  /**
+   * Returns a CrawlBudget without limits.
+   *
+   * @return The unlimited CrawlBudget instance.
+   */
+  public static CrawlBudget unlimited() {
+    return UNLIMITED;
+  }
+
+  /**
+   * Returns a copy of this budget with the given maximum number of pages fetched.
+   *
+   * @param pages The maximum number of pages.
+   * @return A new CrawlBudget instance.
+   * @throws IllegalArgumentException If the number of pages is not positive.
+   */
+  public CrawlBudget withMaxPages(long pages) {
+    return new CrawlBudget(pages, maxBytes, maxDuration, persistFrontier);
+  }
+
+  /**
+   * Returns a copy of this budget with the given maximum number of response bytes.
+   *
+   * @param bytes The maximum number of bytes.
+   * @return A new CrawlBudget instance.
+   * @throws IllegalArgumentException If the number of bytes is not positive.
+   */
+  public CrawlBudget withMaxBytes(long bytes) {
+    return new CrawlBudget(maxPages, bytes, maxDuration, persistFrontier);
+  }
+
+  /**
+   * Returns a copy of this budget with the given maximum wall-clock time.
+   *
+   * @param duration The maximum duration.
+   * @return A new CrawlBudget instance.
+   * @throws IllegalArgumentException If the duration is not positive.
+   */
+  public CrawlBudget withMaxDuration(Duration duration) {
+    return new CrawlBudget(maxPages, maxBytes, duration, persistFrontier);
+  }
+
+  /**
+   * Returns a copy of this budget handing the links left in the frontier to {@link
+   * org.jweaver.crawler.internal.write.JWeaverWriter#processFrontier} when it stops a task.
+   *
+   * @return A new CrawlBudget instance.
+   */
+  public CrawlBudget withFrontierPersisted() {
+    return new CrawlBudget(maxPages, maxBytes, maxDuration, true);
+  }
+}
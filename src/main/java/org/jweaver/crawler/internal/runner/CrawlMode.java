@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.runner;
+
+/**
+ * The CrawlMode enum represents what a crawl extracts from the pages it visits. The connection map
+ * and the errors of a task are exported in every mode.
+ */
+public enum CrawlMode {
+
+  /** The title, content and links of each page are extracted, and each page is exported. */
+  FULL,
+
+  /**
+   * Only the title and links of each page are extracted to build the link graph. The content of
+   * the pages is never extracted and no page is exported.
+   */
+  DISCOVERY
+}
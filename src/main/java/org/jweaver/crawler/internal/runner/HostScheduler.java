@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.runner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jweaver.crawler.internal.exception.JWeaverExecutionException;
+import org.jweaver.crawler.internal.util.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The HostScheduler class crawls the hosts of many tasks on a fixed pool of workers, so that the
+ * number of requests in flight depends on the size of the pool rather than on the number of
+ * hosts.
+ *
+ * <p>Each task keeps its own page link queue and owns up to {@code maxConcurrentRequests} lanes,
+ * a lane being the right to crawl one link of the host at a time. The lanes wait in a single queue
+ * ordered by the time the politeness scheduler, and the adaptive controller if any, allow their
+ * host again. A worker takes the lane which became ready first, crawls one link and puts the lane
+ * back, so the workers rotate across the ready hosts and a large host never holds a worker for
+ * longer than a request. A task is finished by the worker retiring its last lane.
+ *
+ * <p>A worker never waits for a host: the request of a lane is reserved without waiting, and the
+ * lane is put back until the host allows it if the politeness scheduler, the adaptive controller
+ * or the request limiter refuses it. A throttled root page likewise puts its lane back for the
+ * pause of the host. The workers fetch the pages with blocking requests, whatever the fetch mode
+ * of the tasks.
+ */
+final class HostScheduler {
+
+  private static final Logger log = LoggerFactory.getLogger(HostScheduler.class);
+  private static final long IDLE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+  private final int workers;
+  private final AtomicLong sequence = new AtomicLong();
+
+  /**
+   * Constructs a new HostScheduler.
+   *
+   * @param workers The number of workers shared by all hosts.
+   */
+  HostScheduler(int workers) {
+    this.workers = workers;
+  }
+
+  /**
+   * Crawls the specified tasks and returns once all of them are finished.
+   *
+   * @param tasks The tasks to crawl.
+   * @throws JWeaverExecutionException If the calling thread is interrupted.
+   */
+  void run(List<JWeaverTask> tasks) {
+    var ready = new DelayQueue<Lane>();
+    var remaining = new CountDownLatch(tasks.size());
+    for (var task : tasks) {
+      ready.add(lane(new Host(task), 0));
+    }
+    var threads = new ArrayList<Thread>(workers);
+    for (int i = 0; i < workers; i++) {
+      threads.add(
+          Thread.ofVirtual()
+              .name(Constants.WORKER_THREAD_NAME + i)
+              .start(() -> work(ready, remaining)));
+    }
+    try {
+      remaining.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      log.error("Scheduled execution interrupted", e);
+      throw new JWeaverExecutionException("Thread execution interrupted");
+    } finally {
+      threads.forEach(Thread::interrupt);
+    }
+  }
+
+  private void work(DelayQueue<Lane> ready, CountDownLatch remaining) {
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        dispatch(ready.take(), ready, remaining);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Runs one step of the host of a lane: the first steps open the crawl of the host and crawl its
+   * root page, after which the other lanes of the host are created, and the following ones crawl
+   * a link each.
+   */
+  private void dispatch(Lane lane, DelayQueue<Lane> ready, CountDownLatch remaining) {
+    var host = lane.host();
+    var task = host.task;
+    try {
+      if (!host.opened) {
+        host.opened = true;
+        if (!task.startCrawl()) {
+          retire(host, remaining);
+          return;
+        }
+      }
+      var waitNanos = task.nanosUntilAllowed();
+      if (waitNanos > 0) {
+        ready.add(lane(host, waitNanos));
+        return;
+      }
+      if (!host.rootCrawled) {
+        if (task.tryCrawlRoot() == JWeaverTask.Step.BLOCKED) {
+          ready.add(lane(host, blockedNanos(task)));
+          return;
+        }
+        host.rootCrawled = true;
+        host.addLanes(task.getMaxConcurrentRequests() - 1);
+        for (int i = 0; i < task.getMaxConcurrentRequests(); i++) {
+          ready.add(lane(host, 0));
+        }
+        return;
+      }
+      switch (task.tryCrawlNext()) {
+        case CRAWLED -> ready.add(lane(host, 0));
+        case BLOCKED -> ready.add(lane(host, blockedNanos(task)));
+        case WAITING -> ready.add(lane(host, IDLE_WAIT_NANOS));
+        case DONE -> retire(host, remaining);
+      }
+    } catch (RuntimeException e) {
+      log.error("Scheduled execution with id {} failed", task.getId(), e);
+      host.failed = true;
+      retire(host, remaining);
+    }
+  }
+
+  /** Retires a lane of a host, and finishes the task once its last lane is retired. */
+  private void retire(Host host, CountDownLatch remaining) {
+    if (!host.retireLane()) {
+      return;
+    }
+    try {
+      if (!host.failed) {
+        host.task.finishCrawl();
+      }
+      host.task.closeCrawl();
+    } catch (RuntimeException e) {
+      log.error("Unable to finish execution with id {}", host.task.getId(), e);
+    } finally {
+      remaining.countDown();
+    }
+  }
+
+  /**
+   * Returns how long the lane of a task refused by its host waits: until the host allows a request
+   * again, or for the idle wait if the host waits for a response to free a permit.
+   */
+  private static long blockedNanos(JWeaverTask task) {
+    var waitNanos = task.nanosUntilAllowed();
+    return waitNanos > 0 ? waitNanos : IDLE_WAIT_NANOS;
+  }
+
+  private Lane lane(Host host, long delayNanos) {
+    return new Lane(host, System.nanoTime() + delayNanos, sequence.getAndIncrement());
+  }
+
+  /** Holds the state of the task of a host shared by its lanes. */
+  private static final class Host {
+
+    private final JWeaverTask task;
+    private int lanes = 1;
+    private volatile boolean opened;
+    private volatile boolean rootCrawled;
+    private volatile boolean failed;
+
+    private Host(JWeaverTask task) {
+      this.task = task;
+    }
+
+    private synchronized void addLanes(int count) {
+      lanes += count;
+    }
+
+    private synchronized boolean retireLane() {
+      return --lanes == 0;
+    }
+  }
+
+  /**
+   * A lane of a host waiting for its ready time. Lanes ready at the same time are taken in the
+   * order they were queued.
+   *
+   * @param host The host of the lane.
+   * @param readyAt The {@link System#nanoTime()} from which the lane can be taken.
+   * @param sequence The order in which the lane was queued.
+   */
+  private record Lane(Host host, long readyAt, long sequence) implements Delayed {
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+      return unit.convert(readyAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+      var lane = (Lane) other;
+      int order = Long.compare(readyAt, lane.readyAt);
+      return order != 0 ? order : Long.compare(sequence, lane.sequence);
+    }
+  }
+}
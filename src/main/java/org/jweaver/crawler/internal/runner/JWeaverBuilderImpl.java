@@ -21,10 +21,24 @@ import static java.util.Objects.requireNonNull;
 import static org.jweaver.crawler.internal.util.BuilderValidator.requireNonEmpty;
 
 import java.net.http.HttpClient;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.List;
 import java.util.Set;
 import org.jweaver.crawler.JWeaverCrawler;
+import org.jweaver.crawler.internal.checkpoint.CheckpointConfig;
+import org.jweaver.crawler.internal.fetch.AimdConfig;
+import org.jweaver.crawler.internal.fetch.BodySizePolicy;
+import org.jweaver.crawler.internal.fetch.FetchMode;
+import org.jweaver.crawler.internal.fetch.HtmlBodyHandler;
+import org.jweaver.crawler.internal.fetch.RequestLimiter;
+import org.jweaver.crawler.internal.fetch.ThrottleConfig;
+import org.jweaver.crawler.internal.frontier.FrontierConfig;
+import org.jweaver.crawler.internal.frontier.VisitedSetConfig;
 import org.jweaver.crawler.internal.parse.DocumentParser;
+import org.jweaver.crawler.internal.url.TrapDetectorConfig;
+import org.jweaver.crawler.internal.url.UrlCanonicalizer;
+import org.jweaver.crawler.internal.url.UrlRule;
 import org.jweaver.crawler.internal.write.ExportConfig;
 import org.jweaver.crawler.internal.write.JWeaverWriter;
 
@@ -40,6 +54,25 @@ public final class JWeaverBuilderImpl implements JWeaverCrawler.Builder {
   ExportConfig exportConfiguration;
   Duration politenessDelay;
   Integer maxDepth;
+  Integer maxConcurrentRequestsPerHost;
+  Integer globalConcurrency;
+  RequestLimiter requestLimiter;
+  AimdConfig aimdConfig;
+  ThrottleConfig throttleConfig;
+  FetchMode fetchMode;
+  HtmlBodyHandler bodyHandler;
+  CrawlMode crawlMode;
+  Integer writeQueueCapacity;
+  Integer writerWorkers;
+  VisitedSetConfig visitedSetConfig;
+  FrontierConfig frontierConfig;
+  UrlCanonicalizer canonicalizer;
+  List<UrlRule> includeRules;
+  List<UrlRule> excludeRules;
+  CrawlBudget taskBudget;
+  CrawlBudget globalBudget;
+  TrapDetectorConfig trapDetectorConfig;
+  CheckpointConfig checkpointConfig;
   Set<String> uriSet;
 
   /** Constructs a new JWeaverBuilderImpl instance. */
@@ -91,6 +124,144 @@ public final class JWeaverBuilderImpl implements JWeaverCrawler.Builder {
     return this;
   }
 
+  @Override
+  public JWeaverCrawler.Builder maxConcurrentRequestsPerHost(int maxConcurrentRequests) {
+    if (maxConcurrentRequests <= 0) {
+      throw new IllegalArgumentException("Concurrent requests must be greater than zero");
+    }
+    this.maxConcurrentRequestsPerHost = maxConcurrentRequests;
+    return this;
+  }
+
+  @Override
+  public JWeaverCrawler.Builder globalConcurrency(int workers) {
+    if (workers <= 0) {
+      throw new IllegalArgumentException("Global concurrency must be greater than zero");
+    }
+    this.globalConcurrency = workers;
+    return this;
+  }
+
+  @Override
+  public JWeaverCrawler.Builder maxRequestsInFlight(int maxInFlight, int maxInFlightPerHost) {
+    this.requestLimiter = RequestLimiter.create(maxInFlight, maxInFlightPerHost);
+    return this;
+  }
+
+  @Override
+  public JWeaverCrawler.Builder adaptiveConcurrency(AimdConfig aimdConfig) {
+    requireNonNull(aimdConfig);
+    this.aimdConfig = aimdConfig;
+    return this;
+  }
+
+  @Override
+  public JWeaverCrawler.Builder throttling(ThrottleConfig throttleConfig) {
+    requireNonNull(throttleConfig);
+    this.throttleConfig = throttleConfig;
+    return this;
+  }
+
+  @Override
+  public JWeaverCrawler.Builder fetchMode(FetchMode fetchMode) {
+    requireNonNull(fetchMode);
+    this.fetchMode = fetchMode;
+    return this;
+  }
+
+  @Override
+  public JWeaverCrawler.Builder maxBodySize(long maxBodySize, BodySizePolicy policy) {
+    requireNonNull(policy);
+    this.bodyHandler = new HtmlBodyHandler(maxBodySize, policy);
+    return this;
+  }
+
+  @Override
+  public JWeaverCrawler.Builder crawlMode(CrawlMode crawlMode) {
+    requireNonNull(crawlMode);
+    this.crawlMode = crawlMode;
+    return this;
+  }
+
+  @Override
+  public JWeaverCrawler.Builder writeQueue(int capacity, int workers) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Write queue capacity must be greater than zero");
+    }
+    if (workers <= 0) {
+      throw new IllegalArgumentException("Writer workers must be greater than zero");
+    }
+    this.writeQueueCapacity = capacity;
+    this.writerWorkers = workers;
+    return this;
+  }
+
+  @Override
+  public JWeaverCrawler.Builder visitedSet(VisitedSetConfig visitedSetConfig) {
+    requireNonNull(visitedSetConfig);
+    this.visitedSetConfig = visitedSetConfig;
+    return this;
+  }
+
+  @Override
+  public JWeaverCrawler.Builder frontier(FrontierConfig frontierConfig) {
+    requireNonNull(frontierConfig);
+    this.frontierConfig = frontierConfig;
+    return this;
+  }
+
+  @Override
+  public JWeaverCrawler.Builder urlCanonicalizer(UrlCanonicalizer canonicalizer) {
+    requireNonNull(canonicalizer);
+    this.canonicalizer = canonicalizer;
+    return this;
+  }
+
+  @Override
+  public JWeaverCrawler.Builder includeUrls(UrlRule... rules) {
+    this.includeRules = List.of(rules);
+    return this;
+  }
+
+  @Override
+  public JWeaverCrawler.Builder excludeUrls(UrlRule... rules) {
+    this.excludeRules = List.of(rules);
+    return this;
+  }
+
+  @Override
+  public JWeaverCrawler.Builder taskBudget(CrawlBudget budget) {
+    requireNonNull(budget);
+    this.taskBudget = budget;
+    return this;
+  }
+
+  @Override
+  public JWeaverCrawler.Builder globalBudget(CrawlBudget budget) {
+    requireNonNull(budget);
+    this.globalBudget = budget;
+    return this;
+  }
+
+  @Override
+  public JWeaverCrawler.Builder trapDetection(TrapDetectorConfig trapDetectorConfig) {
+    requireNonNull(trapDetectorConfig);
+    this.trapDetectorConfig = trapDetectorConfig;
+    return this;
+  }
+
+  @Override
+  public JWeaverCrawler.Builder checkpoint(Path directory, Duration flushInterval) {
+    this.checkpointConfig = new CheckpointConfig(directory, flushInterval, false);
+    return this;
+  }
+
+  @Override
+  public JWeaverCrawler.Builder resumeFrom(Path directory) {
+    this.checkpointConfig = CheckpointConfig.resumeFrom(directory);
+    return this;
+  }
+
   @Override
   public JWeaverCrawler build(Set<String> uriSet) {
     if (uriSet == null) throw new IllegalArgumentException("URI list must be provided");
@@ -26,26 +26,67 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 import org.jweaver.crawler.JWeaverCrawler;
+import org.jweaver.crawler.internal.checkpoint.CheckpointConfig;
+import org.jweaver.crawler.internal.checkpoint.CrawlJournal;
+import org.jweaver.crawler.internal.fetch.AimdController;
+import org.jweaver.crawler.internal.fetch.BodySizePolicy;
+import org.jweaver.crawler.internal.fetch.FetchMode;
+import org.jweaver.crawler.internal.fetch.HtmlBodyHandler;
+import org.jweaver.crawler.internal.fetch.PolitenessScheduler;
+import org.jweaver.crawler.internal.fetch.RequestLimiter;
+import org.jweaver.crawler.internal.fetch.ThrottleConfig;
+import org.jweaver.crawler.internal.frontier.FrontierConfig;
+import org.jweaver.crawler.internal.frontier.VisitedSetConfig;
 import org.jweaver.crawler.internal.parse.DocumentParser;
 import org.jweaver.crawler.internal.parse.JWeaverDocumentParser;
+import org.jweaver.crawler.internal.url.TrapDetector;
+import org.jweaver.crawler.internal.url.TrapDetectorConfig;
+import org.jweaver.crawler.internal.url.UrlCanonicalizer;
+import org.jweaver.crawler.internal.url.UrlFilter;
+import org.jweaver.crawler.internal.url.UrlRule;
 import org.jweaver.crawler.internal.util.URIHelper;
+import org.jweaver.crawler.internal.write.AsyncPageWriter;
 import org.jweaver.crawler.internal.write.ExportConfig;
 import org.jweaver.crawler.internal.write.JWeaverFileWriter;
 import org.jweaver.crawler.internal.write.JWeaverWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /** A concrete implementation of {@link JWeaverCrawler} providing web crawling functionality. */
 public final class JWeaverCrawlerImpl implements JWeaverCrawler {
 
+  private static final Logger log = LoggerFactory.getLogger(JWeaverCrawlerImpl.class);
   private static final Integer DEFAULT_MAX_DEPTH = 3;
   private static final Duration DEFAULT_POLITENESS_DELAY = Duration.ofSeconds(3);
+  private static final Integer DEFAULT_MAX_CONCURRENT_REQUESTS_PER_HOST = 1;
+  private static final long DEFAULT_MAX_BODY_SIZE = 10L * 1024 * 1024;
+  private static final Integer DEFAULT_WRITE_QUEUE_CAPACITY = 256;
+  private static final Integer DEFAULT_WRITER_WORKERS = 2;
   private final HttpClient httpClient;
   private final DocumentParser parser;
   private final JWeaverWriter writer;
-  private final Duration politenessDelay;
+  private final AsyncPageWriter pageWriter;
+  private final PolitenessScheduler politenessScheduler;
+  private final RequestLimiter requestLimiter;
+  private final AimdController aimdController;
+  private final ThrottleConfig throttleConfig;
   private final List<JWeaverTask> taskList;
   private final TaskExecutor taskExecutor;
   private final Integer maxDepth;
   private final ExportConfig exportConfiguration;
+  private final Integer maxConcurrentRequestsPerHost;
+  private final FetchMode fetchMode;
+  private final HtmlBodyHandler bodyHandler;
+  private final CrawlMode crawlMode;
+  private final VisitedSetConfig visitedSetConfig;
+  private final FrontierConfig frontierConfig;
+  private final UrlCanonicalizer canonicalizer;
+  private final List<UrlRule> includeRules;
+  private final List<UrlRule> excludeRules;
+  private final CrawlBudget taskBudget;
+  private final BudgetTracker globalBudget;
+  private final TrapDetectorConfig trapDetectorConfig;
+  private final CheckpointConfig checkpointConfig;
 
   /**
    * Constructs a new JWeaverCrawlerImpl instance.
@@ -54,14 +95,54 @@ public final class JWeaverCrawlerImpl implements JWeaverCrawler {
    */
   public JWeaverCrawlerImpl(JWeaverBuilderImpl builder) {
     requireNonEmpty(builder.uriSet);
-    if (builder.politenessDelay == null) {
-      this.politenessDelay = DEFAULT_POLITENESS_DELAY;
-    } else {
-      this.politenessDelay = builder.politenessDelay;
-    }
+    var politenessDelay =
+        Objects.requireNonNullElse(builder.politenessDelay, DEFAULT_POLITENESS_DELAY);
     this.parser = Objects.requireNonNullElseGet(builder.documentParser, JWeaverDocumentParser::new);
     this.maxDepth = Objects.requireNonNullElse(builder.maxDepth, DEFAULT_MAX_DEPTH);
+    if (builder.aimdConfig == null) {
+      this.maxConcurrentRequestsPerHost =
+          Objects.requireNonNullElse(
+              builder.maxConcurrentRequestsPerHost, DEFAULT_MAX_CONCURRENT_REQUESTS_PER_HOST);
+      // every request slot of a host observes the politeness delay
+      this.politenessScheduler =
+          new PolitenessScheduler(politenessDelay.dividedBy(this.maxConcurrentRequestsPerHost));
+      this.aimdController = AimdController.disabled();
+    } else {
+      // the controller spaces the requests and decides how many of the workers may send one
+      this.maxConcurrentRequestsPerHost = builder.aimdConfig.maxConcurrency();
+      this.politenessScheduler = new PolitenessScheduler(Duration.ZERO);
+      this.aimdController = builder.aimdConfig.create();
+    }
+    this.requestLimiter =
+        Objects.requireNonNullElseGet(builder.requestLimiter, RequestLimiter::unlimited);
+    this.throttleConfig =
+        Objects.requireNonNullElseGet(builder.throttleConfig, ThrottleConfig::defaults);
+    this.fetchMode = Objects.requireNonNullElse(builder.fetchMode, FetchMode.BLOCKING);
+    this.bodyHandler =
+        Objects.requireNonNullElseGet(
+            builder.bodyHandler,
+            () -> new HtmlBodyHandler(DEFAULT_MAX_BODY_SIZE, BodySizePolicy.TRUNCATE));
+    this.crawlMode = Objects.requireNonNullElse(builder.crawlMode, CrawlMode.FULL);
+    this.visitedSetConfig =
+        Objects.requireNonNullElseGet(builder.visitedSetConfig, VisitedSetConfig::exact);
+    this.frontierConfig =
+        Objects.requireNonNullElseGet(builder.frontierConfig, FrontierConfig::memory);
+    this.canonicalizer =
+        Objects.requireNonNullElseGet(builder.canonicalizer, UrlCanonicalizer::defaults);
+    this.includeRules = Objects.requireNonNullElseGet(builder.includeRules, List::of);
+    this.excludeRules = Objects.requireNonNullElseGet(builder.excludeRules, List::of);
+    this.taskBudget = Objects.requireNonNullElseGet(builder.taskBudget, CrawlBudget::unlimited);
+    this.globalBudget =
+        new BudgetTracker(
+            Objects.requireNonNullElseGet(builder.globalBudget, CrawlBudget::unlimited), null);
+    this.trapDetectorConfig = builder.trapDetectorConfig;
+    this.checkpointConfig = builder.checkpointConfig;
     this.writer = Objects.requireNonNullElseGet(builder.writer, JWeaverFileWriter::create);
+    this.pageWriter =
+        AsyncPageWriter.create(
+            this.writer,
+            Objects.requireNonNullElse(builder.writeQueueCapacity, DEFAULT_WRITE_QUEUE_CAPACITY),
+            Objects.requireNonNullElse(builder.writerWorkers, DEFAULT_WRITER_WORKERS));
     if (builder.httpClient == null) {
       this.httpClient =
           HttpClient.newBuilder()
@@ -73,7 +154,11 @@ public final class JWeaverCrawlerImpl implements JWeaverCrawler {
     }
     this.exportConfiguration =
         Objects.requireNonNullElseGet(builder.exportConfiguration, ExportConfig::exportDefault);
-    this.taskExecutor = TaskExecutorImpl.create();
+    this.taskExecutor =
+        builder.globalConcurrency == null
+            ? TaskExecutorImpl.create(this.pageWriter)
+            : TaskExecutorImpl.create(
+                this.pageWriter, new HostScheduler(builder.globalConcurrency));
 
     this.taskList = getExecutionList(builder.uriSet);
   }
@@ -82,21 +167,48 @@ public final class JWeaverCrawlerImpl implements JWeaverCrawler {
     return new JWeaverTask(
         baseUri,
         this.httpClient,
-        this.politenessDelay,
+        this.politenessScheduler,
         this.exportConfiguration,
         this.maxDepth,
         this.parser,
-        this.writer);
+        this.writer,
+        this.pageWriter,
+        this.maxConcurrentRequestsPerHost,
+        this.fetchMode,
+        this.bodyHandler,
+        this.crawlMode,
+        this.visitedSetConfig.create(),
+        this.frontierConfig.create(),
+        this.canonicalizer,
+        UrlFilter.create(baseUri, this.includeRules, this.excludeRules),
+        new BudgetTracker(this.taskBudget, this.globalBudget),
+        this.trapDetectorConfig == null
+            ? TrapDetector.disabled()
+            : this.trapDetectorConfig.create(),
+        this.checkpointConfig == null
+            ? CrawlJournal.disabled()
+            : this.checkpointConfig.journal(baseUri),
+        this.requestLimiter,
+        this.aimdController,
+        this.throttleConfig);
   }
 
   @Override
   public void run() {
     taskExecutor.run(this.taskList);
+    logLimiterStats();
   }
 
   @Override
   public void runParallel() {
     taskExecutor.runParallel(this.taskList);
+    logLimiterStats();
+  }
+
+  private void logLimiterStats() {
+    if (this.requestLimiter != RequestLimiter.unlimited()) {
+      log.info("Request limiter waits: {}", this.requestLimiter.stats());
+    }
   }
 
   /**
@@ -23,16 +23,39 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 import java.util.Random;
 import java.util.Set;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 import java.util.random.RandomGenerator;
 import java.util.stream.Collectors;
+import org.jweaver.crawler.internal.checkpoint.CrawlJournal;
+import org.jweaver.crawler.internal.checkpoint.JournalState;
+import org.jweaver.crawler.internal.exception.JWeaverExecutionException;
+import org.jweaver.crawler.internal.fetch.AimdController;
+import org.jweaver.crawler.internal.fetch.ByteCountingBodyHandler;
+import org.jweaver.crawler.internal.fetch.FetchMode;
+import org.jweaver.crawler.internal.fetch.PolitenessScheduler;
+import org.jweaver.crawler.internal.fetch.RequestLimiter;
+import org.jweaver.crawler.internal.fetch.RetryAfter;
+import org.jweaver.crawler.internal.fetch.ThrottleConfig;
+import org.jweaver.crawler.internal.frontier.Frontier;
+import org.jweaver.crawler.internal.frontier.VisitedSet;
 import org.jweaver.crawler.internal.parse.DocumentParser;
 import org.jweaver.crawler.internal.result.Connection;
 import org.jweaver.crawler.internal.result.ErrorResultPage;
@@ -41,8 +64,13 @@ import org.jweaver.crawler.internal.result.PageLink;
 import org.jweaver.crawler.internal.result.ResponseData;
 import org.jweaver.crawler.internal.result.ResultPage;
 import org.jweaver.crawler.internal.result.SuccessResultPage;
+import org.jweaver.crawler.internal.result.ThrottledResultPage;
+import org.jweaver.crawler.internal.url.TrapDetector;
+import org.jweaver.crawler.internal.url.UrlCanonicalizer;
+import org.jweaver.crawler.internal.url.UrlFilter;
 import org.jweaver.crawler.internal.util.Constants;
 import org.jweaver.crawler.internal.util.URIHelper;
+import org.jweaver.crawler.internal.write.AsyncPageWriter;
 import org.jweaver.crawler.internal.write.ExportConfig;
 import org.jweaver.crawler.internal.write.JWeaverWriter;
 import org.slf4j.Logger;
@@ -52,51 +80,124 @@ import org.slf4j.LoggerFactory;
 public final class JWeaverTask {
 
   private static final Logger log = LoggerFactory.getLogger(JWeaverTask.class);
+  private static final long IDLE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
   private final Long id;
-  private final Queue<PageLink> pageLinkQueue;
-  private final Set<String> visitedUris;
+  private final Frontier frontier;
+  private final UrlCanonicalizer canonicalizer;
+  private final UrlFilter urlFilter;
+  private final BudgetTracker budget;
+  private final TrapDetector trapDetector;
+  private final CrawlJournal journal;
+  private final AtomicInteger pendingLinks;
+  private final Set<CompletableFuture<Void>> pendingWrites;
+  private final VisitedSet seenUris;
+  private final LongAdder duplicateLinks;
   private final HttpClient httpClient;
   private final DocumentParser parser;
   private final List<Connection> connections;
   private final JWeaverWriter writer;
+  private final AsyncPageWriter pageWriter;
   private final String baseUri;
-  private final Duration politenessDelay;
+  private final String host;
+  private final PolitenessScheduler politenessScheduler;
+  private final RequestLimiter requestLimiter;
+  private final AimdController aimdController;
+  private final ThrottleConfig throttleConfig;
+  private final DelayQueue<RetryLink> retryQueue;
+  private final Map<String, Integer> retryAttempts;
+  private volatile boolean rootCrawled;
+  private int rootRetries;
   private final List<NodeError> nodeErrorList;
   private final Integer maxDepth;
   private final ExportConfig exportConfiguration;
+  private final int maxConcurrentRequests;
+  private final FetchMode fetchMode;
+  private final HttpResponse.BodyHandler<String> bodyHandler;
+  private final CrawlMode crawlMode;
 
   /**
    * Constructs a new JWeaverTask with the specified parameters.
    *
    * @param baseUri The base URI for the task.
    * @param httpClient The HTTP client used for making requests.
-   * @param politenessDelay The politeness delay between requests.
+   * @param politenessScheduler The scheduler spacing the requests sent to the host.
    * @param exportConfiguration The export configuration for data export options.
    * @param maxDepth The maximum depth to crawl.
    * @param documentParser The document parser for extracting information from HTML.
    * @param writer The writer for exporting results.
+   * @param pageWriter The background writer of the crawled pages.
+   * @param maxConcurrentRequests The maximum number of requests in flight for this host.
+   * @param fetchMode The engine used to fetch the pages after the root page.
+   * @param bodyHandler The handler reading the body of the responses, whose bytes are charged to
+   *     the budget.
+   * @param crawlMode The information extracted from each page.
+   * @param visitedSet The set tracking the URLs enqueued by the task.
+   * @param frontier The frontier holding the links waiting to be crawled.
+   * @param canonicalizer The canonicalizer applied to the discovered links.
+   * @param urlFilter The filter selecting the discovered links to crawl.
+   * @param budget The tracker of the crawl budget of the task.
+   * @param trapDetector The detector suppressing the links of crawl traps.
+   * @param journal The journal recording the progress of the task.
+   * @param requestLimiter The limiter of the requests in flight shared by all tasks.
+   * @param aimdController The controller adapting the concurrency and rate of the host.
+   * @param throttleConfig The retries of the pages refused by throttling responses.
    */
   JWeaverTask(
       String baseUri,
       HttpClient httpClient,
-      Duration politenessDelay,
+      PolitenessScheduler politenessScheduler,
       ExportConfig exportConfiguration,
       Integer maxDepth,
       DocumentParser documentParser,
-      JWeaverWriter writer) {
+      JWeaverWriter writer,
+      AsyncPageWriter pageWriter,
+      int maxConcurrentRequests,
+      FetchMode fetchMode,
+      HttpResponse.BodyHandler<String> bodyHandler,
+      CrawlMode crawlMode,
+      VisitedSet visitedSet,
+      Frontier frontier,
+      UrlCanonicalizer canonicalizer,
+      UrlFilter urlFilter,
+      BudgetTracker budget,
+      TrapDetector trapDetector,
+      CrawlJournal journal,
+      RequestLimiter requestLimiter,
+      AimdController aimdController,
+      ThrottleConfig throttleConfig) {
 
     this.id = generateExecutionId();
     this.baseUri = baseUri;
-    this.connections = new ArrayList<>();
-    this.visitedUris = new HashSet<>();
-    this.pageLinkQueue = new ConcurrentLinkedQueue<>();
-    this.politenessDelay = politenessDelay;
+    this.connections = Collections.synchronizedList(new ArrayList<>());
+    this.seenUris = visitedSet;
+    this.duplicateLinks = new LongAdder();
+    this.frontier = frontier;
+    this.canonicalizer = canonicalizer;
+    this.urlFilter = urlFilter;
+    this.budget = budget;
+    this.trapDetector = trapDetector;
+    this.journal = journal;
+    this.pendingLinks = new AtomicInteger();
+    this.pendingWrites = ConcurrentHashMap.newKeySet();
+    this.host = URI.create(baseUri).getHost();
+    this.politenessScheduler = politenessScheduler;
+    this.requestLimiter = requestLimiter;
+    this.aimdController = aimdController;
+    this.throttleConfig = throttleConfig;
+    this.retryQueue = new DelayQueue<>();
+    this.retryAttempts = new ConcurrentHashMap<>();
     this.parser = documentParser;
     this.maxDepth = maxDepth;
     this.writer = writer;
+    this.pageWriter = pageWriter;
     this.httpClient = httpClient;
     this.exportConfiguration = exportConfiguration;
-    this.nodeErrorList = new ArrayList<>();
+    this.nodeErrorList = Collections.synchronizedList(new ArrayList<>());
+    this.maxConcurrentRequests = maxConcurrentRequests;
+    this.fetchMode = fetchMode;
+    // the bodies are charged to the budget for the bytes received, whatever their charset
+    this.bodyHandler = new ByteCountingBodyHandler<>(bodyHandler, budget::recordBytes);
+    this.crawlMode = crawlMode;
   }
 
   /**
@@ -121,6 +222,24 @@ public final class JWeaverTask {
     return this.id;
   }
 
+  /**
+   * Retrieves the host crawled by this task.
+   *
+   * @return The host of the base URI.
+   */
+  String getHost() {
+    return this.host;
+  }
+
+  /**
+   * Retrieves the maximum number of requests in flight for the host of this task.
+   *
+   * @return The maximum number of concurrent requests.
+   */
+  int getMaxConcurrentRequests() {
+    return this.maxConcurrentRequests;
+  }
+
   /**
    * Initiates the crawling process by starting from the root URL.
    *
@@ -131,63 +250,559 @@ public final class JWeaverTask {
    * child links by invoking {@link #travelLinks()}. If the root page is an error result page, it
    * logs an error message and throws an {@link IllegalStateException}.
    *
-   * <p>It then generates the output file for connection maps and errors using the writer.
+   * <p>It then generates the output file for connection maps and errors using the writer, and logs
+   * the statistics of the visited set. The frontier is closed once the crawl is over, whether it
+   * succeeded or not.
+   *
+   * <p>When the crawl budget runs out, no new request is sent and the crawl stops once the requests
+   * in flight have completed. The connection map and errors gathered so far are written as usual,
+   * preceded by the links left in the frontier if the budget persists them.
+   *
+   * <p>The progress of the task is recorded in its journal. When the task resumes from a journal
+   * in which the root page was crawled, the root page is not fetched again: the crawl continues
+   * with the links which were enqueued but not crawled, and the connections and errors recorded
+   * before are written along with the new ones.
    */
   void start() {
+    try {
+      if (openCrawl()) {
+        travelLinks();
+      }
+      finishCrawl();
+    } finally {
+      closeCrawl();
+    }
+  }
+
+  /**
+   * Opens the crawl: the budget clock starts, and the root page is crawled, or the state of the
+   * journal is recovered when resuming. The links found are enqueued but not crawled.
+   *
+   * @return {@code true} if the crawl can proceed, or {@code false} if the budget was exhausted
+   *     before the root page.
+   * @throws IllegalStateException If the root page cannot be fetched.
+   */
+  boolean openCrawl() {
+    if (!startCrawl()) {
+      return false;
+    }
+    var rootLink = new PageLink(baseUri, 0);
+    while (!rootCrawled) {
+      // the request of a throttled root page waits for the pause of the host
+      processRoot(crawl(rootLink));
+    }
+    return true;
+  }
+
+  /**
+   * Starts the crawl without sending any request: the budget clock starts, and the state of the
+   * journal is recovered when resuming, in which case the root page is not crawled again. A page of
+   * the budget is reserved for the root page only when it is fetched.
+   *
+   * @return {@code true} if the crawl can proceed, or {@code false} if the budget was exhausted
+   *     before the root page.
+   */
+  boolean startCrawl() {
     log.info("Starting execution for URI {}", baseUri);
-    var rootPage = crawl(new PageLink(baseUri, 0));
-    visitedUris.add(baseUri);
+    budget.start();
+    var recovered = journal.open();
+    if (recovered.isCrawled(baseUri)) {
+      resume(recovered);
+      rootCrawled = true;
+      return true;
+    }
+    if (!budget.tryAcquirePage()) {
+      log.warn("Crawl budget exhausted before URI {}", baseUri);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Crawls the root page on the calling thread if the host allows a request right away. Unlike
+   * {@link #openCrawl()}, the method never waits for the host: a throttled root page pauses the
+   * host and is crawled again by a later call.
+   *
+   * @return {@link Step#CRAWLED} once the root page is crawled, or {@link Step#BLOCKED} if the host
+   *     does not allow a request yet.
+   * @throws IllegalStateException If the root page cannot be fetched.
+   */
+  Step tryCrawlRoot() {
+    if (rootCrawled) {
+      return Step.CRAWLED;
+    }
+    var reservation = tryReserve();
+    if (reservation == null) {
+      return Step.BLOCKED;
+    }
+    processRoot(crawl(new PageLink(baseUri, 0), reservation));
+    return rootCrawled ? Step.CRAWLED : Step.BLOCKED;
+  }
+
+  /**
+   * Finishes the crawl once no link is being crawled anymore. The links left pending when the
+   * budget ran out are handed to {@link #stopOnBudget()}, then the connection map and errors are
+   * written.
+   */
+  void finishCrawl() {
+    if (pendingLinks.get() > 0) {
+      // the links waiting for a retry are left too
+      frontier.addAll(retryQueue.stream().map(RetryLink::link).toList());
+      retryQueue.clear();
+      stopOnBudget();
+    }
+    writer.processConnectionMap(baseUri, connections, this.exportConfiguration);
+    writer.processErrors(baseUri, nodeErrorList, exportConfiguration);
+  }
+
+  /**
+   * Closes the frontier and the journal of the task, and logs the statistics of the crawl. The
+   * journal is closed once the pages submitted to the page writer have been written, so that they
+   * can be recorded as crawled.
+   */
+  void closeCrawl() {
+    try (frontier;
+        journal) {
+      awaitPendingWrites();
+      log.info(
+          "Seen set of URI {}: {}, duplicate links suppressed: {}",
+          baseUri,
+          seenUris.stats(),
+          duplicateLinks.sum());
+      var suppressedPatterns = trapDetector.suppressedPatterns();
+      if (!suppressedPatterns.isEmpty()) {
+        log.info("Crawl trap patterns suppressed for URI {}: {}", baseUri, suppressedPatterns);
+      }
+      aimdController
+          .limits(host)
+          .ifPresent(limits -> log.info("Adaptive limits for URI {}: {}", baseUri, limits));
+      var limiterStats = requestLimiter.stats(host);
+      if (limiterStats.queued() > 0) {
+        log.info("Request limiter waits for URI {}: {}", baseUri, limiterStats);
+      }
+    }
+  }
+
+  /**
+   * Processes the root page. A throttled root page pauses the requests to the host for its backoff
+   * and leaves the root page to be crawled again, until its retries are exhausted.
+   *
+   * @param rootPage The crawled root page.
+   * @throws IllegalStateException If the root page cannot be fetched.
+   */
+  private void processRoot(ResultPage rootPage) {
+    if (rootPage instanceof ThrottledResultPage throttled
+        && ++rootRetries <= throttleConfig.maxRetries()) {
+      var backoff = throttleConfig.backoff(throttled.retryAfter(), rootRetries);
+      log.warn("Base URL [{}] responds with {}, retry in {}", baseUri, rootPage.content(), backoff);
+      politenessScheduler.pause(host, backoff);
+      return;
+    }
+    seenUris.add(canonicalizer.canonicalize(baseUri));
     if (rootPage instanceof SuccessResultPage successResultPage) {
-      pageLinkQueue.addAll(successResultPage.linkSet());
+      enqueue(successResultPage.linkSet());
+      journal.crawled(baseUri, 0, successResultPage.linkSet());
+      frontier.recordCrawl(successResultPage.uri(), successResultPage.linkSet());
       successResultPage
           .linkSet()
           .forEach(p -> connections.add(new Connection(this.baseUri, p.url(), 0)));
-      travelLinks();
+      rootCrawled = true;
     } else if (rootPage instanceof ErrorResultPage errorResultPage) {
       log.error("Base URL [{}] responds with {}", errorResultPage.uri(), errorResultPage.content());
       throw new IllegalStateException("Unable to fetch ResultPage for root URL");
+    } else if (rootPage instanceof ThrottledResultPage throttled) {
+      log.error("Base URL [{}] still responds with {}", throttled.uri(), throttled.content());
+      throw new IllegalStateException("Unable to fetch ResultPage for root URL");
+    }
+  }
+
+  /**
+   * Resumes the crawl from the state recovered from the journal. Every recovered link is marked as
+   * seen, and the links which were not crawled are put back into the frontier.
+   *
+   * @param recovered The state recovered from the journal.
+   */
+  void resume(JournalState recovered) {
+    seenUris.add(canonicalizer.canonicalize(baseUri));
+    var pending = new ArrayList<PageLink>();
+    for (var link : recovered.enqueued()) {
+      seenUris.add(canonicalizer.canonicalize(link.url()));
+      if (!recovered.isCrawled(link.url())) {
+        pending.add(link);
+      }
+    }
+    connections.addAll(recovered.connections());
+    nodeErrorList.addAll(recovered.errors());
+    log.info(
+        "Resuming URI {} with {} pages crawled and {} links pending",
+        baseUri,
+        recovered.crawled().size(),
+        pending.size());
+    pendingLinks.addAndGet(pending.size());
+    frontier.addAll(pending);
+  }
+
+  private void stopOnBudget() {
+    log.info(
+        "Crawl budget exhausted for URI {} after {} pages and {} bytes, {} links left",
+        baseUri,
+        budget.pages(),
+        budget.bytes(),
+        frontier.size());
+    if (budget.persistFrontier()) {
+      var links = new ArrayList<PageLink>();
+      PageLink link;
+      while ((link = frontier.poll()) != null) {
+        links.add(link);
+      }
+      writer.processFrontier(baseUri, links, this.exportConfiguration);
     }
-    writer.processConnectionMap(baseUri, connections, this.exportConfiguration);
-    writer.processErrors(baseUri, nodeErrorList, exportConfiguration);
   }
 
   /**
    * Travels through the links in the page link queue, crawling each link and processing the
    * resulting pages.
    *
-   * <p>This method iterates through the page link queue, polling each link and crawling it if it
-   * has not been visited before and its depth does not exceed the maximum depth limit. After
-   * crawling each link, it processes the resulting page by invoking {@link
-   * #processSuccessPage(SuccessResultPage)} if the page is a success result page, or {@link
-   * #processFailurePage(ErrorResultPage)} if the page is an error result page.
+   * <p>In {@link FetchMode#BLOCKING} mode the queue is drained by {@code maxConcurrentRequests}
+   * workers. With a single worker the links are crawled on the calling thread, otherwise a virtual
+   * thread is started for each worker and this method returns once all of them have finished. The
+   * requests of all workers are spaced by the politeness scheduler.
+   *
+   * <p>In {@link FetchMode#ASYNC} mode the links are dispatched by {@link #travelLinksAsync()}.
    */
   void travelLinks() {
-    while (!pageLinkQueue.isEmpty()) {
-      PageLink nextLink = pageLinkQueue.poll();
-      if (visitedUris.contains(nextLink.url()) || (nextLink.depth() > this.maxDepth)) {
+    if (this.fetchMode == FetchMode.ASYNC) {
+      travelLinksAsync();
+      return;
+    }
+    if (this.maxConcurrentRequests <= 1) {
+      drainQueue();
+      return;
+    }
+    var workers = new ArrayList<Thread>();
+    for (int i = 0; i < this.maxConcurrentRequests; i++) {
+      workers.add(
+          Thread.ofVirtual()
+              .name(Constants.FETCHER_THREAD_NAME + getId() + "-" + i)
+              .start(this::drainQueue));
+    }
+    try {
+      for (var worker : workers) worker.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      log.error("Crawling interrupted for URI {}", baseUri, e);
+      throw new JWeaverExecutionException("Thread execution interrupted");
+    }
+  }
+
+  /**
+   * Polls links from the page link queue until every enqueued link has been processed.
+   *
+   * <p>An empty queue does not mean the crawl is over, as other workers may still add the child
+   * links of the pages they are crawling. The worker only returns once no link is pending, or once
+   * the crawl budget is exhausted, in which case the link it polled is put back.
+   */
+  void drainQueue() {
+    Step step;
+    while ((step = crawlNext()) != Step.DONE) {
+      if (step == Step.WAITING) {
+        LockSupport.parkNanos(IDLE_WAIT_NANOS);
+      }
+    }
+  }
+
+  /**
+   * Crawls the next link of the page link queue on the calling thread, waiting for the host to
+   * allow the request. This is the unit of work of the blocking workers of the task.
+   *
+   * @return {@link Step#CRAWLED} if a link was crawled, {@link Step#WAITING} if the queue is empty
+   *     while other links are being crawled, or {@link Step#DONE} if no link is pending or the
+   *     crawl budget is exhausted, in which case a polled link is put back.
+   */
+  Step crawlNext() {
+    if (pendingLinks.get() <= 0 || budget.exhausted()) {
+      return Step.DONE;
+    }
+    releaseRetries();
+    PageLink nextLink = frontier.poll();
+    if (nextLink == null) {
+      return Step.WAITING;
+    }
+    if (!tryAcquirePage(nextLink)) {
+      frontier.requeue(nextLink);
+      return Step.DONE;
+    }
+    try {
+      visit(nextLink);
+    } finally {
+      pendingLinks.decrementAndGet();
+    }
+    return Step.CRAWLED;
+  }
+
+  /**
+   * Crawls the next link of the page link queue on the calling thread if the host allows a request
+   * right away. Unlike {@link #crawlNext()}, the method never waits for the politeness scheduler,
+   * the adaptive controller or the request limiter: the polled link is put back if one of them
+   * refuses the request, so that the {@link HostScheduler} can use its worker for another host.
+   *
+   * @return {@link Step#CRAWLED} if a link was crawled, {@link Step#BLOCKED} if the host does not
+   *     allow a request yet, {@link Step#WAITING} if the queue is empty while other links are being
+   *     crawled, or {@link Step#DONE} if no link is pending or the crawl budget is exhausted.
+   */
+  Step tryCrawlNext() {
+    if (pendingLinks.get() <= 0 || budget.exhausted()) {
+      return Step.DONE;
+    }
+    releaseRetries();
+    PageLink nextLink = frontier.poll();
+    if (nextLink == null) {
+      return Step.WAITING;
+    }
+    var reservation = tryReserve();
+    if (reservation == null) {
+      frontier.requeue(nextLink);
+      return Step.BLOCKED;
+    }
+    if (!tryAcquirePage(nextLink)) {
+      reservation.cancel();
+      frontier.requeue(nextLink);
+      return Step.DONE;
+    }
+    try {
+      processPage(crawl(nextLink, reservation));
+    } finally {
+      pendingLinks.decrementAndGet();
+    }
+    return Step.CRAWLED;
+  }
+
+  /**
+   * Returns how long a request to the host would have to wait for the politeness scheduler and the
+   * adaptive controller. A request refused by the request limiter only waits for a response.
+   *
+   * @return The number of nanoseconds before a request to the host is allowed.
+   */
+  long nanosUntilAllowed() {
+    return Math.max(
+        politenessScheduler.nanosUntilAllowed(host), aimdController.nanosUntilAllowed(host));
+  }
+
+  /**
+   * Reserves a request to the host without waiting. The permit of the request limiter is taken
+   * first, then the slot of the adaptive controller and the slot of the politeness scheduler, which
+   * cannot be given back; what was taken is released if a later one is refused.
+   *
+   * @return The reservation of the request, or {@code null} if the host does not allow a request
+   *     yet.
+   */
+  private Reservation tryReserve() {
+    var permit = requestLimiter.tryAcquire(host);
+    if (permit == null) {
+      return null;
+    }
+    var sample = aimdController.tryAcquire(host);
+    if (sample == null) {
+      permit.close();
+      return null;
+    }
+    if (!politenessScheduler.tryAcquire(host)) {
+      sample.cancel();
+      permit.close();
+      return null;
+    }
+    return new Reservation(permit, sample);
+  }
+
+  /**
+   * Dispatches the links of the page link queue as asynchronous requests, keeping up to {@code
+   * maxConcurrentRequests} of them in flight. Parsing and link expansion run in the completion
+   * stages of each request, so the calling thread only polls the queue and sends requests.
+   *
+   * <p>Requests are dispatched once the politeness scheduler, the adaptive controller of the host
+   * and the request limiter allow them, which gives the host the same request rate as the blocking
+   * workers. The controller is waited for before the limiter, so that a request waiting for its
+   * host never holds a permit of the limiter. The permit of the limiter and the slot of the
+   * controller are released as soon as the response has been received, or as soon as the request
+   * fails to be sent, in which case the link is reported as an error. Once the crawl budget is
+   * exhausted, no request is dispatched anymore and the method returns when the requests in flight
+   * have completed.
+   */
+  void travelLinksAsync() {
+    var permits = new Semaphore(this.maxConcurrentRequests);
+    try {
+      while (pendingLinks.get() > 0 && !budget.exhausted()) {
+        releaseRetries();
+        PageLink nextLink = frontier.poll();
+        if (nextLink == null) {
+          LockSupport.parkNanos(IDLE_WAIT_NANOS);
+          continue;
+        }
+        if (!tryAcquirePage(nextLink)) {
+          frontier.requeue(nextLink);
+          break;
+        }
+        permits.acquire();
+        politenessScheduler.acquire(host);
+        var sample = aimdController.acquire(host);
+        var permit = acquirePermit(sample);
+        crawlAsync(nextLink, permit, sample)
+            .thenAccept(this::processPage)
+            .whenComplete(
+                (ignored, ex) -> {
+                  if (ex != null) {
+                    log.error("Unable to process page {}", nextLink.url(), ex);
+                  }
+                  pendingLinks.decrementAndGet();
+                  permits.release();
+                });
+      }
+      // drain the requests in flight
+      permits.acquire(this.maxConcurrentRequests);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      log.error("Crawling interrupted for URI {}", baseUri, e);
+      throw new JWeaverExecutionException("Thread execution interrupted");
+    }
+  }
+
+  /**
+   * Crawls a single link and processes the resulting page.
+   *
+   * @param nextLink The link to crawl.
+   */
+  void visit(PageLink nextLink) {
+    processPage(crawl(nextLink));
+  }
+
+  /**
+   * Processes the page returned by a crawl by invoking {@link
+   * #processSuccessPage(SuccessResultPage)} if the page is a success result page, {@link
+   * #processFailurePage(ErrorResultPage)} if the page is an error result page, or {@link
+   * #processThrottledPage(ThrottledResultPage)} if the server refused the request for now.
+   *
+   * @param page The crawled page.
+   */
+  void processPage(ResultPage page) {
+    if (!(page instanceof ThrottledResultPage)) {
+      retryAttempts.remove(page.uri());
+    }
+    // change to switch pattern matching when sonarqube update the profile
+    // to support missing default case for sealed interfaces
+    if (page instanceof SuccessResultPage successResultPage) {
+      processSuccessPage(successResultPage);
+    } else if (page instanceof ErrorResultPage errorResultPage) {
+      processFailurePage(errorResultPage);
+    } else if (page instanceof ThrottledResultPage throttledResultPage) {
+      processThrottledPage(throttledResultPage);
+    }
+  }
+
+  /**
+   * Processes a page refused by a throttling response. The requests to the host are paused for the
+   * delay of the {@code Retry-After} header, or for the backoff of the attempt, and the page is
+   * crawled again once the delay has elapsed. The page stays pending meanwhile, and is reported as
+   * an error once its retries are exhausted. The retries are not charged to the page budget, but a
+   * retry still waiting when the budget runs out is left in the frontier with the other links.
+   *
+   * @param page The throttled page.
+   */
+  void processThrottledPage(ThrottledResultPage page) {
+    int attempt = retryAttempts.merge(page.uri(), 1, Integer::sum);
+    if (attempt > throttleConfig.maxRetries()) {
+      retryAttempts.remove(page.uri());
+      var message = page.content() + " after " + throttleConfig.maxRetries() + " retries";
+      processFailurePage(new ErrorResultPage(page.uri(), page.depth(), message));
+      return;
+    }
+    var backoff = throttleConfig.backoff(page.retryAfter(), attempt);
+    log.debug("{} responds with {}, retry {} in {}", page.uri(), page.content(), attempt, backoff);
+    politenessScheduler.pause(host, backoff);
+    pendingLinks.incrementAndGet();
+    retryQueue.add(new RetryLink(page.link(), System.nanoTime() + backoff.toNanos()));
+  }
+
+  /**
+   * Charges the crawl budget for the page of a link. A link crawled again after a throttling
+   * response was charged on its first attempt, so its retries do not count as new pages.
+   *
+   * @param link The link about to be crawled.
+   * @return {@code true} if the page can be crawled, or {@code false} if the budget is exhausted.
+   */
+  private boolean tryAcquirePage(PageLink link) {
+    return retryAttempts.containsKey(link.url()) || budget.tryAcquirePage();
+  }
+
+  /** Moves the links whose retry delay has elapsed back into the page link queue. */
+  private void releaseRetries() {
+    RetryLink retry;
+    while ((retry = retryQueue.poll()) != null) {
+      frontier.addAll(List.of(retry.link()));
+    }
+  }
+
+  /**
+   * Adds links to the page link queue. Each URL enters the queue only once over the whole crawl:
+   * links whose canonical form was already seen are counted as duplicates and dropped, as are
+   * links deeper than the maximum depth. The seen set is therefore what keeps a page from being
+   * crawled twice. New links are then checked by the trap detector, which drops the links of crawl
+   * traps.
+   *
+   * <p>The pending counter is increased before the links become visible to the workers, so it never
+   * drops to zero while there is work left. The new links are recorded in the journal before they
+   * enter the frontier.
+   *
+   * @param links The links to enqueue.
+   */
+  void enqueue(Collection<PageLink> links) {
+    var newLinks = new ArrayList<PageLink>(links.size());
+    for (var link : links) {
+      if (link.depth() > this.maxDepth) {
         continue;
       }
-      var page = crawl(nextLink);
-      visitedUris.add(nextLink.url());
-      // change to switch pattern matching when sonarqube update the profile
-      // to support missing default case for sealed interfaces
-      if (page instanceof SuccessResultPage successResultPage) {
-        processSuccessPage(successResultPage);
-      } else if (page instanceof ErrorResultPage errorResultPage) {
-        processFailurePage(errorResultPage);
+      var key = canonicalizer.canonicalize(link.url());
+      if (seenUris.add(key)) {
+        if (trapDetector.allow(key)) {
+          newLinks.add(link);
+        }
+      } else {
+        duplicateLinks.increment();
       }
     }
+    journal.enqueued(newLinks);
+    pendingLinks.addAndGet(newLinks.size());
+    frontier.addAll(newLinks);
+  }
+
+  /**
+   * Returns the number of links dropped by {@link #enqueue(Collection)} because their URL had
+   * already been seen.
+   *
+   * @return The number of duplicate links suppressed.
+   */
+  long getDuplicateLinks() {
+    return duplicateLinks.sum();
   }
 
   /**
-   * Processes a successfully crawled page.
+   * Processes a successfully crawled page. Its links are enqueued and reported to the frontier, so
+   * that a best-first frontier can rescore them. The page is written unless the task runs in {@link
+   * CrawlMode#DISCOVERY} mode.
+   *
+   * <p>The page is recorded as crawled in the journal once it has been written, so that a page
+   * whose output was lost is fetched again when the crawl resumes.
    *
    * @param page The successfully crawled page.
    */
   void processSuccessPage(SuccessResultPage page) {
-    pageLinkQueue.addAll(page.linkSet());
+    enqueue(page.linkSet());
+    frontier.recordCrawl(page.uri(), page.linkSet());
     page.linkSet().forEach(p -> connections.add(new Connection(page.uri(), p.url(), page.depth())));
-    writeOutput(page);
+    if (this.crawlMode == CrawlMode.DISCOVERY) {
+      journal.crawled(page.uri(), page.depth(), page.linkSet());
+    } else {
+      writeOutput(page);
+    }
   }
 
   /**
@@ -196,49 +811,71 @@ public final class JWeaverTask {
    * @param errorResultPage The error result page containing information about the failure.
    */
   void processFailurePage(ErrorResultPage errorResultPage) {
+    frontier.recordCrawl(errorResultPage.uri(), List.of());
+    journal.failed(errorResultPage.uri(), errorResultPage.depth(), errorResultPage.content());
     NodeError nodeError =
         new NodeError(errorResultPage.uri(), errorResultPage.depth(), errorResultPage.content());
     nodeErrorList.add(nodeError);
   }
 
   /**
-   * Writes the output for a successfully crawled page.
+   * Submits a successfully crawled page to the page writer. The call blocks while the write queue
+   * is full. The page is recorded as crawled in the journal once the writer has written it.
    *
    * @param successResultPage The successfully crawled page.
    */
   void writeOutput(SuccessResultPage successResultPage) {
-    Thread.ofVirtual()
-        .name(Constants.WRITER_THREAD_NAME + getId())
-        .start(() -> writer.processSuccess(successResultPage, this.exportConfiguration));
+    var journaled =
+        pageWriter
+            .submit(successResultPage, this.exportConfiguration)
+            .thenRun(
+                () ->
+                    journal.crawled(
+                        successResultPage.uri(),
+                        successResultPage.depth(),
+                        successResultPage.linkSet()));
+    pendingWrites.add(journaled);
+    journaled.whenComplete((ignored, ex) -> pendingWrites.remove(journaled));
+  }
+
+  /** Waits for the pages submitted to the page writer to be written and journaled. */
+  private void awaitPendingWrites() {
+    CompletableFuture.allOf(pendingWrites.toArray(CompletableFuture[]::new))
+        .exceptionally(ex -> null)
+        .join();
   }
 
   /**
-   * Determines whether to skip crawling a URL based on certain conditions.
+   * Determines whether to skip crawling a URL, which is the case for external, malformed or
+   * ignored URLs, and for URLs rejected by the include and exclude rules.
    *
-   * @param baseUri The base URI of the task.
    * @param childUri The URI to be checked.
    * @return {@code true} if the URL should be skipped, otherwise {@code false}.
+   * @see UrlFilter
    */
-  boolean skipUrl(String baseUri, String childUri) {
-    return (!URIHelper.isAllowedUrl(childUri)
-        || !URIHelper.isValidUri(childUri)
-        || URIHelper.isExternalUri(baseUri, childUri));
+  boolean skipUrl(String childUri) {
+    return !urlFilter.accept(childUri);
   }
 
   /**
-   * Adds child links to the set of links to be crawled.
+   * Adds child links to the set of links to be crawled. The canonical form of each link is what is
+   * filtered, and the spellings of a page sharing a canonical form collapse into a single link. The
+   * link keeps the URL it was written with, which is the URL fetched and the base URI of its own
+   * relative links: the canonical form is only a key, as a server may answer {@code /docs} and
+   * {@code /docs/} differently.
    *
    * @param linkUriSet The set of child link URIs.
    * @param pageLink The parent page link.
    * @return The set of child page links.
    */
   Set<PageLink> addChildLinks(Set<String> linkUriSet, PageLink pageLink) {
-    Set<String> filteredUris = new HashSet<>();
-    for (var childUri : linkUriSet) {
-      if (skipUrl(this.baseUri, childUri)) continue;
-      filteredUris.add(childUri);
+    Map<String, String> filteredUris = new HashMap<>();
+    for (var link : linkUriSet) {
+      var key = canonicalizer.canonicalize(link);
+      if (skipUrl(key)) continue;
+      filteredUris.putIfAbsent(key, link);
     }
-    return filteredUris.stream()
+    return filteredUris.values().stream()
         .map(p -> new PageLink(p, pageLink.depth() + 1))
         .collect(Collectors.toUnmodifiableSet());
   }
@@ -251,19 +888,97 @@ public final class JWeaverTask {
    */
   ResultPage crawl(PageLink link) {
     try {
-      ResponseData<String> responseData = get(link);
-      if (responseData.isSuccess()) {
-        return createFromHtmlBody(responseData.body(), link);
-      } else {
-        return ErrorResultPage.create(link, responseData.body());
-      }
-    } catch (InterruptedException ex) {
-      Thread.currentThread().interrupt();
-      return ErrorResultPage.create(link, ex.getLocalizedMessage());
+      return toResultPage(get(link), link);
+    } catch (Exception ex) {
+      return toErrorPage(link, ex);
+    }
+  }
+
+  /**
+   * Crawls a page with a request reserved beforehand, without waiting for the host.
+   *
+   * @param link The link representing the page to be crawled.
+   * @param reservation The reservation of the request.
+   * @return The result page obtained from crawling the specified page.
+   */
+  private ResultPage crawl(PageLink link, Reservation reservation) {
+    try {
+      return toResultPage(send(link, reservation.permit(), reservation.sample()), link);
     } catch (Exception ex) {
+      return toErrorPage(link, ex);
+    }
+  }
+
+  private ResultPage toErrorPage(PageLink link, Exception ex) {
+    if (ex instanceof InterruptedException) {
+      Thread.currentThread().interrupt();
+    } else {
       maybeThrow(link, ex);
-      return ErrorResultPage.create(link, ex.getLocalizedMessage());
     }
+    return ErrorResultPage.create(link, ex.getLocalizedMessage());
+  }
+
+  /**
+   * Crawls a page asynchronously. The response is parsed in a completion stage once it arrives, and
+   * any failure is turned into an error result page. A request which cannot be sent, for instance
+   * because its URI is invalid or the client rejects it, releases its permit and slot right away
+   * and completes with an error result page as well.
+   *
+   * @param link The link representing the page to be crawled.
+   * @param permit The permit of the request limiter, released once the response is received.
+   * @param sample The slot of the adaptive controller, released once the response is received.
+   * @return A future completed with the result page of the specified page.
+   */
+  CompletableFuture<ResultPage> crawlAsync(
+      PageLink link, RequestLimiter.Permit permit, AimdController.Sample sample) {
+    log.trace("Crawling {} with depth {}", link.url(), link.depth());
+    CompletableFuture<HttpResponse<String>> sent;
+    try {
+      sample.start();
+      sent = httpClient.sendAsync(createRequest(link), this.bodyHandler);
+    } catch (RuntimeException ex) {
+      sample.cancel();
+      permit.close();
+      return CompletableFuture.completedFuture(
+          ErrorResultPage.create(link, ex.getLocalizedMessage()));
+    }
+    return sent
+        .whenComplete(
+            (response, ex) -> {
+              permit.close();
+              if (response != null) {
+                sample.complete(response.statusCode());
+              }
+              sample.close();
+            })
+        .thenApply(this::toResponseData)
+        .thenApply(responseData -> toResultPage(responseData, link))
+        .exceptionally(ex -> ErrorResultPage.create(link, unwrap(ex).getLocalizedMessage()));
+  }
+
+  /**
+   * Creates the result page of a response, parsing the body if the request succeeded.
+   *
+   * @param responseData The response data of the page.
+   * @param link The link representing the page.
+   * @return A success result page, a throttled result page if the server refused the request for
+   *     now, or an error result page if the request failed.
+   */
+  ResultPage toResultPage(ResponseData<String> responseData, PageLink link) {
+    if (responseData.isSuccess()) {
+      return createFromHtmlBody(responseData.body(), link);
+    } else if (responseData.isThrottled()) {
+      return ThrottledResultPage.create(link, responseData);
+    } else {
+      return ErrorResultPage.create(link, responseData.body());
+    }
+  }
+
+  private static Throwable unwrap(Throwable ex) {
+    if (ex instanceof CompletionException && ex.getCause() != null) {
+      return ex.getCause();
+    }
+    return ex;
   }
 
   /**
@@ -282,7 +997,10 @@ public final class JWeaverTask {
   }
 
   /**
-   * Sends an HTTP GET request to the specified link and retrieves the response.
+   * Sends an HTTP GET request to the specified link and retrieves the response. The request holds
+   * a slot of the adaptive controller and a permit of the request limiter while it is in flight,
+   * and reports its latency and status code to the controller. The slot is taken first, so that
+   * the request never holds a permit of the limiter while its host makes it wait.
    *
    * @param link The link to send the request to.
    * @return The response data containing the status code and body of the response.
@@ -290,17 +1008,88 @@ public final class JWeaverTask {
    * @throws InterruptedException If the operation is interrupted.
    */
   ResponseData<String> get(PageLink link) throws IOException, InterruptedException {
-    Thread.sleep(this.politenessDelay);
+    politenessScheduler.acquire(host);
+    var sample = aimdController.acquire(host);
+    return send(link, acquirePermit(sample), sample);
+  }
+
+  /**
+   * Sends an HTTP GET request holding the specified permit and slot, and releases both once the
+   * response has been received.
+   *
+   * @param link The link to send the request to.
+   * @param permit The permit of the request limiter.
+   * @param sample The slot of the adaptive controller.
+   * @return The response data containing the status code and body of the response.
+   * @throws IOException If an I/O error occurs.
+   * @throws InterruptedException If the operation is interrupted.
+   */
+  private ResponseData<String> send(
+      PageLink link, RequestLimiter.Permit permit, AimdController.Sample sample)
+      throws IOException, InterruptedException {
     log.trace("Crawling {} with depth {}", link.url(), link.depth());
-    var httpRequest =
-        HttpRequest.newBuilder(URI.create(link.url()))
-            .GET()
-            .timeout(httpClient.connectTimeout().orElse(Duration.ofSeconds(1)))
-            .build();
-    var response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString());
-    var headers = response.headers().map();
-    if (allowedContentType(headers)) {
-      return new ResponseData<>(response.statusCode(), response.body());
+    HttpResponse<String> response;
+    try (sample;
+        permit) {
+      sample.start();
+      response = httpClient.send(createRequest(link), this.bodyHandler);
+      sample.complete(response.statusCode());
+    }
+    return toResponseData(response);
+  }
+
+  /**
+   * Takes the permit of the request limiter for a request holding a slot of the adaptive
+   * controller. The slot is released if the thread is interrupted while waiting for the permit.
+   *
+   * @param sample The slot of the request.
+   * @return The permit of the request.
+   * @throws InterruptedException If the thread is interrupted while waiting.
+   */
+  private RequestLimiter.Permit acquirePermit(AimdController.Sample sample)
+      throws InterruptedException {
+    try {
+      return requestLimiter.acquire(host);
+    } catch (InterruptedException e) {
+      sample.cancel();
+      throw e;
+    }
+  }
+
+  /**
+   * Creates the HTTP GET request for the specified link.
+   *
+   * @param link The link to send the request to.
+   * @return The HTTP request.
+   */
+  HttpRequest createRequest(PageLink link) {
+    return HttpRequest.newBuilder(URI.create(link.url()))
+        .GET()
+        .timeout(httpClient.connectTimeout().orElse(Duration.ofSeconds(1)))
+        .build();
+  }
+
+  /**
+   * Converts an HTTP response to response data if its content type is allowed. The bytes of the
+   * body were already charged to the crawl budget as they were received. Throttling responses are
+   * converted whatever their content type, along with the delay of their {@code Retry-After}
+   * header.
+   *
+   * @param response The HTTP response.
+   * @return The response data containing the status code and body of the response.
+   * @throws IllegalArgumentException If the content type of the response is not allowed.
+   */
+  ResponseData<String> toResponseData(HttpResponse<String> response) {
+    var body = response.body();
+    var retryAfter =
+        response
+            .headers()
+            .firstValue(RetryAfter.HEADER)
+            .flatMap(value -> RetryAfter.parse(value, Instant.now()))
+            .orElse(null);
+    var responseData = new ResponseData<>(response.statusCode(), body, retryAfter);
+    if (responseData.isThrottled() || allowedContentType(response.headers().map())) {
+      return responseData;
     } else {
       throw new IllegalArgumentException("Content-Type not allowed");
     }
@@ -329,17 +1118,65 @@ public final class JWeaverTask {
   }
 
   /**
-   * Creates a success result page from the HTML body of a crawled page.
+   * Creates a success result page from the HTML body of a crawled page. In {@link
+   * CrawlMode#DISCOVERY} mode only the title and links are parsed and the content is left empty.
    *
    * @param htmlBody The HTML body of the crawled page.
    * @param pageLink The link representing the crawled page.
    * @return The success result page created from the HTML body.
    */
   SuccessResultPage createFromHtmlBody(String htmlBody, PageLink pageLink) {
-    var content = parser.parseBody(htmlBody, pageLink.url());
-    Set<String> linkUriSet = parser.parseLinks(htmlBody, pageLink.url());
-    var childLinks = addChildLinks(linkUriSet, pageLink);
-    var title = parser.parseTitle(htmlBody, pageLink.url());
-    return SuccessResultPage.create(pageLink, title, content, childLinks);
+    var parsedPage =
+        this.crawlMode == CrawlMode.DISCOVERY
+            ? parser.parseOutline(htmlBody, pageLink.url())
+            : parser.parse(htmlBody, pageLink.url());
+    var childLinks = addChildLinks(parsedPage.links(), pageLink);
+    return SuccessResultPage.create(pageLink, parsedPage.title(), parsedPage.body(), childLinks);
+  }
+
+  /** The outcome of {@link #crawlNext()}. */
+  enum Step {
+    /** A link was crawled. */
+    CRAWLED,
+    /** The page link queue is empty while other links are being crawled. */
+    WAITING,
+    /** No link is pending, or the crawl budget is exhausted. */
+    DONE,
+    /** The host does not allow a request yet; the link was put back. */
+    BLOCKED
+  }
+
+  /**
+   * A request reserved without waiting for the host.
+   *
+   * @param permit The permit of the request limiter.
+   * @param sample The slot of the adaptive controller.
+   */
+  private record Reservation(RequestLimiter.Permit permit, AimdController.Sample sample) {
+
+    /** Releases the permit and the slot of a request which is not sent. */
+    void cancel() {
+      sample.cancel();
+      permit.close();
+    }
+  }
+
+  /**
+   * A link waiting for its retry.
+   *
+   * @param link The link to crawl again.
+   * @param readyAt The {@link System#nanoTime()} from which the link can be crawled again.
+   */
+  private record RetryLink(PageLink link, long readyAt) implements Delayed {
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+      return unit.convert(readyAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+      return Long.compare(readyAt, ((RetryLink) other).readyAt);
+    }
   }
 }
@@ -21,30 +21,66 @@ import java.util.ArrayList;
 import java.util.List;
 import org.jweaver.crawler.internal.exception.JWeaverExecutionException;
 import org.jweaver.crawler.internal.util.Constants;
+import org.jweaver.crawler.internal.write.AsyncPageWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * A concrete implementation of the {@link TaskExecutor} interface responsible for executing tasks.
+ * Both execution modes return once the pages written in the background have been flushed and the
+ * workers of the page writer have stopped, whether the tasks succeeded or not. When a
+ * {@link HostScheduler} is set, the parallel mode crawls all tasks on its shared workers instead of
+ * a thread per task.
  */
 public class TaskExecutorImpl implements TaskExecutor {
 
   private static final Logger log = LoggerFactory.getLogger(TaskExecutorImpl.class);
+  private final AsyncPageWriter pageWriter;
+  private final HostScheduler scheduler;
 
   /** Private constructor to prevent instantiation from outside the class. */
-  private TaskExecutorImpl() {}
+  private TaskExecutorImpl(AsyncPageWriter pageWriter, HostScheduler scheduler) {
+    this.pageWriter = pageWriter;
+    this.scheduler = scheduler;
+  }
 
   /**
    * Creates a new instance of TaskExecutorImpl.
    *
+   * @param pageWriter The background writer of the crawled pages.
+   * @return A new TaskExecutorImpl instance.
+   */
+  public static TaskExecutorImpl create(AsyncPageWriter pageWriter) {
+    return new TaskExecutorImpl(pageWriter, null);
+  }
+
+  /**
+   * Creates a new instance of TaskExecutorImpl running the parallel executions on a pool of
+   * workers shared by all tasks.
+   *
+   * @param pageWriter The background writer of the crawled pages.
+   * @param scheduler The scheduler handing the hosts to the shared workers.
    * @return A new TaskExecutorImpl instance.
    */
-  public static TaskExecutorImpl create() {
-    return new TaskExecutorImpl();
+  static TaskExecutorImpl create(AsyncPageWriter pageWriter, HostScheduler scheduler) {
+    return new TaskExecutorImpl(pageWriter, scheduler);
   }
 
   @Override
   public void runParallel(List<JWeaverTask> tasks) {
+    try {
+      if (scheduler != null) {
+        log.info("Initializing scheduled execution for {} tasks", tasks.size());
+        scheduler.run(tasks);
+      } else {
+        runOnThreads(tasks);
+      }
+    } finally {
+      closePageWriter();
+    }
+  }
+
+  private void runOnThreads(List<JWeaverTask> tasks) {
     log.info("Initializing parallel execution for {} tasks", tasks.size());
     var executions = new ArrayList<Thread>();
     for (JWeaverTask execution : tasks) {
@@ -65,8 +101,12 @@ public class TaskExecutorImpl implements TaskExecutor {
   @Override
   public void run(List<JWeaverTask> taskList) {
     log.info("Initializing seq execution for {} tasks", taskList.size());
-    for (JWeaverTask task : taskList) {
-      runSingleTask(task);
+    try {
+      for (JWeaverTask task : taskList) {
+        runSingleTask(task);
+      }
+    } finally {
+      closePageWriter();
     }
   }
 
@@ -76,4 +116,11 @@ public class TaskExecutorImpl implements TaskExecutor {
     long timeTaken = System.currentTimeMillis() - startTime;
     log.debug("Execution with id {} took {} ms", task.getId(), timeTaken);
   }
+
+  /**
+   * Waits until the pages submitted to the page writer have been written, then stops its workers.
+   */
+  void closePageWriter() {
+    pageWriter.close();
+  }
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.url;
+
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * The GlobRule record represents a rule matching the path of the URLs against a glob. It
+ * implements the UrlRule interface.
+ *
+ * @param glob The glob.
+ * @param pattern The regular expression compiled from the glob.
+ */
+public record GlobRule(String glob, Pattern pattern) implements UrlRule {
+
+  /**
+   * Constructs a new GlobRule, compiling the glob.
+   *
+   * @param glob The glob matched against the path.
+   * @throws NullPointerException If the glob is null.
+   */
+  public GlobRule(String glob) {
+    this(glob, compile(Objects.requireNonNull(glob)));
+  }
+
+  @Override
+  public boolean matches(ParsedUrl url) {
+    return pattern.matcher(url.path()).matches();
+  }
+
+  private static Pattern compile(String glob) {
+    var regex = new StringBuilder(glob.length() + 16);
+    int literalStart = 0;
+    for (int i = 0; i < glob.length(); i++) {
+      char c = glob.charAt(i);
+      if (c != '*' && c != '?') {
+        continue;
+      }
+      if (literalStart < i) {
+        regex.append(Pattern.quote(glob.substring(literalStart, i)));
+      }
+      if (c == '?') {
+        regex.append("[^/]");
+      } else if (i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+        regex.append(".*");
+        i++;
+      } else {
+        regex.append("[^/]*");
+      }
+      literalStart = i + 1;
+    }
+    if (literalStart < glob.length()) {
+      regex.append(Pattern.quote(glob.substring(literalStart)));
+    }
+    return Pattern.compile(regex.toString());
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.url;
+
+/**
+ * The ParsedUrl record is a view over the components of an absolute http(s) URL, given as offsets
+ * into the URL string so that parsing a URL does not copy it.
+ *
+ * @param url The URL.
+ * @param hostStart The offset of the first character of the host.
+ * @param hostEnd The offset following the last character of the host.
+ * @param portEnd The offset following the port, which equals {@code hostEnd} if there is no port.
+ * @param pathEnd The offset following the last character of the path.
+ */
+public record ParsedUrl(String url, int hostStart, int hostEnd, int portEnd, int pathEnd) {
+
+  private static final String HTTP_SCHEME = "http://";
+  private static final String HTTPS_SCHEME = "https://";
+
+  /**
+   * Parses an absolute http(s) URL.
+   *
+   * @param url The URL to parse.
+   * @return The parsed URL, or {@code null} if the URL is not an absolute http(s) URL with a host.
+   */
+  public static ParsedUrl parse(String url) {
+    int authorityStart;
+    if (url.regionMatches(true, 0, HTTPS_SCHEME, 0, HTTPS_SCHEME.length())) {
+      authorityStart = HTTPS_SCHEME.length();
+    } else if (url.regionMatches(true, 0, HTTP_SCHEME, 0, HTTP_SCHEME.length())) {
+      authorityStart = HTTP_SCHEME.length();
+    } else {
+      return null;
+    }
+    int length = url.length();
+    int authorityEnd = authorityStart;
+    int hostStart = authorityStart;
+    int portStart = -1;
+    boolean inLiteral = false;
+    for (; authorityEnd < length; authorityEnd++) {
+      char c = url.charAt(authorityEnd);
+      if (c == '/' || c == '?' || c == '#') {
+        break;
+      } else if (c == '@') {
+        hostStart = authorityEnd + 1;
+        portStart = -1;
+      } else if (c == '[') {
+        inLiteral = true;
+      } else if (c == ']') {
+        inLiteral = false;
+      } else if (c == ':' && !inLiteral) {
+        portStart = authorityEnd;
+      }
+    }
+    int hostEnd = portStart < 0 ? authorityEnd : portStart;
+    if (hostEnd == hostStart) {
+      return null;
+    }
+    int pathEnd = authorityEnd;
+    while (pathEnd < length && url.charAt(pathEnd) != '?' && url.charAt(pathEnd) != '#') {
+      pathEnd++;
+    }
+    return new ParsedUrl(url, hostStart, hostEnd, authorityEnd, pathEnd);
+  }
+
+  /**
+   * Returns the offset of the first character of the path, which equals {@code pathEnd} if the
+   * path is empty.
+   *
+   * @return The offset of the path.
+   */
+  public int pathStart() {
+    return portEnd;
+  }
+
+  /**
+   * Returns the path of the URL, or {@code "/"} if the path is empty.
+   *
+   * @return The path.
+   */
+  public String path() {
+    return pathEnd == portEnd ? "/" : url.substring(portEnd, pathEnd);
+  }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.url;
+
+import java.util.Objects;
+
+/**
+ * The PathPrefixRule record represents a rule matching the URLs whose path starts with a prefix. It
+ * implements the UrlRule interface.
+ *
+ * @param prefix The path prefix.
+ */
+public record PathPrefixRule(String prefix) implements UrlRule {
+
+  /**
+   * Constructs a new PathPrefixRule, validating the prefix.
+   *
+   * @throws NullPointerException If the prefix is null.
+   */
+  public PathPrefixRule {
+    Objects.requireNonNull(prefix);
+  }
+
+  @Override
+  public boolean matches(ParsedUrl url) {
+    if (url.pathStart() == url.pathEnd()) {
+      return prefix.isEmpty() || prefix.equals("/");
+    }
+    return url.pathEnd() - url.pathStart() >= prefix.length()
+        && url.url().startsWith(prefix, url.pathStart());
+  }
+}
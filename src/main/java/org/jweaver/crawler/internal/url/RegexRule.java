@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.url;
+
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * The RegexRule record represents a rule matching the URLs containing a match of a regular
+ * expression. It implements the UrlRule interface.
+ *
+ * @param pattern The compiled regular expression.
+ */
+public record RegexRule(Pattern pattern) implements UrlRule {
+
+  /**
+   * Constructs a new RegexRule, validating the pattern.
+   *
+   * @throws NullPointerException If the pattern is null.
+   */
+  public RegexRule {
+    Objects.requireNonNull(pattern);
+  }
+
+  @Override
+  public boolean matches(ParsedUrl url) {
+    return pattern.matcher(url.url()).find();
+  }
+}
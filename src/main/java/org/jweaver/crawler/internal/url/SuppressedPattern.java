@@ -0,0 +1,28 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.url;
+
+/**
+ * The SuppressedPattern record reports the links suppressed by a {@link TrapDetector} for a
+ * pattern.
+ *
+ * @param pattern The pattern of the suppressed URLs, with runs of digits replaced by {@code {n}}.
+ * @param reason The reason why the URLs were suppressed.
+ * @param count The number of URLs suppressed.
+ */
+public record SuppressedPattern(String pattern, TrapReason reason, long count) {}
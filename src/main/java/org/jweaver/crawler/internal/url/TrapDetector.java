@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.url;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The TrapDetector class stops a task from following the endless URL spaces of crawl traps. It is
+ * consulted once for each new URL a task is about to enqueue, and suppresses the URL if any of the
+ * limits of its {@link TrapDetectorConfig} is exceeded.
+ *
+ * <p>To detect near-identical URLs, each URL is reduced to a pattern by replacing its runs of
+ * digits with {@code {n}}, so that {@code /events/2024/05/01?page=3} becomes {@code
+ * /events/{n}/{n}/{n}?page={n}}. The URLs of a pattern are counted, and once the limit of a pattern
+ * is reached its further URLs are suppressed. URLs without digits are not counted.
+ *
+ * <p>The suppressed URLs are reported by pattern. URLs suppressed for their length, segments or
+ * query parameters are reported under their first path segment, since each of them usually has a
+ * pattern of its own. Instances are safe for use by concurrent workers.
+ */
+public final class TrapDetector {
+
+  private static final String NUMBER_PLACEHOLDER = "{n}";
+  private static final String ANY_PATH = "/**";
+  private static final TrapDetector DISABLED = new TrapDetector(null);
+  private final TrapDetectorConfig config;
+  private final Map<String, AtomicInteger> patternCounts = new ConcurrentHashMap<>();
+  private final Map<PatternKey, LongAdder> suppressed = new ConcurrentHashMap<>();
+
+  /**
+   * Constructs a new TrapDetector applying the given limits.
+   *
+   * @param config The limits, or {@code null} to allow every URL.
+   */
+  TrapDetector(TrapDetectorConfig config) {
+    this.config = config;
+  }
+
+  /**
+   * Returns a TrapDetector allowing every URL.
+   *
+   * @return The TrapDetector instance which never suppresses a URL.
+   */
+  public static TrapDetector disabled() {
+    return DISABLED;
+  }
+
+  /**
+   * Checks whether a new URL may be enqueued, counting it against the limit of its pattern.
+   *
+   * @param url The URL to check.
+   * @return {@code true} if the URL may be enqueued, or {@code false} if it is suppressed.
+   */
+  public boolean allow(String url) {
+    if (config == null) {
+      return true;
+    }
+    var parsedUrl = ParsedUrl.parse(url);
+    if (parsedUrl == null) {
+      return true;
+    }
+    TrapReason reason = null;
+    if (url.length() > config.maxUrlLength()) {
+      reason = TrapReason.URL_LENGTH;
+    } else if (queryParameterCount(parsedUrl) > config.maxQueryParameters()) {
+      reason = TrapReason.QUERY_PARAMETERS;
+    } else if (hasRepeatedSegment(parsedUrl)) {
+      reason = TrapReason.REPEATED_SEGMENTS;
+    }
+    if (reason != null) {
+      suppress(pattern(url, parsedUrl.pathStart(), firstSegmentEnd(parsedUrl)) + ANY_PATH, reason);
+      return false;
+    }
+    var pattern = pattern(url, parsedUrl.pathStart(), url.length());
+    if (pattern.contains(NUMBER_PLACEHOLDER)
+        && patternCounts.computeIfAbsent(pattern, k -> new AtomicInteger()).incrementAndGet()
+            > config.maxUrlsPerPattern()) {
+      suppress(pattern, TrapReason.PATTERN_LIMIT);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Returns the patterns suppressed so far, the most suppressed first.
+   *
+   * @return The suppressed patterns.
+   */
+  public List<SuppressedPattern> suppressedPatterns() {
+    return suppressed.entrySet().stream()
+        .map(e -> e.getKey().report(e.getValue().sum()))
+        .sorted(Comparator.comparingLong(SuppressedPattern::count).reversed())
+        .toList();
+  }
+
+  private void suppress(String pattern, TrapReason reason) {
+    suppressed.computeIfAbsent(new PatternKey(pattern, reason), k -> new LongAdder()).increment();
+  }
+
+  private static int queryParameterCount(ParsedUrl parsedUrl) {
+    var url = parsedUrl.url();
+    int end = url.indexOf('#', parsedUrl.pathEnd());
+    if (end < 0) {
+      end = url.length();
+    }
+    if (parsedUrl.pathEnd() + 1 >= end) {
+      return 0;
+    }
+    int count = 1;
+    for (int i = parsedUrl.pathEnd() + 1; i < end; i++) {
+      if (url.charAt(i) == '&') {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private boolean hasRepeatedSegment(ParsedUrl parsedUrl) {
+    var url = parsedUrl.url();
+    int end = parsedUrl.pathEnd();
+    int segmentStart = parsedUrl.pathStart() + 1;
+    while (segmentStart < end) {
+      int segmentEnd = segmentEnd(url, segmentStart, end);
+      int length = segmentEnd - segmentStart;
+      if (length > 0) {
+        int repeats = 1;
+        int otherStart = segmentEnd + 1;
+        while (otherStart < end) {
+          int otherEnd = segmentEnd(url, otherStart, end);
+          if (otherEnd - otherStart == length
+              && url.regionMatches(segmentStart, url, otherStart, length)
+              && ++repeats > config.maxSegmentRepeats()) {
+            return true;
+          }
+          otherStart = otherEnd + 1;
+        }
+      }
+      segmentStart = segmentEnd + 1;
+    }
+    return false;
+  }
+
+  private static int firstSegmentEnd(ParsedUrl parsedUrl) {
+    var url = parsedUrl.url();
+    int start = parsedUrl.pathStart();
+    if (start == parsedUrl.pathEnd()) {
+      return start;
+    }
+    return segmentEnd(url, start + 1, parsedUrl.pathEnd());
+  }
+
+  private static int segmentEnd(String url, int start, int end) {
+    int index = url.indexOf('/', start);
+    return index < 0 || index > end ? end : index;
+  }
+
+  private static String pattern(String url, int start, int end) {
+    var pattern = new StringBuilder(end - start + 8);
+    boolean inNumber = false;
+    for (int i = start; i < end; i++) {
+      char c = url.charAt(i);
+      if (c >= '0' && c <= '9') {
+        if (!inNumber) {
+          pattern.append(NUMBER_PLACEHOLDER);
+          inNumber = true;
+        }
+      } else if (c == '#') {
+        break;
+      } else {
+        pattern.append(c);
+        inNumber = false;
+      }
+    }
+    return pattern.toString();
+  }
+
+  /** The key of the suppressed URLs of a pattern. */
+  private record PatternKey(String pattern, TrapReason reason) {
+
+    private SuppressedPattern report(long count) {
+      return new SuppressedPattern(pattern, reason, count);
+    }
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.url;
+
+/**
+ * The TrapDetectorConfig record represents the limits beyond which the links of a task are treated
+ * as a crawl trap, such as calendars, faceted search or endlessly nested relative links.
+ *
+ * @param maxUrlLength The maximum number of characters of a URL.
+ * @param maxSegmentRepeats The maximum number of occurrences of the same segment in a path.
+ * @param maxQueryParameters The maximum number of query parameters of a URL.
+ * @param maxUrlsPerPattern The maximum number of URLs sharing a pattern, where the pattern of a URL
+ *     is its path and query with every run of digits replaced by a placeholder.
+ */
+public record TrapDetectorConfig(
+    int maxUrlLength, int maxSegmentRepeats, int maxQueryParameters, int maxUrlsPerPattern) {
+
+  /**
+   * Constructs a new TrapDetectorConfig, validating its limits.
+   *
+   * @throws IllegalArgumentException If a limit is not positive.
+   */
+  public TrapDetectorConfig {
+    if (maxUrlLength <= 0
+        || maxSegmentRepeats <= 0
+        || maxQueryParameters <= 0
+        || maxUrlsPerPattern <= 0) {
+      throw new IllegalArgumentException("Trap detector limits must be greater than zero");
+    }
+  }
+
+  /**
+   * Creates and returns a new TrapDetectorConfig with limits which rarely affect regular pages:
+   * URLs of up to 512 characters, 2 occurrences of a path segment, 8 query parameters and 1000
+   * URLs per pattern.
+   *
+   * @return A new TrapDetectorConfig instance with the default limits.
+   */
+  public static TrapDetectorConfig defaults() {
+    return new TrapDetectorConfig(512, 2, 8, 1000);
+  }
+
+  /**
+   * Creates a new trap detector applying these limits.
+   *
+   * @return The trap detector.
+   */
+  public TrapDetector create() {
+    return new TrapDetector(this);
+  }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.url;
+
+/**
+ * The TrapReason enum represents the reasons why a {@link TrapDetector} suppresses a link.
+ *
+ * <ul>
+ *   <li>{@link #URL_LENGTH}: the URL is longer than the limit.
+ *   <li>{@link #REPEATED_SEGMENTS}: a segment occurs too many times in the path, as with relative
+ *       links resolved against their own page.
+ *   <li>{@link #QUERY_PARAMETERS}: the URL has too many query parameters, as with faceted search.
+ *   <li>{@link #PATTERN_LIMIT}: too many URLs differing only in their numbers have been seen, as
+ *       with calendars and pagination.
+ * </ul>
+ */
+public enum TrapReason {
+  URL_LENGTH,
+  REPEATED_SEGMENTS,
+  QUERY_PARAMETERS,
+  PATTERN_LIMIT
+}
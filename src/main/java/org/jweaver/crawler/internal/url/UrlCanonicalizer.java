@@ -0,0 +1,339 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.url;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The UrlCanonicalizer class rewrites the URLs discovered during a crawl into a canonical form, so
+ * that different spellings of the same page are fetched only once. The canonical form is the key
+ * under which a URL is deduplicated, while the URL is still fetched as it was written.
+ *
+ * <p>The canonical form of an absolute http(s) URL:
+ *
+ * <ul>
+ *   <li>has a lowercase scheme and host, and no default port;
+ *   <li>has no fragment;
+ *   <li>has its dot segments resolved and, optionally, no trailing slash except for the root path;
+ *   <li>has its percent-encoded unreserved characters decoded, and the hex digits of the other
+ *       escapes in uppercase;
+ *   <li>has its query parameters sorted, without the parameters listed as stripped.
+ * </ul>
+ *
+ * <p>A stripped parameter ending with {@code *} matches every parameter name starting with the
+ * rest of it, so that {@code utm_*} strips all tracking parameters. Parameter names are compared
+ * ignoring case.
+ *
+ * <p>URLs with another scheme, or without an authority, are returned unchanged. A URL that is
+ * already canonical is returned as is, so canonicalizing it only allocates the scratch buffer.
+ * Instances are immutable and safe for use by concurrent tasks.
+ */
+public final class UrlCanonicalizer {
+
+  /** The query parameters stripped by {@link #defaults()}. */
+  public static final List<String> DEFAULT_STRIPPED_PARAMETERS =
+      List.of(
+          "utm_*",
+          "gclid",
+          "fbclid",
+          "msclkid",
+          "mc_cid",
+          "mc_eid",
+          "jsessionid",
+          "phpsessid",
+          "sessionid");
+
+  private static final String HTTP = "http";
+  private static final String HTTPS = "https";
+  private static final String SCHEME_SEPARATOR = "://";
+  private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+  private static final UrlCanonicalizer DISABLED =
+      new UrlCanonicalizer(false, false, Collections.emptySet(), Collections.emptyList());
+  private final boolean enabled;
+  private final boolean stripTrailingSlash;
+  private final Set<String> strippedNames;
+  private final List<String> strippedPrefixes;
+
+  private UrlCanonicalizer(
+      boolean enabled,
+      boolean stripTrailingSlash,
+      Set<String> strippedNames,
+      List<String> strippedPrefixes) {
+    this.enabled = enabled;
+    this.stripTrailingSlash = stripTrailingSlash;
+    this.strippedNames = strippedNames;
+    this.strippedPrefixes = strippedPrefixes;
+  }
+
+  /**
+   * Creates and returns a new UrlCanonicalizer keeping trailing slashes and stripping the {@link
+   * #DEFAULT_STRIPPED_PARAMETERS}.
+   *
+   * @return A new UrlCanonicalizer instance with the default rules.
+   */
+  public static UrlCanonicalizer defaults() {
+    return create(false, DEFAULT_STRIPPED_PARAMETERS);
+  }
+
+  /**
+   * Creates and returns a new UrlCanonicalizer with the given rules.
+   *
+   * @param stripTrailingSlash Whether the trailing slash of a path other than the root is removed.
+   * @param strippedParameters The names of the query parameters to strip. A name ending with {@code
+   *     *} strips every parameter starting with the rest of the name.
+   * @return A new UrlCanonicalizer instance.
+   * @throws NullPointerException If the stripped parameters are null.
+   */
+  public static UrlCanonicalizer create(
+      boolean stripTrailingSlash, Collection<String> strippedParameters) {
+    Objects.requireNonNull(strippedParameters);
+    var names =
+        strippedParameters.stream()
+            .filter(p -> !p.endsWith("*"))
+            .map(p -> p.toLowerCase(Locale.ROOT))
+            .collect(Collectors.toUnmodifiableSet());
+    var prefixes =
+        strippedParameters.stream()
+            .filter(p -> p.endsWith("*"))
+            .map(p -> p.substring(0, p.length() - 1).toLowerCase(Locale.ROOT))
+            .toList();
+    return new UrlCanonicalizer(true, stripTrailingSlash, names, prefixes);
+  }
+
+  /**
+   * Returns a UrlCanonicalizer leaving every URL unchanged.
+   *
+   * @return The UrlCanonicalizer instance which does not rewrite URLs.
+   */
+  public static UrlCanonicalizer disabled() {
+    return DISABLED;
+  }
+
+  /**
+   * Returns the canonical form of a URL.
+   *
+   * @param url The URL to canonicalize.
+   * @return The canonical URL, or the URL itself if it is already canonical or is not an absolute
+   *     http(s) URL.
+   */
+  public String canonicalize(String url) {
+    if (!enabled) {
+      return url;
+    }
+    int schemeEnd = url.indexOf(SCHEME_SEPARATOR);
+    if (schemeEnd <= 0) {
+      return url;
+    }
+    var scheme = url.substring(0, schemeEnd).toLowerCase(Locale.ROOT);
+    if (!scheme.equals(HTTP) && !scheme.equals(HTTPS)) {
+      return url;
+    }
+    int authorityStart = schemeEnd + SCHEME_SEPARATOR.length();
+    int fragmentStart = indexOf(url, '#', authorityStart, url.length());
+    int queryStart = indexOf(url, '?', authorityStart, fragmentStart);
+    int pathStart = indexOf(url, '/', authorityStart, queryStart);
+    if (pathStart == authorityStart) {
+      return url;
+    }
+
+    var canonical = new StringBuilder(url.length() + 1).append(scheme).append(SCHEME_SEPARATOR);
+    appendAuthority(canonical, url, authorityStart, pathStart, scheme);
+    appendPath(canonical, url, pathStart, queryStart);
+    if (queryStart < fragmentStart) {
+      appendQuery(canonical, url, queryStart + 1, fragmentStart);
+    }
+    return url.contentEquals(canonical) ? url : canonical.toString();
+  }
+
+  private static void appendAuthority(
+      StringBuilder canonical, String url, int start, int end, String scheme) {
+    int hostStart = url.lastIndexOf('@', end - 1) + 1;
+    if (hostStart > start) {
+      canonical.append(url, start, hostStart);
+    } else {
+      hostStart = start;
+    }
+    int portStart = url.lastIndexOf(':', end - 1);
+    // a colon inside an IPv6 literal is not a port separator
+    if (portStart < hostStart || portStart < url.lastIndexOf(']', end - 1)) {
+      portStart = end;
+    }
+    for (int i = hostStart; i < portStart; i++) {
+      canonical.append(Character.toLowerCase(url.charAt(i)));
+    }
+    if (portStart < end && !isDefaultPort(scheme, url, portStart + 1, end)) {
+      canonical.append(url, portStart, end);
+    }
+  }
+
+  private static boolean isDefaultPort(String scheme, String url, int start, int end) {
+    if (start == end) {
+      return true;
+    }
+    var defaultPort = scheme.equals(HTTPS) ? "443" : "80";
+    return end - start == defaultPort.length() && url.startsWith(defaultPort, start);
+  }
+
+  /**
+   * Appends the path with its dot segments removed, following the algorithm of RFC 3986 section
+   * 5.2.4 on the already appended output.
+   */
+  private void appendPath(StringBuilder canonical, String url, int start, int end) {
+    int pathStart = canonical.length();
+    canonical.append('/');
+    int segmentStart = start + 1;
+    while (segmentStart <= end) {
+      int segmentEnd = indexOf(url, '/', segmentStart, end);
+      boolean last = segmentEnd == end;
+      if (isDot(url, segmentStart, segmentEnd)) {
+        // "." keeps the directory, nothing to append
+      } else if (isDoubleDot(url, segmentStart, segmentEnd)) {
+        int parent = canonical.lastIndexOf("/", canonical.length() - 2);
+        canonical.setLength(Math.max(parent, pathStart) + 1);
+      } else {
+        appendEncoded(canonical, url, segmentStart, segmentEnd);
+        if (!last) {
+          canonical.append('/');
+        }
+      }
+      segmentStart = segmentEnd + 1;
+    }
+    int length = canonical.length();
+    if (stripTrailingSlash && length - pathStart > 1 && canonical.charAt(length - 1) == '/') {
+      canonical.setLength(length - 1);
+    }
+  }
+
+  private static boolean isDot(String url, int start, int end) {
+    return end - start == 1 && url.charAt(start) == '.';
+  }
+
+  private static boolean isDoubleDot(String url, int start, int end) {
+    return end - start == 2 && url.charAt(start) == '.' && url.charAt(start + 1) == '.';
+  }
+
+  private void appendQuery(StringBuilder canonical, String url, int start, int end) {
+    List<String> parameters = null;
+    int kept = 0;
+    int firstStart = -1;
+    int firstEnd = -1;
+    int parameterStart = start;
+    while (parameterStart <= end) {
+      int parameterEnd = indexOf(url, '&', parameterStart, end);
+      if (parameterEnd > parameterStart && !isStripped(url, parameterStart, parameterEnd)) {
+        if (kept == 0) {
+          firstStart = parameterStart;
+          firstEnd = parameterEnd;
+        } else {
+          if (parameters == null) {
+            parameters = new ArrayList<>();
+            parameters.add(encoded(url, firstStart, firstEnd));
+          }
+          parameters.add(encoded(url, parameterStart, parameterEnd));
+        }
+        kept++;
+      }
+      parameterStart = parameterEnd + 1;
+    }
+    if (kept == 0) {
+      return;
+    }
+    canonical.append('?');
+    if (parameters == null) {
+      appendEncoded(canonical, url, firstStart, firstEnd);
+      return;
+    }
+    Collections.sort(parameters);
+    for (int i = 0; i < parameters.size(); i++) {
+      if (i > 0) {
+        canonical.append('&');
+      }
+      canonical.append(parameters.get(i));
+    }
+  }
+
+  private boolean isStripped(String url, int start, int end) {
+    int nameEnd = indexOf(url, '=', start, end);
+    int nameLength = nameEnd - start;
+    for (var prefix : strippedPrefixes) {
+      if (nameLength >= prefix.length()
+          && url.regionMatches(true, start, prefix, 0, prefix.length())) {
+        return true;
+      }
+    }
+    if (strippedNames.isEmpty()) {
+      return false;
+    }
+    return strippedNames.contains(url.substring(start, nameEnd).toLowerCase(Locale.ROOT));
+  }
+
+  private static String encoded(String url, int start, int end) {
+    var parameter = new StringBuilder(end - start);
+    appendEncoded(parameter, url, start, end);
+    return parameter.toString();
+  }
+
+  /**
+   * Appends a URL component, decoding the escapes of unreserved characters and writing the hex
+   * digits of the other escapes in uppercase.
+   */
+  private static void appendEncoded(StringBuilder canonical, String url, int start, int end) {
+    for (int i = start; i < end; i++) {
+      char c = url.charAt(i);
+      if (c != '%' || i + 2 >= end) {
+        canonical.append(c);
+        continue;
+      }
+      int high = Character.digit(url.charAt(i + 1), 16);
+      int low = Character.digit(url.charAt(i + 2), 16);
+      if (high < 0 || low < 0) {
+        canonical.append(c);
+        continue;
+      }
+      char decoded = (char) (high << 4 | low);
+      if (isUnreserved(decoded)) {
+        canonical.append(decoded);
+      } else {
+        canonical.append('%').append(HEX_DIGITS[high]).append(HEX_DIGITS[low]);
+      }
+      i += 2;
+    }
+  }
+
+  private static boolean isUnreserved(char c) {
+    return (c >= 'a' && c <= 'z')
+        || (c >= 'A' && c <= 'Z')
+        || (c >= '0' && c <= '9')
+        || c == '-'
+        || c == '.'
+        || c == '_'
+        || c == '~';
+  }
+
+  private static int indexOf(String url, char c, int start, int end) {
+    int index = url.indexOf(c, start);
+    return index < 0 || index > end ? end : index;
+  }
+}
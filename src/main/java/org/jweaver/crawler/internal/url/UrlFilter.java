@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.url;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import org.jweaver.crawler.internal.util.URIHelper;
+
+/**
+ * The UrlFilter class decides which of the links discovered by a task are crawled. Each URL is
+ * parsed once into a {@link ParsedUrl}, and the checks run from the cheapest to the most expensive,
+ * stopping at the first one that rejects the URL:
+ *
+ * <ol>
+ *   <li>the URL must be an absolute http(s) URL;
+ *   <li>its host must be the host of the task, ignoring case and a {@code www.} prefix;
+ *   <li>its path must not end with an ignored extension;
+ *   <li>it must be well formed, so that a request can be created for it;
+ *   <li>it must match none of the exclude rules and, if there are include rules, at least one of
+ *       them.
+ * </ol>
+ *
+ * <p>Instances are immutable and safe for use by concurrent workers.
+ */
+public final class UrlFilter {
+
+  private static final String WWW_PREFIX = "www.";
+  private static final String EXCLUDED_CHARACTERS = "\"<>\\^`{|}[]";
+  private static final int MAX_PORT_DIGITS = 5;
+  private final String baseHost;
+  private final List<UrlRule> includeRules;
+  private final List<UrlRule> excludeRules;
+
+  private UrlFilter(String baseHost, List<UrlRule> includeRules, List<UrlRule> excludeRules) {
+    this.baseHost = baseHost;
+    this.includeRules = includeRules;
+    this.excludeRules = excludeRules;
+  }
+
+  /**
+   * Creates and returns a new UrlFilter accepting the URLs of the host of the base URI.
+   *
+   * @param baseUri The base URI of the task.
+   * @param includeRules The rules of which a URL must match one, or an empty list to accept every
+   *     URL.
+   * @param excludeRules The rules of which a URL must match none.
+   * @return A new UrlFilter instance.
+   * @throws NullPointerException If an argument is null.
+   */
+  public static UrlFilter create(
+      String baseUri, List<UrlRule> includeRules, List<UrlRule> excludeRules) {
+    var host = Objects.requireNonNull(URI.create(baseUri).getHost(), "Base URI must have a host");
+    host = host.toLowerCase(Locale.ROOT);
+    if (host.startsWith(WWW_PREFIX)) {
+      host = host.substring(WWW_PREFIX.length());
+    }
+    return new UrlFilter(host, List.copyOf(includeRules), List.copyOf(excludeRules));
+  }
+
+  /**
+   * Checks whether a URL is to be crawled.
+   *
+   * @param url The URL to check.
+   * @return {@code true} if the URL passes every check, otherwise {@code false}.
+   */
+  public boolean accept(String url) {
+    var parsedUrl = ParsedUrl.parse(url);
+    return parsedUrl != null
+        && isBaseHost(parsedUrl)
+        && !URIHelper.hasIgnoredExtension(url, parsedUrl.pathStart(), parsedUrl.pathEnd())
+        && isWellFormed(parsedUrl)
+        && matchesRules(parsedUrl);
+  }
+
+  private boolean isBaseHost(ParsedUrl parsedUrl) {
+    var url = parsedUrl.url();
+    int hostStart = parsedUrl.hostStart();
+    if (url.regionMatches(true, hostStart, WWW_PREFIX, 0, WWW_PREFIX.length())) {
+      hostStart += WWW_PREFIX.length();
+    }
+    return parsedUrl.hostEnd() - hostStart == baseHost.length()
+        && url.regionMatches(true, hostStart, baseHost, 0, baseHost.length());
+  }
+
+  private static boolean isWellFormed(ParsedUrl parsedUrl) {
+    var url = parsedUrl.url();
+    if (!isValidHost(url, parsedUrl.hostStart(), parsedUrl.hostEnd())) {
+      return false;
+    }
+    int portDigits = parsedUrl.portEnd() - parsedUrl.hostEnd() - 1;
+    if (portDigits > MAX_PORT_DIGITS) {
+      return false;
+    }
+    for (int i = parsedUrl.hostEnd() + 1; i < parsedUrl.portEnd(); i++) {
+      if (!isDigit(url.charAt(i))) {
+        return false;
+      }
+    }
+    boolean inFragment = false;
+    for (int i = parsedUrl.portEnd(); i < url.length(); i++) {
+      char c = url.charAt(i);
+      if (c <= ' ' || c == 0x7f || EXCLUDED_CHARACTERS.indexOf(c) >= 0) {
+        return false;
+      } else if (c == '%') {
+        if (i + 2 >= url.length() || !isHex(url.charAt(i + 1)) || !isHex(url.charAt(i + 2))) {
+          return false;
+        }
+      } else if (c == '#') {
+        if (inFragment) {
+          return false;
+        }
+        inFragment = true;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isValidHost(String url, int start, int end) {
+    if (url.charAt(start) == '[') {
+      return url.charAt(end - 1) == ']';
+    }
+    char previous = '.';
+    for (int i = start; i < end; i++) {
+      char c = url.charAt(i);
+      if (c == '.') {
+        if (previous == '.' || previous == '-') {
+          return false;
+        }
+      } else if (c == '-') {
+        if (previous == '.') {
+          return false;
+        }
+      } else if (!isDigit(c) && !isLetter(c)) {
+        return false;
+      }
+      previous = c;
+    }
+    return previous != '.' && previous != '-';
+  }
+
+  private boolean matchesRules(ParsedUrl parsedUrl) {
+    for (var rule : excludeRules) {
+      if (rule.matches(parsedUrl)) {
+        return false;
+      }
+    }
+    if (includeRules.isEmpty()) {
+      return true;
+    }
+    for (var rule : includeRules) {
+      if (rule.matches(parsedUrl)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static boolean isLetter(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+  }
+
+  private static boolean isHex(char c) {
+    return Character.digit(c, 16) >= 0;
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.url;
+
+import java.util.regex.Pattern;
+
+/**
+ * The UrlRule interface represents a rule matching the URLs to include in, or exclude from, a
+ * crawl. Rules are compiled when they are created and are safe for use by concurrent tasks. It is
+ * a sealed interface that permits specific implementations.
+ */
+public sealed interface UrlRule permits GlobRule, PathPrefixRule, RegexRule {
+
+  /**
+   * Creates and returns a new UrlRule matching the URLs whose path matches a glob. In the glob,
+   * {@code **} matches any sequence of characters, {@code *} any sequence of characters other than
+   * {@code /}, and {@code ?} any single character other than {@code /}.
+   *
+   * @param glob The glob matched against the path, such as {@code /blog/**}.
+   * @return A new UrlRule instance for globs.
+   */
+  static UrlRule glob(String glob) {
+    return new GlobRule(glob);
+  }
+
+  /**
+   * Creates and returns a new UrlRule matching the URLs whose path starts with a prefix.
+   *
+   * @param prefix The path prefix, such as {@code /docs/}.
+   * @return A new UrlRule instance for path prefixes.
+   */
+  static UrlRule pathPrefix(String prefix) {
+    return new PathPrefixRule(prefix);
+  }
+
+  /**
+   * Creates and returns a new UrlRule matching the URLs containing a match of a regular
+   * expression.
+   *
+   * @param regex The regular expression searched in the whole URL.
+   * @return A new UrlRule instance for regular expressions.
+   * @throws java.util.regex.PatternSyntaxException If the regular expression is invalid.
+   */
+  static UrlRule regex(String regex) {
+    return new RegexRule(Pattern.compile(regex));
+  }
+
+  /**
+   * Checks whether a URL matches the rule.
+   *
+   * @param url The parsed URL.
+   * @return {@code true} if the URL matches the rule, otherwise {@code false}.
+   */
+  boolean matches(ParsedUrl url);
+}
@@ -29,6 +29,15 @@ public class Constants {
   /** The prefix for the runner thread name. */
   public static final String RUNNER_THREAD_NAME = "jweaver-runner-";
 
+  /** The prefix for the scheduler worker thread name. */
+  public static final String WORKER_THREAD_NAME = "jweaver-worker-";
+
+  /** The prefix for the fetcher thread name. */
+  public static final String FETCHER_THREAD_NAME = "jweaver-fetcher-";
+
+  /** The prefix for the journal thread name. */
+  public static final String JOURNAL_THREAD_NAME = "jweaver-journal-";
+
   /** The string representation for 'www'. */
   public static final String WWW_STR = "www";
 
@@ -41,6 +50,9 @@ public class Constants {
   /** The prefix for errors. */
   public static final String ERRORS_PREFIX = "errors";
 
+  /** The prefix for the links left in the frontier. */
+  public static final String FRONTIER_PREFIX = "frontier";
+
   /** The date-time format for file export. */
   public static final String FILE_EXPORT_DT_FORMAT = "yyyyMMddHHmmssSSS";
 
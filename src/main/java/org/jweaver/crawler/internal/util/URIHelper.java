@@ -20,7 +20,9 @@ package org.jweaver.crawler.internal.util;
 import java.net.URI;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.Set;
 import org.apache.commons.validator.routines.UrlValidator;
 
 /**
@@ -30,8 +32,8 @@ import org.apache.commons.validator.routines.UrlValidator;
  */
 public class URIHelper {
 
-  static final List<String> IGNORED_EXTENSIONS =
-      Arrays.asList(
+  static final Set<String> IGNORED_EXTENSIONS =
+      Set.of(
           "7z",
           "7zip",
           "bz2",
@@ -153,7 +155,7 @@ public class URIHelper {
    * @param uri The URI to transform.
    * @return The transformed URI.
    */
-  static String transformUri(String uri) {
+  public static String transformUri(String uri) {
     if (uri.startsWith(Constants.WWW_STR)) {
       return uri.substring(4);
     }
@@ -167,12 +169,42 @@ public class URIHelper {
    * @return True if the URL's extension is allowed, false otherwise.
    */
   public static boolean isAllowedUrl(String uri) {
-    for (var ext : IGNORED_EXTENSIONS) {
-      if (uri.endsWith("." + ext)) {
-        return false;
+    return !hasIgnoredExtension(uri, 0, uri.length());
+  }
+
+  /**
+   * Checks if a region of a URL, usually its path, ends with an ignored extension. The extension is
+   * looked up in a hash set, along with the two-part extension (such as {@code tar.gz}) if any.
+   *
+   * @param uri The URI to check.
+   * @param start The offset of the region.
+   * @param end The offset following the region.
+   * @return True if the region ends with an ignored extension, false otherwise.
+   */
+  public static boolean hasIgnoredExtension(String uri, int start, int end) {
+    int dot = extensionStart(uri, start, end);
+    if (dot < 0) {
+      return false;
+    }
+    if (IGNORED_EXTENSIONS.contains(uri.substring(dot + 1, end).toLowerCase(Locale.ROOT))) {
+      return true;
+    }
+    int previousDot = extensionStart(uri, start, dot);
+    return previousDot >= 0
+        && IGNORED_EXTENSIONS.contains(
+            uri.substring(previousDot + 1, end).toLowerCase(Locale.ROOT));
+  }
+
+  private static int extensionStart(String uri, int start, int end) {
+    for (int i = end - 1; i >= start; i--) {
+      char c = uri.charAt(i);
+      if (c == '.') {
+        return i;
+      } else if (c == '/') {
+        return -1;
       }
     }
-    return true;
+    return -1;
   }
 
   /**
@@ -0,0 +1,240 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.write;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.jweaver.crawler.internal.exception.JWeaverExecutionException;
+import org.jweaver.crawler.internal.result.SuccessResultPage;
+import org.jweaver.crawler.internal.util.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The AsyncPageWriter class writes the successfully crawled pages in the background through a
+ * {@link JWeaverWriter}.
+ *
+ * <p>Pages are submitted to a bounded queue drained by a fixed number of virtual threads. Each
+ * worker takes the pages waiting in the queue in batches of up to {@link #MAX_BATCH_SIZE} and hands
+ * them to {@link JWeaverWriter#processSuccessBatch(List, ExportConfig)}. When the queue is full,
+ * {@link #submit(SuccessResultPage, ExportConfig)} blocks, so the crawl slows down to the speed of
+ * the disk instead of keeping an unbounded number of pages in memory. The future returned for a
+ * page completes once the writer has written it, so that the page can be recorded as done.
+ *
+ * <p>{@link #flush()} waits until every submitted page has been written, then flushes the writer.
+ * {@link #close()} also stops the workers. The workers are started by the first page submitted
+ * after the writer was created or closed, so a crawl which writes no page never starts them.
+ */
+public final class AsyncPageWriter implements AutoCloseable {
+
+  static final int MAX_BATCH_SIZE = 64;
+  private static final Logger log = LoggerFactory.getLogger(AsyncPageWriter.class);
+  private final JWeaverWriter writer;
+  private final BlockingQueue<PendingPage> queue;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition drained = lock.newCondition();
+  private final int workerCount;
+  private final List<Thread> workers = new ArrayList<>();
+  private long pendingPages;
+
+  private AsyncPageWriter(JWeaverWriter writer, int queueCapacity, int workerCount) {
+    this.writer = writer;
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.workerCount = workerCount;
+  }
+
+  /**
+   * Creates a new AsyncPageWriter. Its workers are started when the first page is submitted.
+   *
+   * @param writer The writer receiving the pages.
+   * @param queueCapacity The maximum number of pages waiting to be written.
+   * @param workers The number of pages written concurrently.
+   * @return AsyncPageWriter instance
+   * @throws IllegalArgumentException If the capacity or the number of workers is not positive.
+   */
+  public static AsyncPageWriter create(JWeaverWriter writer, int queueCapacity, int workers) {
+    if (queueCapacity <= 0) {
+      throw new IllegalArgumentException("Write queue capacity must be greater than zero");
+    }
+    if (workers <= 0) {
+      throw new IllegalArgumentException("Writer workers must be greater than zero");
+    }
+    return new AsyncPageWriter(writer, queueCapacity, workers);
+  }
+
+  /**
+   * Submits a page to be written, waiting for space in the queue if it is full.
+   *
+   * @param page The successfully crawled page.
+   * @param exportConfiguration The export configuration of the page.
+   * @return A future completed once the writer has written the page, or completed exceptionally
+   *     if the writer failed to write it.
+   * @throws JWeaverExecutionException If the thread is interrupted while waiting.
+   */
+  public CompletableFuture<Void> submit(SuccessResultPage page, ExportConfig exportConfiguration) {
+    lock.lock();
+    try {
+      pendingPages++;
+      if (workers.isEmpty()) {
+        for (int i = 0; i < workerCount; i++) {
+          workers.add(
+              Thread.ofVirtual().name(Constants.WRITER_THREAD_NAME + i).start(this::drainQueue));
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+    var pendingPage = new PendingPage(page, exportConfiguration, new CompletableFuture<>());
+    try {
+      queue.put(pendingPage);
+      return pendingPage.written();
+    } catch (InterruptedException e) {
+      updatePending(-1);
+      Thread.currentThread().interrupt();
+      throw new JWeaverExecutionException("Thread execution interrupted");
+    }
+  }
+
+  /**
+   * Waits until every submitted page has been written, then invokes {@link JWeaverWriter#flush()}.
+   *
+   * @throws JWeaverExecutionException If the thread is interrupted while waiting.
+   */
+  public void flush() {
+    lock.lock();
+    try {
+      while (pendingPages > 0) {
+        drained.await();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new JWeaverExecutionException("Thread execution interrupted");
+    } finally {
+      lock.unlock();
+    }
+    try {
+      writer.flush();
+    } catch (Throwable e) {
+      log.error("Unable to flush the written pages", e);
+    }
+  }
+
+  /**
+   * Waits until every submitted page has been written, flushes the writer and stops the workers.
+   * The writer can still be used afterwards: the next page submitted starts new workers. No page
+   * may be submitted while the writer is being closed.
+   *
+   * @throws JWeaverExecutionException If the thread is interrupted while waiting.
+   */
+  @Override
+  public void close() {
+    flush();
+    List<Thread> stopped;
+    lock.lock();
+    try {
+      stopped = List.copyOf(workers);
+      workers.clear();
+    } finally {
+      lock.unlock();
+    }
+    // every page has been written, so the workers are idle
+    stopped.forEach(Thread::interrupt);
+    try {
+      for (var worker : stopped) worker.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new JWeaverExecutionException("Thread execution interrupted");
+    }
+  }
+
+  /**
+   * Returns the workers currently started.
+   *
+   * @return The worker threads.
+   */
+  List<Thread> workers() {
+    lock.lock();
+    try {
+      return List.copyOf(workers);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void drainQueue() {
+    var batch = new ArrayList<PendingPage>(MAX_BATCH_SIZE);
+    while (!Thread.currentThread().isInterrupted()) {
+      try {
+        batch.add(queue.take());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+      try {
+        writeBatch(batch);
+      } finally {
+        updatePending(-batch.size());
+        batch.clear();
+      }
+    }
+  }
+
+  private void writeBatch(List<PendingPage> batch) {
+    // pages of the same crawl share their export configuration
+    var pagesByConfig = new LinkedHashMap<ExportConfig, List<PendingPage>>();
+    for (var pendingPage : batch) {
+      pagesByConfig
+          .computeIfAbsent(pendingPage.exportConfiguration(), k -> new ArrayList<>())
+          .add(pendingPage);
+    }
+    pagesByConfig.forEach(
+        (config, pendingPages) -> {
+          try {
+            writer.processSuccessBatch(
+                pendingPages.stream().map(PendingPage::page).toList(), config);
+            pendingPages.forEach(pendingPage -> pendingPage.written().complete(null));
+          } catch (Throwable e) {
+            // even an Error fails the pages, so that the tasks waiting for them do not hang
+            log.error("Unable to write {} pages", pendingPages.size(), e);
+            pendingPages.forEach(pendingPage -> pendingPage.written().completeExceptionally(e));
+          }
+        });
+  }
+
+  private void updatePending(long delta) {
+    lock.lock();
+    try {
+      pendingPages += delta;
+      if (pendingPages == 0) {
+        drained.signalAll();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private record PendingPage(
+      SuccessResultPage page, ExportConfig exportConfiguration, CompletableFuture<Void> written) {}
+}
@@ -25,9 +25,11 @@ import org.jweaver.crawler.internal.util.FileUtils;
 /**
  * The ExportConfig interface defines methods for configuring data export options. Implementations
  * of this interface specify the path, format, and metadata settings for exporting data. This
- * interface permits specific implementations: JsonExportConfig and MarkdownExportConfig.
+ * interface permits specific implementations: JsonExportConfig, JsonlExportConfig and
+ * MarkdownExportConfig.
  */
-public sealed interface ExportConfig permits JsonExportConfig, MarkdownExportConfig {
+public sealed interface ExportConfig
+    permits JsonExportConfig, JsonlExportConfig, MarkdownExportConfig {
 
   /**
    * Creates and returns a new ExportConfig instance configured for exporting data in Markdown
@@ -56,6 +58,55 @@ public sealed interface ExportConfig permits JsonExportConfig, MarkdownExportCon
     return new JsonExportConfig(outputPath, metadata);
   }
 
+  /**
+   * Creates and returns a new ExportConfig instance configured for exporting pages as JSON Lines.
+   * The pages of each host are appended to rolling segment files instead of one file per page. If
+   * the specified output path does not exist, it will be created.
+   *
+   * @param outputPath The path where exported data will be saved.
+   * @param metadata True if metadata should be included in the export, false otherwise.
+   * @param maxSegmentBytes The maximum number of bytes written to a segment file.
+   * @param maxSegmentRecords The maximum number of records written to a segment file.
+   * @return A new ExportConfig instance for JSON Lines export.
+   * @throws IOException If an I/O error occurs while creating the output directory.
+   * @throws IllegalArgumentException If a segment limit is not positive.
+   */
+  static ExportConfig exportJsonl(
+      String outputPath, boolean metadata, long maxSegmentBytes, int maxSegmentRecords)
+      throws IOException {
+    return exportJsonl(outputPath, metadata, maxSegmentBytes, maxSegmentRecords, 0);
+  }
+
+  /**
+   * Creates and returns a new ExportConfig instance configured for exporting pages as JSON Lines,
+   * with each segment file compressed as a separate gzip file. If the specified output path does
+   * not exist, it will be created.
+   *
+   * @param outputPath The path where exported data will be saved.
+   * @param metadata True if metadata should be included in the export, false otherwise.
+   * @param maxSegmentBytes The maximum number of uncompressed bytes written to a segment file.
+   * @param maxSegmentRecords The maximum number of records written to a segment file.
+   * @param compressionLevel The gzip compression level from 1 (fastest) to 9 (smallest), or 0 to
+   *     disable compression.
+   * @return A new ExportConfig instance for JSON Lines export.
+   * @throws IOException If an I/O error occurs while creating the output directory.
+   * @throws IllegalArgumentException If a segment limit is not positive or the compression level
+   *     is outside the range 0 to 9.
+   */
+  static ExportConfig exportJsonl(
+      String outputPath,
+      boolean metadata,
+      long maxSegmentBytes,
+      int maxSegmentRecords,
+      int compressionLevel)
+      throws IOException {
+    var config =
+        new JsonlExportConfig(
+            outputPath, metadata, maxSegmentBytes, maxSegmentRecords, compressionLevel);
+    FileUtils.mkdir(new File(outputPath), true);
+    return config;
+  }
+
   /**
    * Creates and returns a new ExportConfig instance with default settings for exporting data in
    * Markdown format. The output path is set to the default output path specified in the Constants
@@ -19,14 +19,16 @@ package org.jweaver.crawler.internal.write;
 
 /**
  * The ExportFileFormat enum represents the file formats supported for data export. Currently
- * supported formats are Markdown (.md) and JSON (.json).
+ * supported formats are Markdown (.md), JSON (.json) and JSON Lines (.jsonl).
  */
 public enum ExportFileFormat {
 
   /** Markdown file format. */
   MARKDOWN(".md"),
   /** JSON file format. */
-  JSON(".json");
+  JSON(".json"),
+  /** JSON Lines file format, with one JSON record per line. */
+  JSONL(".jsonl");
 
   /** The file extension associated with the file format. */
   private final String extension;
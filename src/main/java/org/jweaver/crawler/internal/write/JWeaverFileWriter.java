@@ -18,22 +18,38 @@
 package org.jweaver.crawler.internal.write;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import java.io.BufferedOutputStream;
 import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.random.RandomGenerator;
 import org.jweaver.crawler.internal.exception.OutputFileException;
 import org.jweaver.crawler.internal.result.Connection;
 import org.jweaver.crawler.internal.result.NodeError;
+import org.jweaver.crawler.internal.result.PageLink;
 import org.jweaver.crawler.internal.result.SuccessResultPage;
 import org.jweaver.crawler.internal.util.Constants;
 import org.jweaver.crawler.internal.util.FileUtils;
@@ -42,7 +58,14 @@ import org.jweaver.crawler.internal.util.FileUtils;
 public final class JWeaverFileWriter implements JWeaverWriter {
 
   static final int MIN_BYTES_ALLOWED = 400;
-  static final ObjectMapper objectMapper = new ObjectMapper();
+  static final int BUFFER_SIZE = 64 * 1024;
+  static final ObjectMapper objectMapper =
+      JsonMapper.builder().serializationInclusion(JsonInclude.Include.NON_NULL).build();
+  // immutable and thread-safe, shared by all writer threads
+  static final ObjectWriter objectWriter = objectMapper.writer();
+  private final Map<String, SegmentWriter> segments = new ConcurrentHashMap<>();
+  private final String createdOn =
+      DateTimeFormatter.ofPattern(Constants.FILE_EXPORT_DT_FORMAT).format(LocalDateTime.now());
 
   private JWeaverFileWriter() {}
 
@@ -57,17 +80,17 @@ public final class JWeaverFileWriter implements JWeaverWriter {
 
   @Override
   public void processSuccess(SuccessResultPage resultPage, ExportConfig config) {
-    if (resultPage.content() == null || resultPage.content().isEmpty()) return;
+    if (!hasExportableContent(resultPage)) return;
     try {
-      if (resultPage.content().getBytes(StandardCharsets.UTF_8).length < MIN_BYTES_ALLOWED) {
+      if (config instanceof JsonlExportConfig jsonlConfig) {
+        appendToSegment(resultPage.uri(), List.of(resultPage), jsonlConfig);
         return;
       }
-      var metadata = config.metadata() ? resultPage.metadata() : null;
-      var output = new Output(metadata, resultPage.title(), resultPage.content());
-      var data =
+      var output = createOutput(resultPage, config);
+      OutputEncoder data =
           switch (config.format()) {
-            case JSON -> convertToJson(output);
-            case MARKDOWN -> MarkdownTemplate.create(output.title(), output.content());
+            case JSON, JSONL -> out -> writeJson(out, output);
+            case MARKDOWN -> out -> writeMarkdown(out, output);
           };
       var filename = createSuccessPageFileName(resultPage.uri(), config);
       var file = getFile(config.path(), filename);
@@ -77,6 +100,48 @@ public final class JWeaverFileWriter implements JWeaverWriter {
     }
   }
 
+  /**
+   * Processes a batch of successfully crawled pages. With a {@link JsonlExportConfig} the pages of
+   * each host are appended to its current segment at once, otherwise each page is written to its
+   * own file.
+   *
+   * @param resultPages The success result pages of the batch.
+   * @param config The export configuration specifying how the results should be written.
+   */
+  @Override
+  public void processSuccessBatch(List<SuccessResultPage> resultPages, ExportConfig config) {
+    if (!(config instanceof JsonlExportConfig jsonlConfig)) {
+      JWeaverWriter.super.processSuccessBatch(resultPages, config);
+      return;
+    }
+    var pagesByHost = new LinkedHashMap<String, List<SuccessResultPage>>();
+    for (var resultPage : resultPages) {
+      if (!hasExportableContent(resultPage)) continue;
+      pagesByHost
+          .computeIfAbsent(getPrettyHostName(resultPage.uri()), k -> new ArrayList<>())
+          .add(resultPage);
+    }
+    try {
+      for (var pages : pagesByHost.values()) {
+        appendToSegment(pages.getFirst().uri(), pages, jsonlConfig);
+      }
+    } catch (IOException e) {
+      throw new OutputFileException(e);
+    }
+  }
+
+  /** Closes the open segment files, so that later pages start new segments. */
+  @Override
+  public void flush() {
+    try {
+      for (var segment : segments.values()) {
+        segment.close();
+      }
+    } catch (IOException e) {
+      throw new OutputFileException(e);
+    }
+  }
+
   @Override
   public void processErrors(
       String baseUri, List<NodeError> nodeErrorList, ExportConfig exportConfiguration) {
@@ -97,23 +162,106 @@ public final class JWeaverFileWriter implements JWeaverWriter {
     }
   }
 
+  @Override
+  public void processFrontier(
+      String baseUri, List<PageLink> links, ExportConfig exportConfiguration) {
+    try {
+      writeOptionFile(exportConfiguration, links, baseUri, Constants.FRONTIER_PREFIX);
+    } catch (IOException e) {
+      throw new OutputFileException(e);
+    }
+  }
+
   <T> void writeOptionFile(ExportConfig exportConfiguration, T object, String uri, String prefix)
       throws IOException {
-    var content = convertToJson(object);
     var filename = createCustomFileName(prefix, uri);
     var file = getFile(exportConfiguration.path(), filename);
-    writeBuffer(file, content);
+    writeBuffer(file, out -> writeJson(out, object));
+  }
+
+  private boolean hasExportableContent(SuccessResultPage resultPage) {
+    var content = resultPage.content();
+    if (content == null || content.isEmpty()) return false;
+    // every char takes at least one byte, so only short contents need to be encoded
+    return content.length() >= MIN_BYTES_ALLOWED
+        || content.getBytes(StandardCharsets.UTF_8).length >= MIN_BYTES_ALLOWED;
+  }
+
+  private Output createOutput(SuccessResultPage resultPage, ExportConfig config) {
+    var metadata = config.metadata() ? resultPage.metadata() : null;
+    return new Output(metadata, resultPage.title(), resultPage.content());
   }
 
-  void writeBuffer(File file, String data) throws IOException {
-    try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
-      writer.write(data);
+  /**
+   * Appends the pages of a host as JSON records to the current segment of the host.
+   *
+   * @param uri The URI of a page of the host.
+   * @param resultPages The pages to append.
+   * @param config The JSON Lines export configuration.
+   * @throws IOException If an I/O error occurs while writing the segment.
+   */
+  void appendToSegment(String uri, List<SuccessResultPage> resultPages, JsonlExportConfig config)
+      throws IOException {
+    var records = new ArrayList<byte[]>(resultPages.size());
+    for (var resultPage : resultPages) {
+      records.add(objectWriter.writeValueAsBytes(createOutput(resultPage, config)));
+    }
+    FileUtils.mkdir(new File(config.path()), true);
+    var directory = Path.of(config.path());
+    var hostName = getPrettyHostName(uri);
+    segments
+        .computeIfAbsent(
+            directory.resolve(hostName).toString(),
+            k ->
+                new SegmentWriter(
+                    directory,
+                    hostName + "-" + createdOn,
+                    config.segmentExtension(),
+                    config.maxSegmentBytes(),
+                    config.maxSegmentRecords(),
+                    config.compressionLevel()))
+        .append(records);
+  }
+
+  /**
+   * Writes data to a file through a buffered file channel, replacing any existing content.
+   *
+   * @param file The file to write.
+   * @param data The encoder writing the data to the file stream.
+   * @throws IOException If an I/O error occurs while writing the file.
+   */
+  void writeBuffer(File file, OutputEncoder data) throws IOException {
+    var channel =
+        FileChannel.open(
+            file.toPath(),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE);
+    try (var out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE)) {
+      data.encode(out);
+    }
+  }
+
+  /**
+   * Serializes an object as JSON directly into a stream, without building an intermediate string.
+   * The stream is left open.
+   *
+   * @param out The stream receiving the JSON document.
+   * @param object The object to serialize.
+   * @param <T> The type of the object.
+   * @throws IOException If an I/O error occurs while writing.
+   */
+  <T> void writeJson(OutputStream out, T object) throws IOException {
+    try (var generator = objectWriter.createGenerator(out)) {
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      objectWriter.writeValue(generator, object);
     }
   }
 
-  <T> String convertToJson(T object) throws JsonProcessingException {
-    objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
-    return objectMapper.writeValueAsString(object);
+  private void writeMarkdown(OutputStream out, Output output) throws IOException {
+    var writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    MarkdownTemplate.write(writer, output.title(), output.content());
+    writer.flush();
   }
 
   String createSuccessPageFileName(String host, ExportConfig exportConfiguration) {
@@ -160,6 +308,22 @@ public final class JWeaverFileWriter implements JWeaverWriter {
     return new File(path + filename);
   }
 
+  /**
+   * The OutputEncoder interface writes the encoded form of an output to a stream, so that it never
+   * needs to be held in memory as a whole.
+   */
+  @FunctionalInterface
+  interface OutputEncoder {
+
+    /**
+     * Writes the encoded output to the stream.
+     *
+     * @param out The stream receiving the output.
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    void encode(OutputStream out) throws IOException;
+  }
+
   /** The MarkdownTemplate class provides static method for creating Markdown content. */
   static class MarkdownTemplate {
 
@@ -173,14 +337,38 @@ public final class JWeaverFileWriter implements JWeaverWriter {
      * @return The generated Markdown content as a string.
      */
     public static String create(String title, String content) {
-      StringBuilder markdown = new StringBuilder();
-      var titleStr = String.format("### %s", title);
-      markdown.append(titleStr).append("\n\n");
-      var contentSplit = content.split("\n");
-      for (var entry : contentSplit) {
-        markdown.append(entry).append("\n\n");
+      var markdown = new StringWriter();
+      try {
+        write(markdown, title, content);
+      } catch (IOException e) {
+        // never thrown by a StringWriter
+        throw new UncheckedIOException(e);
       }
       return markdown.toString();
     }
+
+    /**
+     * Writes Markdown content with the specified title and content to a writer.
+     *
+     * @param writer The writer receiving the Markdown.
+     * @param title The title of the Markdown content.
+     * @param content The content of the Markdown.
+     * @throws IOException If an I/O error occurs while writing.
+     */
+    public static void write(Writer writer, String title, String content) throws IOException {
+      writer.append("### ").append(title).append("\n\n");
+      // trailing line breaks are dropped, as with String#split
+      int limit = content.length();
+      while (limit > 0 && content.charAt(limit - 1) == '\n') limit--;
+      if (limit == 0 && !content.isEmpty()) return;
+      int start = 0;
+      int end;
+      do {
+        end = content.indexOf('\n', start);
+        if (end < 0 || end > limit) end = limit;
+        writer.append(content, start, end).append("\n\n");
+        start = end + 1;
+      } while (end < limit);
+    }
   }
 }
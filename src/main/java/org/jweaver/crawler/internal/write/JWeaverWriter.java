@@ -20,6 +20,7 @@ package org.jweaver.crawler.internal.write;
 import java.util.List;
 import org.jweaver.crawler.internal.result.Connection;
 import org.jweaver.crawler.internal.result.NodeError;
+import org.jweaver.crawler.internal.result.PageLink;
 import org.jweaver.crawler.internal.result.SuccessResultPage;
 
 /**
@@ -39,6 +40,21 @@ public interface JWeaverWriter {
    */
   void processSuccess(SuccessResultPage successResultPage, ExportConfig exportConfiguration);
 
+  /**
+   * Processes a batch of successfully crawled pages sharing the same export configuration.
+   *
+   * <p>The default implementation invokes {@link #processSuccess(SuccessResultPage, ExportConfig)}
+   * for each page. Implementations can override it to write the whole batch at once.
+   *
+   * @param successResultPages The success result pages of the batch.
+   * @param exportConfiguration The export configuration specifying how the results should be
+   *     written.
+   */
+  default void processSuccessBatch(
+      List<SuccessResultPage> successResultPages, ExportConfig exportConfiguration) {
+    successResultPages.forEach(page -> processSuccess(page, exportConfiguration));
+  }
+
   /**
    * Processes errors encountered during crawling and writes error information using the provided
    * export configuration.
@@ -61,4 +77,30 @@ public interface JWeaverWriter {
    */
   void processConnectionMap(
       String baseUri, List<Connection> connections, ExportConfig exportConfiguration);
+
+  /**
+   * Processes the links which were left in the frontier when a crawl budget stopped the crawl of a
+   * host, so that the crawl can be picked up later.
+   *
+   * <p>The default implementation does nothing.
+   *
+   * @param baseUri The base URI of the crawl.
+   * @param links The links which were not crawled.
+   * @param exportConfiguration The export configuration
+   */
+  default void processFrontier(
+      String baseUri, List<PageLink> links, ExportConfig exportConfiguration) {
+    // the frontier is dropped by default
+  }
+
+  /**
+   * Completes the pages written so far, so that every processed page is readable from the output.
+   * It is invoked once the pages of a run have been processed.
+   *
+   * <p>The default implementation does nothing, as pages written by {@link
+   * #processSuccess(SuccessResultPage, ExportConfig)} are expected to be complete.
+   */
+  default void flush() {
+    // nothing is buffered by default
+  }
 }
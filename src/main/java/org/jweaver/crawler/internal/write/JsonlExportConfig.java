@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.write;
+
+import java.util.zip.Deflater;
+
+/**
+ * The JsonlExportConfig record represents the configuration for exporting pages as JSON Lines. It
+ * implements the ExportConfig interface. The pages of each host are appended, one JSON record per
+ * line, to rolling segment files stored in the export path. A segment is closed and the next one
+ * started once it reaches either of its limits.
+ *
+ * <p>With a compression level above zero each segment is a complete gzip file, so the segments of a
+ * crawl can be decompressed and processed independently. The segment size limit applies to the
+ * uncompressed records.
+ *
+ * @param path The export path of the generated files
+ * @param metadata Enable or disable metadata on the generated records
+ * @param maxSegmentBytes The maximum number of bytes written to a segment
+ * @param maxSegmentRecords The maximum number of records written to a segment
+ * @param compressionLevel The gzip compression level of the segments from 1 to 9, or 0 to write
+ *     uncompressed segments
+ */
+public record JsonlExportConfig(
+    String path,
+    boolean metadata,
+    long maxSegmentBytes,
+    int maxSegmentRecords,
+    int compressionLevel)
+    implements ExportConfig {
+
+  /** The extension appended to the names of compressed segments. */
+  static final String GZIP_EXTENSION = ".gz";
+
+  /**
+   * Constructs a new JsonlExportConfig, validating the segment limits and the compression level.
+   *
+   * @throws IllegalArgumentException If a segment limit is not positive or the compression level
+   *     is outside the range 0 to 9.
+   */
+  public JsonlExportConfig {
+    if (maxSegmentBytes <= 0) {
+      throw new IllegalArgumentException("Segment size must be greater than zero");
+    }
+    if (maxSegmentRecords <= 0) {
+      throw new IllegalArgumentException("Segment records must be greater than zero");
+    }
+    if (compressionLevel < Deflater.NO_COMPRESSION
+        || compressionLevel > Deflater.BEST_COMPRESSION) {
+      throw new IllegalArgumentException("Compression level must be between 0 and 9");
+    }
+  }
+
+  /**
+   * Returns a boolean indicating whether the segments are gzip compressed.
+   *
+   * @return True if the segments are compressed, false otherwise.
+   */
+  public boolean compressed() {
+    return compressionLevel > Deflater.NO_COMPRESSION;
+  }
+
+  /**
+   * Returns the extension of the segment files, including the gzip extension for compressed
+   * segments.
+   *
+   * @return The segment file extension.
+   */
+  public String segmentExtension() {
+    return compressed() ? format().extension() + GZIP_EXTENSION : format().extension();
+  }
+
+  /**
+   * Retrieves the export file format, which is JSON Lines for this configuration.
+   *
+   * @return The export file format, which is JSONL.
+   */
+  @Override
+  public ExportFileFormat format() {
+    return ExportFileFormat.JSONL;
+  }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.write;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The SegmentWriter class appends records to a sequence of rolling segment files named {@code
+ * <prefix>-<index><extension>}, with one record per line. Each segment is written through a single
+ * buffered file channel, and is closed once the next record would exceed its byte or record limit.
+ *
+ * <p>With a compression level above zero the records are streamed through a gzip compressor, and
+ * each segment is closed as a complete gzip file. The byte limit applies to the uncompressed
+ * records.
+ *
+ * <p>Each append is flushed to the segment file before it returns, the compressor being
+ * sync-flushed, so the records of an append survive the death of the process even though their
+ * segment is not closed.
+ *
+ * <p>Appends are serialized, so a segment can be shared by the writer threads. A closed
+ * SegmentWriter starts a new segment on the next append.
+ */
+final class SegmentWriter implements Closeable {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final int RECORD_SEPARATOR = '\n';
+  private final Path directory;
+  private final String prefix;
+  private final String extension;
+  private final long maxBytes;
+  private final int maxRecords;
+  private final int compressionLevel;
+  private final ReentrantLock lock = new ReentrantLock();
+  private OutputStream out;
+  private long segmentBytes;
+  private int segmentRecords;
+  private int segmentIndex;
+
+  /**
+   * Constructs a new SegmentWriter.
+   *
+   * @param directory The directory of the segment files.
+   * @param prefix The prefix of the segment file names.
+   * @param extension The extension of the segment file names, including the period.
+   * @param maxBytes The maximum number of bytes written to a segment.
+   * @param maxRecords The maximum number of records written to a segment.
+   * @param compressionLevel The gzip compression level of the segments, or 0 for none.
+   */
+  SegmentWriter(
+      Path directory,
+      String prefix,
+      String extension,
+      long maxBytes,
+      int maxRecords,
+      int compressionLevel) {
+    this.directory = directory;
+    this.prefix = prefix;
+    this.extension = extension;
+    this.maxBytes = maxBytes;
+    this.maxRecords = maxRecords;
+    this.compressionLevel = compressionLevel;
+  }
+
+  /**
+   * Appends the records to the current segment, each followed by a line break, rolling over to a
+   * new segment when a limit is reached. A record larger than the byte limit is written to a
+   * segment of its own. The records are flushed to the segment file before the method returns.
+   *
+   * @param records The encoded records, which must not contain line breaks.
+   * @throws IOException If an I/O error occurs while writing.
+   */
+  void append(List<byte[]> records) throws IOException {
+    lock.lock();
+    try {
+      for (var record : records) {
+        long recordBytes = record.length + 1L;
+        if (out != null
+            && (segmentRecords >= maxRecords || segmentBytes + recordBytes > maxBytes)) {
+          closeSegment();
+        }
+        if (out == null) {
+          openSegment();
+        }
+        out.write(record);
+        out.write(RECORD_SEPARATOR);
+        segmentBytes += recordBytes;
+        segmentRecords++;
+      }
+      if (out != null) {
+        out.flush();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Closes the current segment, if any.
+   *
+   * @throws IOException If an I/O error occurs while closing the segment.
+   */
+  @Override
+  public void close() throws IOException {
+    lock.lock();
+    try {
+      closeSegment();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the path of the segment with the given index.
+   *
+   * @param index The index of the segment.
+   * @return The path of the segment file.
+   */
+  Path segmentPath(int index) {
+    return directory.resolve(String.format("%s-%05d%s", prefix, index, extension));
+  }
+
+  private void openSegment() throws IOException {
+    var channel =
+        FileChannel.open(
+            segmentPath(segmentIndex++), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    OutputStream channelOut = Channels.newOutputStream(channel);
+    if (compressionLevel > Deflater.NO_COMPRESSION) {
+      channelOut = new LevelGzipOutputStream(channelOut, compressionLevel);
+    }
+    out = new BufferedOutputStream(channelOut, BUFFER_SIZE);
+    segmentBytes = 0;
+    segmentRecords = 0;
+  }
+
+  private void closeSegment() throws IOException {
+    if (out == null) {
+      return;
+    }
+    try {
+      out.close();
+    } finally {
+      out = null;
+    }
+  }
+
+  /**
+   * A sync-flushing GZIPOutputStream compressing with the given level instead of the default one.
+   */
+  private static final class LevelGzipOutputStream extends GZIPOutputStream {
+
+    LevelGzipOutputStream(OutputStream out, int level) throws IOException {
+      super(out, BUFFER_SIZE, true);
+      def.setLevel(level);
+    }
+  }
+}
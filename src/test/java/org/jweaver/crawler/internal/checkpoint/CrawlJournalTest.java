@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.checkpoint;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.jweaver.crawler.internal.result.Connection;
+import org.jweaver.crawler.internal.result.NodeError;
+import org.jweaver.crawler.internal.result.PageLink;
+import org.jweaver.crawler.internal.test.Constants;
+
+class CrawlJournalTest {
+
+  @TempDir Path directory;
+
+  @Test
+  void testReopenWithResume_RecoverRecords() {
+    var config = new CheckpointConfig(directory, Duration.ofSeconds(1), false);
+    var news = new PageLink(Constants.TEST_BASE_URI_NEWS, 1);
+    var missing = new PageLink(Constants.TEST_BASE_URI_NEWS + "1", 1);
+    try (var journal = config.journal(Constants.TEST_BASE_URI)) {
+      assertTrue(journal.open().crawled().isEmpty());
+      journal.enqueued(List.of(news, missing));
+      journal.crawled(Constants.TEST_BASE_URI, 0, List.of(news, missing));
+      journal.flush();
+      journal.crawled(news.url(), 1, List.of());
+      journal.failed(missing.url(), 1, "Not Found");
+    }
+
+    try (var journal = CheckpointConfig.resumeFrom(directory).journal(Constants.TEST_BASE_URI)) {
+      var state = journal.open();
+      assertEquals(List.of(news, missing), state.enqueued());
+      assertEquals(
+          Set.of(Constants.TEST_BASE_URI, news.url(), missing.url()), Set.copyOf(state.crawled()));
+      assertEquals(
+          List.of(
+              new Connection(Constants.TEST_BASE_URI, news.url(), 0),
+              new Connection(Constants.TEST_BASE_URI, missing.url(), 0)),
+          state.connections());
+      assertEquals(List.of(new NodeError(missing.url(), 1, "Not Found")), state.errors());
+    }
+  }
+
+  @Test
+  void testReopenWithoutResume_DiscardRecords() {
+    var config = new CheckpointConfig(directory, Duration.ofSeconds(1), false);
+    try (var journal = config.journal(Constants.TEST_BASE_URI)) {
+      journal.open();
+      journal.crawled(Constants.TEST_BASE_URI, 0, List.of());
+    }
+    try (var journal = config.journal(Constants.TEST_BASE_URI)) {
+      assertFalse(journal.open().isCrawled(Constants.TEST_BASE_URI));
+    }
+  }
+
+  @Test
+  void testTornLastRecord_TruncateAndAppend() throws IOException {
+    var config = new CheckpointConfig(directory, Duration.ofSeconds(1), false);
+    var news = new PageLink(Constants.TEST_BASE_URI_NEWS, 1);
+    try (var journal = config.journal(Constants.TEST_BASE_URI)) {
+      journal.open();
+      journal.crawled(Constants.TEST_BASE_URI, 0, List.of(news));
+      journal.crawled(news.url(), 1, List.of());
+    }
+    Path file;
+    try (var files = Files.list(directory)) {
+      file = files.findFirst().orElseThrow();
+    }
+    try (var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+      channel.truncate(channel.size() - 3);
+    }
+
+    var resumed = CheckpointConfig.resumeFrom(directory);
+    try (var journal = resumed.journal(Constants.TEST_BASE_URI)) {
+      var state = journal.open();
+      assertEquals(Set.of(Constants.TEST_BASE_URI), state.crawled());
+      journal.failed(news.url(), 1, "Timeout");
+    }
+    try (var journal = resumed.journal(Constants.TEST_BASE_URI)) {
+      var state = journal.open();
+      assertEquals(Set.of(Constants.TEST_BASE_URI, news.url()), state.crawled());
+      assertEquals(1, state.errors().size());
+    }
+  }
+
+  @Test
+  void testDisabledJournal_RecoverNothing() {
+    try (var journal = CrawlJournal.disabled()) {
+      journal.crawled(Constants.TEST_BASE_URI, 0, List.of());
+      assertTrue(journal.open().crawled().isEmpty());
+    }
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.fetch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class AimdControllerTest {
+
+  private static final String HOST = "example.com";
+  private final AimdConfig config =
+      new AimdConfig(1, 4, Duration.ofMillis(1), Duration.ofMillis(2), Duration.ofSeconds(1), 0.1);
+
+  @Test
+  void testHealthyWindows_IncreaseUpToCeiling() throws InterruptedException {
+    var controller = config.create();
+    assertEquals(new AimdLimits(1, Duration.ofMillis(2)), controller.limits(HOST).orElseThrow());
+
+    sendWindow(controller, 200);
+    var limits = controller.limits(HOST).orElseThrow();
+    assertEquals(2, limits.concurrency());
+    assertTrue(limits.delay().compareTo(Duration.ofMillis(2)) < 0);
+
+    for (int i = 0; i < 12; i++) {
+      sendWindow(controller, 200);
+    }
+    assertEquals(new AimdLimits(4, Duration.ofMillis(1)), controller.limits(HOST).orElseThrow());
+  }
+
+  @Test
+  void testErrorsAboveRate_DecreaseBeforeWindowEnds() throws InterruptedException {
+    var controller = config.create();
+    for (int i = 0; i < 3; i++) {
+      sendWindow(controller, 200);
+    }
+    assertEquals(4, controller.limits(HOST).orElseThrow().concurrency());
+
+    for (var status : new int[] {503, 429}) {
+      try (var sample = controller.acquire(HOST)) {
+        sample.complete(status);
+      }
+    }
+    assertEquals(4, controller.limits(HOST).orElseThrow().concurrency());
+    // a sample closed without a status code is a failed request
+    controller.acquire(HOST).close();
+    assertEquals(2, controller.limits(HOST).orElseThrow().concurrency());
+  }
+
+  @Test
+  void testSlowResponses_DecreaseDownToFloor() throws InterruptedException {
+    var slowConfig =
+        new AimdConfig(
+            1, 4, Duration.ofMillis(1), Duration.ofMillis(2), Duration.ofNanos(1), 0.1);
+    var controller = slowConfig.create();
+    sendWindow(controller, 200);
+    assertEquals(new AimdLimits(1, Duration.ofMillis(2)), controller.limits(HOST).orElseThrow());
+  }
+
+  @Test
+  void testConcurrencyReached_WaitForRelease() throws InterruptedException {
+    var controller = config.create();
+    var first = controller.acquire(HOST);
+    var acquired = new CountDownLatch(1);
+    Thread.ofVirtual()
+        .start(
+            () -> {
+              try {
+                controller.acquire(HOST).close();
+                acquired.countDown();
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+            });
+
+    assertFalse(acquired.await(50, TimeUnit.MILLISECONDS));
+    first.complete(200);
+    first.close();
+    assertTrue(acquired.await(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testTryAcquire_RefuseWithoutWaiting() throws InterruptedException {
+    var controller = config.create();
+    var first = controller.tryAcquire(HOST);
+    assertNotNull(first);
+    // the concurrency of the host is reached
+    assertNull(controller.tryAcquire(HOST));
+    first.complete(200);
+    first.close();
+    Thread.sleep(controller.limits(HOST).orElseThrow().delay());
+    var second = controller.tryAcquire(HOST);
+    assertNotNull(second);
+    second.cancel();
+    assertNotNull(AimdController.disabled().tryAcquire(HOST));
+  }
+
+  @Test
+  void testCancelledSamples_ReleaseWithoutError() throws InterruptedException {
+    var controller = config.create();
+    for (int i = 0; i < 3; i++) {
+      sendWindow(controller, 200);
+    }
+    for (int i = 0; i < 8; i++) {
+      var sample = controller.acquire(HOST);
+      sample.cancel();
+      sample.close();
+    }
+    assertEquals(4, controller.limits(HOST).orElseThrow().concurrency());
+  }
+
+  @Test
+  void testDisabledController_NoLimits() throws InterruptedException {
+    var controller = AimdController.disabled();
+    controller.acquire(HOST).close();
+    assertTrue(controller.limits(HOST).isEmpty());
+    assertEquals(0, controller.nanosUntilAllowed(HOST));
+  }
+
+  @Test
+  void testInvalidBounds_ThrowIllegalArgument() {
+    var delay = Duration.ofMillis(1);
+    assertThrows(
+        IllegalArgumentException.class, () -> new AimdConfig(2, 1, delay, delay, delay, 0.1));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new AimdConfig(1, 2, delay.multipliedBy(2), delay, delay, 0.1));
+    assertThrows(
+        IllegalArgumentException.class, () -> new AimdConfig(1, 2, delay, delay, delay, 1));
+  }
+
+  private static void sendWindow(AimdController controller, int status)
+      throws InterruptedException {
+    for (int i = 0; i < 20; i++) {
+      try (var sample = controller.acquire(HOST)) {
+        sample.complete(status);
+      }
+    }
+  }
+}
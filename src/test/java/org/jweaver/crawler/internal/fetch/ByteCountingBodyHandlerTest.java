@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.fetch;
+
+import static org.jweaver.crawler.internal.fetch.HtmlBodyHandlerTest.buffer;
+import static org.jweaver.crawler.internal.fetch.HtmlBodyHandlerTest.join;
+import static org.jweaver.crawler.internal.fetch.HtmlBodyHandlerTest.responseInfo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jweaver.crawler.internal.fetch.HtmlBodyHandlerTest.TestSubscription;
+import org.junit.jupiter.api.Test;
+
+class ByteCountingBodyHandlerTest {
+
+  @Test
+  void testMultibyteBody_CountBytesNotChars() {
+    var bytes = new AtomicLong();
+    var handler =
+        new ByteCountingBodyHandler<>(
+            new HtmlBodyHandler(1024, BodySizePolicy.TRUNCATE), bytes::addAndGet);
+    var body = "é".repeat(50);
+    var subscriber = handler.apply(responseInfo(Map.of()));
+    subscriber.onSubscribe(new TestSubscription());
+    subscriber.onNext(List.of(buffer(body.substring(0, 20)), buffer(body.substring(20))));
+    subscriber.onComplete();
+    assertEquals(body, join(subscriber));
+    assertEquals(body.getBytes(StandardCharsets.UTF_8).length, bytes.get());
+  }
+
+  @Test
+  void testTruncatedBody_CountBytesReceived() {
+    var bytes = new AtomicLong();
+    var handler =
+        new ByteCountingBodyHandler<>(
+            new HtmlBodyHandler(8, BodySizePolicy.TRUNCATE), bytes::addAndGet);
+    var subscriber = handler.apply(responseInfo(Map.of()));
+    subscriber.onSubscribe(new TestSubscription());
+    subscriber.onNext(List.of(buffer("12345"), buffer("67890")));
+    assertEquals("12345678", join(subscriber));
+    assertEquals(10, bytes.get());
+  }
+}
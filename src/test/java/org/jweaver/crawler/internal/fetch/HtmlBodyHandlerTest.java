@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.fetch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import org.junit.jupiter.api.Test;
+
+class HtmlBodyHandlerTest {
+
+  @Test
+  void testAllowedContentType_ReadWholeBody() {
+    var handler = new HtmlBodyHandler(1024, BodySizePolicy.TRUNCATE);
+    var subscription = new TestSubscription();
+    var subscriber = handler.apply(responseInfo(Map.of("Content-Type", List.of("text/html"))));
+    subscriber.onSubscribe(subscription);
+    subscriber.onNext(List.of(buffer("<html>"), buffer("</html>")));
+    subscriber.onComplete();
+    assertEquals("<html></html>", join(subscriber));
+    assertFalse(subscription.cancelled);
+  }
+
+  @Test
+  void testDisallowedContentType_CancelBeforeReading() {
+    var handler = new HtmlBodyHandler(1024, BodySizePolicy.TRUNCATE);
+    var subscription = new TestSubscription();
+    var subscriber = handler.apply(responseInfo(Map.of("Content-Type", List.of("video/mp4"))));
+    subscriber.onSubscribe(subscription);
+    assertTrue(subscription.cancelled);
+    assertEquals(0, subscription.requested);
+    assertNull(join(subscriber));
+  }
+
+  @Test
+  void testBodyLargerThanLimit_Truncate() {
+    var handler = new HtmlBodyHandler(8, BodySizePolicy.TRUNCATE);
+    var subscription = new TestSubscription();
+    var subscriber = handler.apply(responseInfo(Map.of()));
+    subscriber.onSubscribe(subscription);
+    subscriber.onNext(List.of(buffer("12345"), buffer("67890")));
+    assertTrue(subscription.cancelled);
+    assertEquals("12345678", join(subscriber));
+  }
+
+  @Test
+  void testBodyLargerThanLimit_Reject() {
+    var handler = new HtmlBodyHandler(8, BodySizePolicy.REJECT);
+    var subscription = new TestSubscription();
+    var subscriber = handler.apply(responseInfo(Map.of()));
+    subscriber.onSubscribe(subscription);
+    subscriber.onNext(List.of(buffer("1234567890")));
+    assertTrue(subscription.cancelled);
+    var ex = assertThrows(CompletionException.class, () -> join(subscriber));
+    assertInstanceOf(IOException.class, ex.getCause());
+    assertEquals("Response body exceeds 8 bytes", ex.getCause().getMessage());
+  }
+
+  @Test
+  void testContentLengthLargerThanLimit_RejectBeforeReading() {
+    var handler = new HtmlBodyHandler(8, BodySizePolicy.REJECT);
+    var subscription = new TestSubscription();
+    var subscriber = handler.apply(responseInfo(Map.of("Content-Length", List.of("500000000"))));
+    subscriber.onSubscribe(subscription);
+    assertTrue(subscription.cancelled);
+    assertThrows(CompletionException.class, () -> join(subscriber));
+  }
+
+  @Test
+  void testCharsetFromContentType_DecodeBody() {
+    var handler = new HtmlBodyHandler(1024, BodySizePolicy.TRUNCATE);
+    var subscriber =
+        handler.apply(
+            responseInfo(Map.of("Content-Type", List.of("text/html; charset=ISO-8859-1"))));
+    subscriber.onSubscribe(new TestSubscription());
+    subscriber.onNext(List.of(ByteBuffer.wrap("café".getBytes(StandardCharsets.ISO_8859_1))));
+    subscriber.onComplete();
+    assertEquals("café", join(subscriber));
+  }
+
+  @Test
+  void testInvalidBodySize_ThrowIllegalArgument() {
+    assertThrows(
+        IllegalArgumentException.class, () -> new HtmlBodyHandler(0, BodySizePolicy.TRUNCATE));
+  }
+
+  static String join(HttpResponse.BodySubscriber<String> subscriber) {
+    return subscriber.getBody().toCompletableFuture().join();
+  }
+
+  static ByteBuffer buffer(String value) {
+    return ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  static HttpResponse.ResponseInfo responseInfo(Map<String, List<String>> headers) {
+    return new HttpResponse.ResponseInfo() {
+      @Override
+      public int statusCode() {
+        return 200;
+      }
+
+      @Override
+      public HttpHeaders headers() {
+        return HttpHeaders.of(headers, (x, y) -> true);
+      }
+
+      @Override
+      public HttpClient.Version version() {
+        return HttpClient.Version.HTTP_1_1;
+      }
+    };
+  }
+
+  static class TestSubscription implements Flow.Subscription {
+    long requested;
+    boolean cancelled;
+
+    @Override
+    public void request(long n) {
+      requested += n;
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+    }
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.fetch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class PolitenessSchedulerTest {
+
+  static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+  @Test
+  void testFirstRequest_NoWait() {
+    var scheduler = new PolitenessScheduler(Duration.ofSeconds(1));
+    assertEquals(0, scheduler.reserve("example.com", 42));
+  }
+
+  @Test
+  void testConsecutiveRequests_WaitForRemainingDelay() {
+    var scheduler = new PolitenessScheduler(Duration.ofSeconds(1));
+    assertEquals(0, scheduler.reserve("example.com", 0));
+    // parsing the previous page already took 400 ms
+    assertEquals(SECOND - 400, scheduler.reserve("example.com", 400));
+    // a third caller queues after the second one
+    assertEquals(2 * SECOND - 400, scheduler.reserve("example.com", 400));
+  }
+
+  @Test
+  void testDelayAlreadyElapsed_NoWait() {
+    var scheduler = new PolitenessScheduler(Duration.ofSeconds(1));
+    assertEquals(0, scheduler.reserve("example.com", 0));
+    assertEquals(0, scheduler.reserve("example.com", 3 * SECOND));
+  }
+
+  @Test
+  void testNanosUntilAllowed_NoReservation() {
+    var scheduler = new PolitenessScheduler(Duration.ofSeconds(1));
+    assertEquals(0, scheduler.nanosUntilAllowed("example.com", 0));
+    assertEquals(0, scheduler.reserve("example.com", 0));
+    assertEquals(SECOND - 400, scheduler.nanosUntilAllowed("example.com", 400));
+    // peeking does not move the next slot
+    assertEquals(SECOND - 400, scheduler.reserve("example.com", 400));
+  }
+
+  @Test
+  void testPausedHost_WaitUntilPauseEnds() {
+    var scheduler = new PolitenessScheduler(Duration.ofSeconds(1));
+    assertEquals(0, scheduler.reserve("example.com", 0));
+    scheduler.pause("example.com", 0, 30 * SECOND);
+    assertEquals(30 * SECOND, scheduler.nanosUntilAllowed("example.com", 0));
+    // a shorter pause does not shorten the current one
+    scheduler.pause("example.com", 0, SECOND);
+    assertEquals(30 * SECOND - 400, scheduler.reserve("example.com", 400));
+    assertEquals(0, scheduler.reserve("other.com", 400));
+  }
+
+  @Test
+  void testTryReserve_ReserveOnlyWithoutWait() {
+    var scheduler = new PolitenessScheduler(Duration.ofSeconds(1));
+    assertTrue(scheduler.tryReserve("example.com", 0));
+    assertFalse(scheduler.tryReserve("example.com", 400));
+    // a refused reservation does not push the next slot back
+    assertEquals(SECOND - 400, scheduler.nanosUntilAllowed("example.com", 400));
+    assertTrue(scheduler.tryReserve("example.com", SECOND));
+    scheduler.pause("example.com", SECOND, 30 * SECOND);
+    assertFalse(scheduler.tryReserve("example.com", 2 * SECOND));
+  }
+
+  @Test
+  void testHostsWithAndWithoutWww_ShareGate() {
+    var scheduler = new PolitenessScheduler(Duration.ofSeconds(1));
+    assertEquals(0, scheduler.reserve("www.example.com", 0));
+    assertEquals(SECOND, scheduler.reserve("Example.com", 0));
+    assertEquals(0, scheduler.reserve("other.com", 0));
+  }
+
+  @Test
+  void testNegativeInterval_ThrowIllegalArgument() {
+    var interval = Duration.ofSeconds(-1);
+    assertThrows(IllegalArgumentException.class, () -> new PolitenessScheduler(interval));
+  }
+}
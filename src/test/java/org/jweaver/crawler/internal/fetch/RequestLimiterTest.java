@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.fetch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class RequestLimiterTest {
+
+  @Test
+  void testHostLimitReached_OtherHostNotBlocked() throws InterruptedException {
+    var limiter = RequestLimiter.create(10, 1);
+    var first = limiter.acquire("example.com");
+    var acquired = new CountDownLatch(1);
+    Thread.ofVirtual().start(() -> acquireAndSignal(limiter, "www.example.com", acquired));
+
+    // the permit of another host is free, while the same host waits
+    var other = limiter.acquire("other.com");
+    try (other) {
+      assertFalse(acquired.await(50, TimeUnit.MILLISECONDS));
+    }
+    first.close();
+    assertTrue(acquired.await(5, TimeUnit.SECONDS));
+    assertEquals(1, limiter.stats("example.com").queued());
+    assertEquals(0, limiter.stats("other.com").queued());
+  }
+
+  @Test
+  void testGlobalLimitReached_RecordWait() throws InterruptedException {
+    var limiter = RequestLimiter.create(1, 4);
+    var first = limiter.acquire("example.com");
+    var acquired = new CountDownLatch(1);
+    Thread.ofVirtual().start(() -> acquireAndSignal(limiter, "other.com", acquired));
+
+    assertFalse(acquired.await(50, TimeUnit.MILLISECONDS));
+    first.close();
+    assertTrue(acquired.await(5, TimeUnit.SECONDS));
+    var stats = limiter.stats();
+    assertEquals(2, stats.acquired());
+    assertEquals(1, stats.queued());
+    assertTrue(stats.maxWait().compareTo(Duration.ofMillis(40)) >= 0);
+    assertEquals(stats.totalWait().dividedBy(2), stats.averageWait());
+  }
+
+  @Test
+  void testPermitClosedTwice_ReleaseOnce() throws InterruptedException {
+    var limiter = RequestLimiter.create(1, 1);
+    var permit = limiter.acquire("example.com");
+    permit.close();
+    permit.close();
+    limiter.acquire("example.com");
+    var acquired = new CountDownLatch(1);
+    Thread.ofVirtual().start(() -> acquireAndSignal(limiter, "example.com", acquired));
+    assertFalse(acquired.await(50, TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  void testTryAcquire_RefuseWithoutTakingPermits() {
+    var limiter = RequestLimiter.create(2, 1);
+    var first = limiter.tryAcquire("example.com");
+    assertNotNull(first);
+    assertNull(limiter.tryAcquire("example.com"));
+    var other = limiter.tryAcquire("other.com");
+    assertNotNull(other);
+    // the global limit is reached, and the refused request gives back its host permit
+    assertNull(limiter.tryAcquire("third.com"));
+    other.close();
+    assertNotNull(limiter.tryAcquire("third.com"));
+    first.close();
+    assertNotNull(limiter.tryAcquire("example.com"));
+    assertEquals(0, limiter.stats().queued());
+  }
+
+  @Test
+  void testCreateWithZeroLimit_ThrowIllegalArgument() {
+    assertThrows(IllegalArgumentException.class, () -> RequestLimiter.create(0, 1));
+    assertThrows(IllegalArgumentException.class, () -> RequestLimiter.create(1, 0));
+  }
+
+  private static void acquireAndSignal(
+      RequestLimiter limiter, String host, CountDownLatch acquired) {
+    try {
+      limiter.acquire(host);
+      acquired.countDown();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
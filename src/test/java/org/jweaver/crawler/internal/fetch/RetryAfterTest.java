@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.fetch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+class RetryAfterTest {
+
+  private final Instant now = Instant.parse("2024-05-01T10:00:00Z");
+
+  @Test
+  void testDelaySeconds_ReturnDuration() {
+    assertEquals(Duration.ofSeconds(120), RetryAfter.parse(" 120 ", now).orElseThrow());
+    assertEquals(Duration.ZERO, RetryAfter.parse("0", now).orElseThrow());
+  }
+
+  @Test
+  void testHttpDate_ReturnDelayUntilDate() {
+    assertEquals(
+        Duration.ofSeconds(90),
+        RetryAfter.parse("Wed, 01 May 2024 10:01:30 GMT", now).orElseThrow());
+    assertEquals(
+        Duration.ZERO, RetryAfter.parse("Wed, 01 May 2024 09:00:00 GMT", now).orElseThrow());
+  }
+
+  @Test
+  void testInvalidValue_ReturnEmpty() {
+    assertTrue(RetryAfter.parse(null, now).isEmpty());
+    assertTrue(RetryAfter.parse("", now).isEmpty());
+    assertTrue(RetryAfter.parse("-5", now).isEmpty());
+    assertTrue(RetryAfter.parse("tomorrow", now).isEmpty());
+    assertTrue(RetryAfter.parse("99999999999999999999", now).isEmpty());
+  }
+
+  @Test
+  void testBackoff_DoubleAndCap() {
+    var config = new ThrottleConfig(5, Duration.ofSeconds(10), Duration.ofSeconds(60));
+    assertEquals(Duration.ofSeconds(10), config.backoff(null, 1));
+    assertEquals(Duration.ofSeconds(40), config.backoff(null, 3));
+    assertEquals(Duration.ofSeconds(60), config.backoff(null, 5));
+    assertEquals(Duration.ofSeconds(5), config.backoff(Duration.ofSeconds(5), 4));
+    assertEquals(Duration.ofSeconds(60), config.backoff(Duration.ofHours(1), 1));
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.frontier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.Test;
+import org.jweaver.crawler.internal.test.Constants;
+
+class BloomVisitedSetTest {
+
+  static final String URL = Constants.TEST_BASE_URI_NEWS + "article?id=";
+
+  @Test
+  void testAddUrls_NoFalseNegatives() {
+    var visitedSet = new BloomVisitedSet(1000, 0.01, 1024 * 1024);
+    for (int i = 0; i < 10_000; i++) {
+      visitedSet.add(URL + i);
+    }
+    for (int i = 0; i < 10_000; i++) {
+      assertTrue(visitedSet.contains(URL + i));
+    }
+  }
+
+  @Test
+  void testGrowBeyondExpected_ChainFiltersUnderTargetRate() {
+    var visitedSet = new BloomVisitedSet(1000, 0.01, 1024 * 1024);
+    for (int i = 0; i < 10_000; i++) {
+      visitedSet.add(URL + i);
+    }
+    assertEquals(4, visitedSet.filterCount());
+    int falsePositives = 0;
+    for (int i = 10_000; i < 110_000; i++) {
+      if (visitedSet.contains(URL + i)) falsePositives++;
+    }
+    var stats = visitedSet.stats();
+    assertTrue(falsePositives < 1000, "false positives: " + falsePositives);
+    assertTrue(stats.falsePositiveRate() < 0.01, "estimated rate: " + stats.falsePositiveRate());
+    // the adds are lookups too, those of URLs reported as visited being hits
+    long addHits = 10_000 - visitedSet.size();
+    assertEquals(110_000, stats.hits() + stats.misses());
+    assertEquals(falsePositives + addHits, stats.hits());
+    // the estimate stays within a factor two of the measured false positives
+    assertTrue(Math.abs(stats.estimatedFalsePositives() - falsePositives) <= falsePositives);
+  }
+
+  @Test
+  void testMemoryCeiling_StopGrowing() {
+    var visitedSet = new BloomVisitedSet(1000, 0.01, 4096);
+    for (int i = 0; i < 10_000; i++) {
+      visitedSet.add(URL + i);
+    }
+    var stats = visitedSet.stats();
+    assertTrue(stats.footprintBytes() <= 4096);
+    assertEquals(1, visitedSet.filterCount());
+    // the saturated filter reports the rising false-positive rate
+    assertTrue(stats.falsePositiveRate() > 0.01);
+  }
+
+  @Test
+  void testAddVisitedUrl_ReturnFalse() {
+    var visitedSet = new BloomVisitedSet(100, 0.01, 1024);
+    assertTrue(visitedSet.add(URL));
+    assertFalse(visitedSet.add(URL));
+    assertEquals(1, visitedSet.size());
+  }
+
+  @Test
+  void testConcurrentAddsOfSameUrls_ReportEachUrlNewOnce() throws InterruptedException {
+    var visitedSet = new BloomVisitedSet(100_000, 0.001, 1024 * 1024);
+    var newCounts = new ConcurrentHashMap<String, Integer>();
+    var start = new CountDownLatch(1);
+    var workers = new ArrayList<Thread>();
+    for (int w = 0; w < 8; w++) {
+      workers.add(
+          Thread.ofPlatform()
+              .start(
+                  () -> {
+                    try {
+                      start.await();
+                    } catch (InterruptedException e) {
+                      Thread.currentThread().interrupt();
+                      return;
+                    }
+                    for (int i = 0; i < 50_000; i++) {
+                      if (visitedSet.add(URL + i)) {
+                        newCounts.merge(URL + i, 1, Integer::sum);
+                      }
+                    }
+                  }));
+    }
+    start.countDown();
+    for (var worker : workers) worker.join();
+
+    newCounts.values().forEach(count -> assertEquals(1, count));
+    assertEquals(newCounts.size(), visitedSet.size());
+  }
+}
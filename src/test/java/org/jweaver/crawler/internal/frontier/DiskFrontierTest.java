@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.frontier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.jweaver.crawler.internal.result.PageLink;
+import org.jweaver.crawler.internal.test.Constants;
+
+class DiskFrontierTest {
+
+  @TempDir Path directory;
+
+  @Test
+  void testPollAcrossSegments_KeepInsertionOrder() throws IOException {
+    var links = new ArrayList<PageLink>();
+    for (int i = 0; i < 1000; i++) {
+      links.add(new PageLink(Constants.TEST_BASE_URI + "/page-" + i, i % 5));
+    }
+    try (var frontier = new DiskFrontier(directory, 16, 512)) {
+      for (int i = 0; i < links.size(); i += 100) {
+        frontier.addAll(links.subList(i, i + 100));
+      }
+      assertEquals(1000, frontier.size());
+      assertTrue(frontier.segmentCount() > 1);
+
+      var polled = new ArrayList<PageLink>();
+      PageLink link;
+      while ((link = frontier.poll()) != null) {
+        polled.add(link);
+      }
+      assertEquals(links, polled);
+      assertEquals(0, frontier.size());
+    }
+    try (var files = Files.list(directory)) {
+      assertEquals(0, files.count());
+    }
+  }
+
+  @Test
+  void testInterleavedAddAndPoll_KeepInsertionOrder() {
+    try (var frontier = new DiskFrontier(directory, 4, 64)) {
+      int added = 0;
+      int polled = 0;
+      for (int round = 0; round < 50; round++) {
+        var batch = new ArrayList<PageLink>();
+        for (int i = 0; i < 7; i++) {
+          batch.add(new PageLink(Constants.TEST_BASE_URI + "/" + added++, 1));
+        }
+        frontier.addAll(batch);
+        for (int i = 0; i < 5; i++) {
+          assertEquals(Constants.TEST_BASE_URI + "/" + polled++, frontier.poll().url());
+        }
+      }
+      while (polled < added) {
+        assertEquals(Constants.TEST_BASE_URI + "/" + polled++, frontier.poll().url());
+      }
+      assertNull(frontier.poll());
+    }
+  }
+
+  @Test
+  void testRequeueSpilledLink_PollItFirst() {
+    try (var frontier = new DiskFrontier(directory, 4, 64)) {
+      var links = new ArrayList<PageLink>();
+      for (int i = 0; i < 20; i++) {
+        links.add(new PageLink(Constants.TEST_BASE_URI + "/" + i, 1));
+      }
+      frontier.addAll(links);
+      var first = frontier.poll();
+      frontier.requeue(first);
+      assertEquals(20, frontier.size());
+
+      var polled = new ArrayList<PageLink>();
+      PageLink link;
+      while ((link = frontier.poll()) != null) {
+        polled.add(link);
+      }
+      assertEquals(links, polled);
+    }
+  }
+
+  @Test
+  void testSmallFrontier_NeverSpill() {
+    try (var frontier = new DiskFrontier(directory, 16, 512)) {
+      frontier.addAll(List.of(new PageLink(Constants.TEST_BASE_URI, 0)));
+      assertEquals(0, frontier.segmentCount());
+      assertEquals(Constants.TEST_BASE_URI, frontier.poll().url());
+      assertNull(frontier.poll());
+    }
+  }
+
+  @Test
+  void testNewFrontier_CreateDirectoryOnFirstSpill() throws IOException {
+    try (var frontier = new DiskFrontier(directory, 2, 512)) {
+      assertEquals(0, countFiles(directory));
+      frontier.addAll(List.of(new PageLink(Constants.TEST_BASE_URI, 0)));
+      assertEquals(0, countFiles(directory));
+      frontier.addAll(List.of(new PageLink(Constants.TEST_BASE_URI + "/1", 1)));
+      assertEquals(1, countFiles(directory));
+    }
+    assertEquals(0, countFiles(directory));
+  }
+
+  @Test
+  void testReuseAfterClose_SpillToNewDirectory() throws IOException {
+    var frontier = new DiskFrontier(directory, 2, 512);
+    for (int run = 0; run < 2; run++) {
+      var links = new ArrayList<PageLink>();
+      for (int i = 0; i < 10; i++) {
+        links.add(new PageLink(Constants.TEST_BASE_URI + "/" + run + "/" + i, 1));
+      }
+      frontier.addAll(links);
+      assertEquals(links.get(0), frontier.poll());
+      // the links left are dropped along with the segment directory
+      frontier.close();
+      assertEquals(0, frontier.size());
+      assertNull(frontier.poll());
+      assertEquals(0, countFiles(directory));
+    }
+  }
+
+  @Test
+  void testFrontierConfig_CreateFrontier() {
+    assertInstanceOf(MemoryFrontier.class, FrontierConfig.memory().create());
+    try (var frontier = FrontierConfig.disk(directory, 16, 512).create()) {
+      assertInstanceOf(DiskFrontier.class, frontier);
+    }
+  }
+
+  @Test
+  void testDiskConfigWithoutBuffer_ThrowIllegalArgument() {
+    var ex =
+        assertThrows(IllegalArgumentException.class, () -> FrontierConfig.disk(directory, 0, 512));
+    assertEquals("Buffer size must be greater than zero", ex.getMessage());
+  }
+
+  private static long countFiles(Path directory) throws IOException {
+    try (var files = Files.list(directory)) {
+      return files.count();
+    }
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.frontier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import org.junit.jupiter.api.Test;
+import org.jweaver.crawler.internal.test.Constants;
+
+class FingerprintVisitedSetTest {
+
+  @Test
+  void testAddUrl_ContainOnlyAddedUrls() {
+    var visitedSet = new FingerprintVisitedSet(16);
+    assertTrue(visitedSet.add(Constants.TEST_BASE_URI_NEWS + 1));
+    assertFalse(visitedSet.add(Constants.TEST_BASE_URI_NEWS + 1));
+    assertTrue(visitedSet.contains(Constants.TEST_BASE_URI_NEWS + 1));
+    assertFalse(visitedSet.contains(Constants.TEST_BASE_URI_NEWS + 2));
+    assertEquals(1, visitedSet.size());
+  }
+
+  @Test
+  void testAddMoreThanExpected_GrowTable() {
+    var visitedSet = new FingerprintVisitedSet(16);
+    var urls = new ArrayList<String>();
+    for (int i = 0; i < 100_000; i++) {
+      urls.add(Constants.TEST_BASE_URI_NEWS + "article?id=" + i);
+    }
+    urls.forEach(url -> assertTrue(visitedSet.add(url)));
+    urls.forEach(url -> assertTrue(visitedSet.contains(url)));
+    assertFalse(visitedSet.contains(Constants.TEST_BASE_URI_NEWS + "article?id=-1"));
+    assertEquals(100_000, visitedSet.size());
+  }
+
+  @Test
+  void testAddPastMaxLoad_RefuseNewUrls() {
+    // 64 slots at most, so the table holds 32 URLs before refusing new ones
+    var visitedSet = new FingerprintVisitedSet(16, 64);
+    for (int i = 0; i < 32; i++) {
+      assertTrue(visitedSet.add(Constants.TEST_BASE_URI_NEWS + i));
+    }
+    assertFalse(visitedSet.add(Constants.TEST_BASE_URI_NEWS + 32));
+    assertFalse(visitedSet.add(Constants.TEST_BASE_URI_NEWS + 0));
+    assertFalse(visitedSet.contains(Constants.TEST_BASE_URI_NEWS + 32));
+    for (int i = 0; i < 32; i++) {
+      assertTrue(visitedSet.contains(Constants.TEST_BASE_URI_NEWS + i));
+    }
+    assertEquals(32, visitedSet.size());
+    assertEquals(64L * Long.BYTES, visitedSet.stats().footprintBytes());
+  }
+
+  @Test
+  void testStats_ReportTableFootprint() {
+    var visitedSet = new FingerprintVisitedSet(1000);
+    for (int i = 0; i < 1000; i++) {
+      visitedSet.add(Constants.TEST_BASE_URI_NEWS + i);
+    }
+    var stats = visitedSet.stats();
+    assertEquals(1000, stats.entries());
+    // 2048 slots of 8 bytes keep the load under one half
+    assertEquals(2048L * Long.BYTES, stats.footprintBytes());
+    assertEquals(1000 / 0x1p64, stats.falsePositiveRate());
+  }
+}
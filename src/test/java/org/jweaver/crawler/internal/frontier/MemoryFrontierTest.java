@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.frontier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.jweaver.crawler.internal.result.PageLink;
+import org.jweaver.crawler.internal.test.Constants;
+
+class MemoryFrontierTest {
+
+  @Test
+  void testAddAndPoll_KeepInsertionOrder() {
+    var frontier = new MemoryFrontier();
+    var links =
+        List.of(
+            new PageLink(Constants.TEST_BASE_URI + "/1", 1),
+            new PageLink(Constants.TEST_BASE_URI + "/2", 1),
+            new PageLink(Constants.TEST_BASE_URI + "/3", 2));
+    frontier.addAll(links);
+    assertEquals(3, frontier.size());
+    for (var link : links) {
+      assertEquals(link, frontier.poll());
+    }
+    assertNull(frontier.poll());
+    assertEquals(0, frontier.size());
+  }
+
+  @Test
+  void testRequeuePolledLink_PollItFirst() {
+    var frontier = new MemoryFrontier();
+    var first = new PageLink(Constants.TEST_BASE_URI + "/1", 1);
+    var second = new PageLink(Constants.TEST_BASE_URI + "/2", 1);
+    frontier.addAll(List.of(first, second));
+    frontier.requeue(frontier.poll());
+    assertEquals(2, frontier.size());
+    assertEquals(first, frontier.poll());
+    assertEquals(second, frontier.poll());
+  }
+}
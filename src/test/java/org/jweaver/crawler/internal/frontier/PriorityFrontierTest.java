@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.frontier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import org.junit.jupiter.api.Test;
+import org.jweaver.crawler.internal.result.PageLink;
+import org.jweaver.crawler.internal.test.Constants;
+
+class PriorityFrontierTest {
+
+  @Test
+  void testConstantScore_PollInDiscoveryOrder() {
+    var frontier = new PriorityFrontier(signals -> 0);
+    var links = new ArrayList<PageLink>();
+    for (int i = 0; i < 20; i++) {
+      links.add(link("/" + i, 1));
+    }
+    frontier.addAll(links);
+    for (var link : links) {
+      assertEquals(link, frontier.poll());
+    }
+    assertNull(frontier.poll());
+  }
+
+  @Test
+  void testStandardScorer_DelayDeepAndPaginatedLinks() {
+    var frontier = new PriorityFrontier(LinkScorer.standard());
+    frontier.addAll(
+        List.of(
+            link("/tags/a/page?p=2&sort=asc", 1),
+            link("/blog/deep/post", 2),
+            link("/about", 1)));
+    assertEquals("/about", path(frontier.poll()));
+    assertEquals("/blog/deep/post", path(frontier.poll()));
+    assertEquals("/tags/a/page?p=2&sort=asc", path(frontier.poll()));
+  }
+
+  @Test
+  void testInboundLinks_RescoreWaitingLinks() {
+    var frontier = new PriorityFrontier(LinkScorer.weighted(0, 0, 0, 1, 0));
+    var popular = link("/popular", 1);
+    var other = link("/other", 1);
+    frontier.addAll(List.of(other, popular));
+    frontier.recordCrawl(Constants.TEST_BASE_URI, List.of(popular));
+    frontier.recordCrawl(Constants.TEST_BASE_URI + "/x", List.of(popular, other));
+
+    assertEquals(2, frontier.size());
+    assertEquals(popular, frontier.poll());
+    assertEquals(other, frontier.poll());
+    assertEquals(0, frontier.size());
+    assertNull(frontier.poll());
+  }
+
+  @Test
+  void testRepeatedRescoring_CompactHeap() throws ReflectiveOperationException {
+    var frontier = new PriorityFrontier(LinkScorer.weighted(0, 0, 0, 1, 0));
+    var links = new ArrayList<PageLink>();
+    for (int i = 0; i < 10; i++) {
+      links.add(link("/" + i, 1));
+    }
+    frontier.addAll(links);
+    var heapField = PriorityFrontier.class.getDeclaredField("heap");
+    heapField.setAccessible(true);
+    var heap = (PriorityQueue<?>) heapField.get(frontier);
+    // each crawled page rescores every waiting link, leaving its previous entry stale
+    for (int i = 0; i < 1000; i++) {
+      frontier.recordCrawl(Constants.TEST_BASE_URI + "/page" + i, links);
+      assertTrue(heap.size() <= 64 + links.size());
+    }
+    frontier.recordCrawl(Constants.TEST_BASE_URI + "/last", List.of(links.get(9)));
+
+    assertEquals(10, frontier.size());
+    assertEquals(links.get(9), frontier.poll());
+    for (int i = 0; i < 9; i++) {
+      assertEquals(links.get(i), frontier.poll());
+    }
+    assertNull(frontier.poll());
+  }
+
+  @Test
+  void testRequeuePolledLink_KeepScore() {
+    var frontier = new PriorityFrontier(LinkScorer.weighted(0, 0, 0, 1, 0));
+    var popular = link("/popular", 1);
+    var other = link("/other", 1);
+    frontier.addAll(List.of(other, popular));
+    frontier.recordCrawl(Constants.TEST_BASE_URI, List.of(popular));
+    assertEquals(popular, frontier.poll());
+
+    frontier.requeue(popular);
+    assertEquals(2, frontier.size());
+    assertEquals(popular, frontier.poll());
+    assertEquals(other, frontier.poll());
+    assertNull(frontier.poll());
+  }
+
+  @Test
+  void testReaddPolledLink_KeepScore() {
+    var frontier = new PriorityFrontier(LinkScorer.opic());
+    var hub = link("/hub", 1);
+    var leaf = link("/leaf", 1);
+    frontier.addAll(List.of(leaf, hub));
+    frontier.recordCrawl(Constants.TEST_BASE_URI, List.of(hub));
+    assertEquals(hub, frontier.poll());
+
+    // a throttled page is added again to be retried, ahead of the links it outranked
+    frontier.addAll(List.of(hub));
+    assertEquals(2, frontier.size());
+    assertEquals(hub, frontier.poll());
+    assertEquals(leaf, frontier.poll());
+    assertNull(frontier.poll());
+  }
+
+  @Test
+  void testOpicScorer_FollowImportance() {
+    var frontier = new PriorityFrontier(LinkScorer.opic());
+    var hub = link("/hub", 1);
+    var leaf = link("/leaf", 1);
+    frontier.addAll(List.of(leaf, hub));
+    // the root splits its importance between the hub and the leaf
+    frontier.recordCrawl(Constants.TEST_BASE_URI, List.of(hub, leaf));
+    assertEquals(leaf, frontier.poll());
+
+    // the leaf passes all of its importance to the hub, which now outranks the new link
+    var hubChild = link("/hub/child", 2);
+    frontier.addAll(List.of(hubChild));
+    frontier.recordCrawl(leaf.url(), List.of(hub));
+    assertEquals(hub, frontier.poll());
+    assertEquals(hubChild, frontier.poll());
+  }
+
+  @Test
+  void testPriorityConfig_CreatePriorityFrontier() {
+    assertInstanceOf(
+        PriorityFrontier.class, FrontierConfig.priority(LinkScorer.standard()).create());
+  }
+
+  @Test
+  void testLinkSignals_ParseUrl() {
+    var signals = new LinkSignals(link("/a/b?x=1&&y=2#z", 3), 0, 0);
+    assertEquals(4, signals.pathLength());
+    assertEquals(2, signals.queryParameterCount());
+    assertEquals(3, signals.depth());
+  }
+
+  private static PageLink link(String path, int depth) {
+    return new PageLink(Constants.TEST_BASE_URI + path, depth);
+  }
+
+  private static String path(PageLink link) {
+    return link.url().substring(Constants.TEST_BASE_URI.length());
+  }
+}
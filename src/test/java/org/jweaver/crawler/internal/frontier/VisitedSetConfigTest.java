@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.frontier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.jweaver.crawler.internal.test.Constants;
+
+class VisitedSetConfigTest {
+
+  @Test
+  void testExactConfig_CreateExactSet() {
+    var visitedSet = VisitedSetConfig.exact().create();
+    assertInstanceOf(ExactVisitedSet.class, visitedSet);
+    assertTrue(visitedSet.add(Constants.TEST_BASE_URI));
+    assertFalse(visitedSet.add(Constants.TEST_BASE_URI));
+    assertTrue(visitedSet.contains(Constants.TEST_BASE_URI));
+    assertEquals(0, visitedSet.stats().falsePositiveRate());
+  }
+
+  @Test
+  void testFingerprintConfig_CreateFingerprintSet() {
+    var visitedSet = VisitedSetConfig.fingerprint(10).create();
+    assertInstanceOf(FingerprintVisitedSet.class, visitedSet);
+  }
+
+  @Test
+  void testBloomConfig_CreateBloomSet() {
+    var visitedSet = VisitedSetConfig.bloom(1000, 0.001, 1024 * 1024).create();
+    assertInstanceOf(BloomVisitedSet.class, visitedSet);
+  }
+
+  @Test
+  void testBloomConfigLargerThanArrays_CreateWithinCeiling() {
+    // the optimal filter for these URLs would need more words than an array can hold
+    var visitedSet = VisitedSetConfig.bloom(Long.MAX_VALUE / 2, 1e-9, 1024).create();
+    assertTrue(visitedSet.add(Constants.TEST_BASE_URI));
+    assertTrue(visitedSet.contains(Constants.TEST_BASE_URI));
+    assertEquals(1024, visitedSet.stats().footprintBytes());
+  }
+
+  @Test
+  void testBloomConfigWithInvalidRate_ThrowIllegalArgument() {
+    var ex =
+        assertThrows(
+            IllegalArgumentException.class, () -> VisitedSetConfig.bloom(1000, 1.0, 1024));
+    assertEquals("False-positive rate must be between 0 and 1", ex.getMessage());
+  }
+
+  @Test
+  void testFingerprintConfigWithoutUrls_ThrowIllegalArgument() {
+    var ex = assertThrows(IllegalArgumentException.class, () -> VisitedSetConfig.fingerprint(0));
+    assertEquals("Expected URLs must be greater than zero", ex.getMessage());
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.parse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class JWeaverDocumentParserTest {
+
+  static final String PAGE_URI = "https://192.168.1.10:8080/news/";
+  static final String HTML_BODY =
+      """
+<!DOCTYPE html>
+<html>
+<head><title>JWeaver News</title></head>
+<body>
+<p>First paragraph.</p>
+<a href="/about">About</a>
+<p>Second <b>paragraph</b>.</p>
+<a href="article?id=1">Article</a>
+<a href="https://www.w3schools.com/">External</a>
+</body>
+</html>
+""";
+
+  final JWeaverDocumentParser parser = new JWeaverDocumentParser();
+
+  @Test
+  void testParsePage_MatchSeparateParses() {
+    var parsedPage = parser.parse(HTML_BODY, PAGE_URI);
+    assertEquals(parser.parseTitle(HTML_BODY, PAGE_URI), parsedPage.title());
+    assertEquals(parser.parseBody(HTML_BODY, PAGE_URI), parsedPage.body());
+    assertEquals(parser.parseLinks(HTML_BODY, PAGE_URI), parsedPage.links());
+  }
+
+  @Test
+  void testParsePage_ExtractTitleBodyAndLinks() {
+    var parsedPage = parser.parse(HTML_BODY, PAGE_URI);
+    assertEquals("JWeaver News", parsedPage.title());
+    assertEquals("First paragraph.\nSecond paragraph.\n", parsedPage.body());
+    assertEquals(
+        Set.of(
+            "https://192.168.1.10:8080/about",
+            "https://192.168.1.10:8080/news/article?id=1",
+            "https://www.w3schools.com/"),
+        parsedPage.links());
+  }
+
+  @Test
+  void testParseOutline_SkipBody() {
+    var parsedPage = parser.parseOutline(HTML_BODY, PAGE_URI);
+    assertEquals("JWeaver News", parsedPage.title());
+    assertEquals("", parsedPage.body());
+    assertEquals(parser.parseLinks(HTML_BODY, PAGE_URI), parsedPage.links());
+  }
+
+  @Test
+  void testDefaultParse_DelegateToParseMethods() {
+    DocumentParser customParser =
+        new DocumentParser() {
+          @Override
+          public String parseTitle(String htmlBody, String pageUri) {
+            return "title";
+          }
+
+          @Override
+          public String parseBody(String htmlBody, String pageUri) {
+            return "body";
+          }
+
+          @Override
+          public Set<String> parseLinks(String htmlBody, String pageUri) {
+            return Set.of(pageUri);
+          }
+        };
+    assertEquals(
+        new ParsedPage("title", "body", Set.of(PAGE_URI)), customParser.parse(HTML_BODY, PAGE_URI));
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.parse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+class StreamingLinkParserTest {
+
+  static final String PAGE_URI = "https://192.168.1.10:8080/news/today.html";
+
+  static final List<String> CORPUS =
+      List.of(
+          """
+<!DOCTYPE html>
+<html><head><title>  JWeaver   &amp; News </title></head>
+<body>
+<a href="/about">About</a>
+<A HREF='article?id=1&amp;page=2'>Article</A>
+<a href=contact.html>Contact</a>
+<a class="nav" href = "../up/">Up</a>
+<a href="https://www.w3schools.com/">External</a>
+<a href="?q=crawler">Search</a>
+<a href="#top">Top</a>
+<a href="  spaced.html  ">Spaced</a>
+<a href="mailto:info@jweaver.org">Mail</a>
+<a href="first.html" href="second.html">Duplicate</a>
+<a name="anchor">No href</a>
+<a href>Bare</a>
+</body></html>
+""",
+          """
+<html><head>
+<script>var link = '<a href="/from-script">x</a>'; if (a < b) {}</script>
+<style>a[href="/from-style"] { color: red; }</style>
+<!-- <a href="/from-comment">hidden</a> -->
+<title>First</title>
+</head>
+<body>
+<textarea><a href="/from-textarea"></a></textarea>
+<title>Second</title>
+<p>text with < and > signs <a href="/after-signs">ok</a></p>
+<svg><a href="/svg-link"><text>svg</text></a></svg>
+</body></html>
+""",
+          """
+<html><head><base href="https://cdn.example.org/base/"><title>Base</title></head>
+<body><a href="relative">Relative</a><a href="/root">Root</a></body></html>
+""",
+          """
+<p><!--><a href=/x>x</a><!-- --><a href=/y>y</a><!---><a href=/z>z</a></p>
+<!-- closed --!><a href="/after-bang">bang</a>
+<!-- not closed --! <a href="/bang-hidden">x</a> --!-><a href="/bang-dash">x</a> -->
+<a href="/after-comments">after</a>
+""",
+          """
+<p>No title, just <a href="https://192.168.1.10:8080/news/">news</a> and
+<a href="tel:+35799999999">phone</a> and <a href="javascript:void(0)">js</a>
+<a href="/unterminated""");
+
+  final JWeaverDocumentParser jsoupParser = new JWeaverDocumentParser();
+  final StreamingLinkParser streamingParser = new StreamingLinkParser();
+
+  @Test
+  void testCorpus_MatchJsoupParser() {
+    for (var html : CORPUS) {
+      var expected = jsoupParser.parse(html, PAGE_URI);
+      var actual = streamingParser.parse(html, PAGE_URI);
+      assertEquals(expected.title(), actual.title(), html);
+      assertEquals(expected.links(), actual.links(), html);
+      assertEquals("", actual.body());
+    }
+  }
+
+  @Test
+  void testChunkedInput_MatchWholeDocument() {
+    for (var html : CORPUS) {
+      var expected = streamingParser.parse(html, PAGE_URI);
+      for (int chunkSize : new int[] {1, 3, 7, 64}) {
+        var links = new HashSet<String>();
+        var tokenizer = new LinkTokenizer(PAGE_URI, links::add);
+        for (int i = 0; i < html.length(); i += chunkSize) {
+          tokenizer.feed(html.substring(i, Math.min(html.length(), i + chunkSize)));
+        }
+        tokenizer.finish();
+        assertEquals(expected.links(), links, html);
+        assertEquals(expected.title(), tokenizer.title(), html);
+      }
+    }
+  }
+
+  @Test
+  void testLinksEmittedInDocumentOrder_BeforeDocumentEnds() {
+    var links = new ArrayList<String>();
+    var tokenizer = new LinkTokenizer(PAGE_URI, links::add);
+    tokenizer.feed("<html><body><a href=\"/first\">1</a><a href=\"/sec");
+    assertEquals(List.of("https://192.168.1.10:8080/first"), links);
+    tokenizer.feed("ond\">2</a>");
+    assertEquals(
+        Stream.of("/first", "/second").map(p -> "https://192.168.1.10:8080" + p).toList(),
+        links);
+  }
+}
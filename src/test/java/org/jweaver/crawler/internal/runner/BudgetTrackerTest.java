@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.runner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class BudgetTrackerTest {
+
+  @Test
+  void testPageBudget_SharedWithParent() {
+    var global = new BudgetTracker(CrawlBudget.unlimited().withMaxPages(3), null);
+    var first = new BudgetTracker(CrawlBudget.unlimited().withMaxPages(2), global);
+    var second = new BudgetTracker(CrawlBudget.unlimited(), global);
+
+    assertTrue(first.tryAcquirePage());
+    assertTrue(first.tryAcquirePage());
+    assertFalse(first.tryAcquirePage());
+    assertTrue(first.exhausted());
+
+    assertFalse(second.exhausted());
+    assertTrue(second.tryAcquirePage());
+    assertFalse(second.tryAcquirePage());
+    assertTrue(second.exhausted());
+    assertEquals(1, second.pages());
+    assertEquals(3, global.pages());
+  }
+
+  @Test
+  void testByteBudget_StopOnceReached() {
+    var global = new BudgetTracker(CrawlBudget.unlimited(), null);
+    var tracker = new BudgetTracker(CrawlBudget.unlimited().withMaxBytes(100), global);
+    assertTrue(tracker.tryAcquirePage());
+    tracker.recordBytes(100);
+    assertTrue(tracker.exhausted());
+    assertFalse(tracker.tryAcquirePage());
+    assertEquals(100, global.bytes());
+    assertFalse(global.exhausted());
+  }
+
+  @Test
+  void testDurationBudget_StartWithClock() throws InterruptedException {
+    var tracker =
+        new BudgetTracker(CrawlBudget.unlimited().withMaxDuration(Duration.ofMillis(20)), null);
+    Thread.sleep(30);
+    assertFalse(tracker.exhausted());
+    tracker.start();
+    Thread.sleep(30);
+    assertTrue(tracker.exhausted());
+    assertFalse(tracker.tryAcquirePage());
+  }
+
+  @Test
+  void testInvalidBudget_ThrowIllegalArgument() {
+    var ex =
+        assertThrows(IllegalArgumentException.class, () -> CrawlBudget.unlimited().withMaxPages(0));
+    assertEquals("Max pages must be greater than zero", ex.getMessage());
+    var unlimited = CrawlBudget.unlimited();
+    assertThrows(IllegalArgumentException.class, () -> unlimited.withMaxDuration(Duration.ZERO));
+  }
+}
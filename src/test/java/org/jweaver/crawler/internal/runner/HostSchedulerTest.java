@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.runner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.jweaver.crawler.internal.fetch.FetchMode;
+import org.jweaver.crawler.internal.fetch.RequestLimiter;
+import org.jweaver.crawler.internal.test.Constants;
+import org.jweaver.crawler.internal.test.MockHttpClients;
+import org.jweaver.crawler.internal.write.JWeaverWriter;
+
+class HostSchedulerTest {
+
+  @Test
+  void testRunManyTasks_BoundConcurrencyAndVisitEachLinkOnce()
+      throws IOException, InterruptedException {
+    var inFlight = new AtomicInteger();
+    var maxInFlight = new AtomicInteger();
+    var requestCounts = new ArrayList<Map<String, Integer>>();
+    var writers = new ArrayList<JWeaverWriter>();
+    var taskList = new ArrayList<JWeaverTask>();
+    for (int i = 0; i < 5; i++) {
+      var requestCount = new ConcurrentHashMap<String, Integer>();
+      var writer = mock(JWeaverWriter.class);
+      requestCounts.add(requestCount);
+      writers.add(writer);
+      taskList.add(
+          TestTaskBuilder.crawling(MockHttpClients.slow(requestCount, inFlight, maxInFlight))
+              .fetchMode(FetchMode.ASYNC)
+              .writer(writer)
+              .build());
+    }
+
+    new HostScheduler(2).run(taskList);
+
+    assertTrue(maxInFlight.get() <= 2);
+    for (var requestCount : requestCounts) {
+      assertEquals(11, requestCount.size());
+      requestCount.values().forEach(count -> assertEquals(1, count));
+    }
+    for (var writer : writers) {
+      verify(writer, times(1)).processConnectionMap(any(), any(), any());
+    }
+  }
+
+  @Test
+  void testThrottledRoot_CrawlOtherTasksDuringPause() throws IOException, InterruptedException {
+    var throttledCount = new ConcurrentHashMap<String, Integer>();
+    var requestCount = new ConcurrentHashMap<String, Integer>();
+    var rootRequestsWhenDone = new AtomicInteger();
+    var writer = mock(JWeaverWriter.class);
+    doAnswer(
+            invocation -> {
+              rootRequestsWhenDone.set(throttledCount.get(Constants.TEST_BASE_URI));
+              return null;
+            })
+        .when(writer)
+        .processConnectionMap(any(), any(), any());
+    var throttledWriter = mock(JWeaverWriter.class);
+    var taskList =
+        List.of(
+            TestTaskBuilder.crawling(
+                    MockHttpClients.throttling(throttledCount, Constants.TEST_BASE_URI, 1, "1"))
+                .writer(throttledWriter)
+                .build(),
+            TestTaskBuilder.crawling(MockHttpClients.ok(requestCount)).writer(writer).build());
+
+    new HostScheduler(1).run(taskList);
+
+    // the only worker crawled the other task while the throttled root page was paused
+    assertEquals(1, rootRequestsWhenDone.get());
+    assertEquals(11, requestCount.size());
+    assertEquals(2, throttledCount.get(Constants.TEST_BASE_URI));
+    verify(throttledWriter, times(1)).processConnectionMap(any(), any(), any());
+  }
+
+  @Test
+  void testHostLimitBelowLanes_RequeueLanesWithoutWaiting()
+      throws IOException, InterruptedException {
+    var limiter = RequestLimiter.create(10, 1);
+    var inFlight = new AtomicInteger();
+    var maxInFlight = new AtomicInteger();
+    var requestCounts = new ArrayList<Map<String, Integer>>();
+    var taskList = new ArrayList<JWeaverTask>();
+    for (int i = 0; i < 2; i++) {
+      var requestCount = new ConcurrentHashMap<String, Integer>();
+      requestCounts.add(requestCount);
+      taskList.add(
+          TestTaskBuilder.crawling(MockHttpClients.slow(requestCount, inFlight, maxInFlight))
+              .requestLimiter(limiter)
+              .build());
+    }
+
+    new HostScheduler(4).run(taskList);
+
+    assertEquals(1, maxInFlight.get());
+    requestCounts.forEach(requestCount -> assertEquals(11, requestCount.size()));
+    // the lanes refused by the limiter were put back instead of waiting for a permit
+    assertEquals(0, limiter.stats().queued());
+  }
+
+  @Test
+  void testRunWithFailingRoot_FinishOtherTasks() throws IOException, InterruptedException {
+    var failingClient = mock(HttpClient.class);
+    when(failingClient.send(any(), any())).thenThrow(new IOException("Connection refused"));
+    var failingWriter = mock(JWeaverWriter.class);
+    var requestCount = new ConcurrentHashMap<String, Integer>();
+    var writer = mock(JWeaverWriter.class);
+    var taskList =
+        List.of(
+            TestTaskBuilder.crawling(failingClient).writer(failingWriter).build(),
+            TestTaskBuilder.crawling(MockHttpClients.ok(requestCount)).writer(writer).build());
+
+    new HostScheduler(1).run(taskList);
+
+    assertEquals(11, requestCount.size());
+    verify(failingWriter, never()).processConnectionMap(any(), any(), any());
+    verify(writer, times(1)).processConnectionMap(any(), any(), any());
+  }
+}
@@ -24,11 +24,17 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import java.io.File;
 import java.io.IOException;
 import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.List;
 import java.util.Set;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.jweaver.crawler.JWeaverCrawler;
+import org.jweaver.crawler.internal.fetch.BodySizePolicy;
+import org.jweaver.crawler.internal.frontier.FrontierConfig;
+import org.jweaver.crawler.internal.frontier.VisitedSetConfig;
 import org.jweaver.crawler.internal.parse.DocumentParser;
 import org.jweaver.crawler.internal.result.Connection;
 import org.jweaver.crawler.internal.result.NodeError;
@@ -55,6 +61,29 @@ class JWeaverBuilderImplTest {
     assertEquals("Depth must be greater than zero", ex.getMessage());
   }
 
+  @Test
+  void testCreateCrawlerWithZeroConcurrentRequests_failedWithIllegalArgument() {
+    var builder = JWeaverCrawler.builder();
+    var ex =
+        assertThrows(
+            IllegalArgumentException.class, () -> builder.maxConcurrentRequestsPerHost(0));
+    assertEquals("Concurrent requests must be greater than zero", ex.getMessage());
+  }
+
+  @Test
+  void testCreateCrawlerWithZeroGlobalConcurrency_failedWithIllegalArgument() {
+    var builder = JWeaverCrawler.builder();
+    var ex = assertThrows(IllegalArgumentException.class, () -> builder.globalConcurrency(0));
+    assertEquals("Global concurrency must be greater than zero", ex.getMessage());
+  }
+
+  @Test
+  void testCreateCrawlerWithEmptyWriteQueue_failedWithIllegalArgument() {
+    var builder = JWeaverCrawler.builder();
+    var ex = assertThrows(IllegalArgumentException.class, () -> builder.writeQueue(0, 2));
+    assertEquals("Write queue capacity must be greater than zero", ex.getMessage());
+  }
+
   @Test
   void testCreateCrawlerWithEmptyUriSet_failedWithIllegalArgument() {
     var builder = JWeaverCrawler.builder();
@@ -71,7 +100,8 @@ class JWeaverBuilderImplTest {
   }
 
   @Test
-  void testCreateCrawlerWithFullArgs_success() throws IOException {
+  void testCreateCrawlerWithFullArgs_success(@TempDir Path frontierDirectory)
+      throws IOException {
     var crawler =
         JWeaverCrawler.builder()
             .httpClient(HttpClient.newBuilder().build())
@@ -112,10 +142,20 @@ class JWeaverBuilderImplTest {
                 })
             .politenessDelay(Duration.ofSeconds(3))
             .maxDepth(3)
+            .maxConcurrentRequestsPerHost(2)
+            .maxBodySize(1024 * 1024, BodySizePolicy.REJECT)
+            .crawlMode(CrawlMode.DISCOVERY)
+            .writeQueue(128, 4)
+            .visitedSet(VisitedSetConfig.fingerprint(1024))
+            .frontier(FrontierConfig.disk(frontierDirectory, 64, 1024 * 1024))
             .exportConfiguration(ExportConfig.exportJson(Constants.TEST_OUTPUT_DIR, true))
             .build(uriSet);
 
     assertNotNull(crawler);
+    // the frontiers create their segment directories only once they spill
+    try (var files = Files.list(frontierDirectory)) {
+      assertEquals(0, files.count());
+    }
     var file = new File(Constants.TEST_OUTPUT_DIR);
     file.deleteOnExit();
   }
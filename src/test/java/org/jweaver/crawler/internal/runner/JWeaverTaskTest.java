@@ -21,11 +21,17 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -35,6 +41,7 @@ import java.net.http.HttpClient;
 import java.net.http.HttpHeaders;
 import java.net.http.HttpResponse;
 import java.net.http.HttpTimeoutException;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -42,15 +49,35 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.jweaver.crawler.internal.checkpoint.CheckpointConfig;
+import org.jweaver.crawler.internal.checkpoint.CrawlJournal;
+import org.jweaver.crawler.internal.exception.OutputFileException;
+import org.jweaver.crawler.internal.fetch.AimdConfig;
+import org.jweaver.crawler.internal.fetch.AimdController;
+import org.jweaver.crawler.internal.fetch.FetchMode;
+import org.jweaver.crawler.internal.fetch.PolitenessScheduler;
+import org.jweaver.crawler.internal.fetch.RequestLimiter;
+import org.jweaver.crawler.internal.fetch.ThrottleConfig;
+import org.jweaver.crawler.internal.frontier.FrontierConfig;
+import org.jweaver.crawler.internal.frontier.VisitedSetConfig;
 import org.jweaver.crawler.internal.parse.JWeaverDocumentParser;
 import org.jweaver.crawler.internal.result.ErrorResultPage;
 import org.jweaver.crawler.internal.result.PageLink;
 import org.jweaver.crawler.internal.result.ResponseData;
 import org.jweaver.crawler.internal.result.SuccessResultPage;
 import org.jweaver.crawler.internal.test.Constants;
+import org.jweaver.crawler.internal.test.MockHttpClients;
+import org.jweaver.crawler.internal.test.StaticLinkParser;
+import org.jweaver.crawler.internal.url.TrapDetector;
+import org.jweaver.crawler.internal.url.UrlCanonicalizer;
 import org.jweaver.crawler.internal.write.JWeaverFileWriter;
+import org.jweaver.crawler.internal.write.JWeaverWriter;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 
@@ -90,13 +117,58 @@ class JWeaverTaskTest {
       throws NoSuchFieldException, IllegalAccessException {
     jWeaverTask = mock(JWeaverTask.class);
 
-    var pageLinkQueue = JWeaverTask.class.getDeclaredField("pageLinkQueue");
-    pageLinkQueue.setAccessible(true);
-    pageLinkQueue.set(jWeaverTask, new ConcurrentLinkedQueue<>());
+    var frontier = JWeaverTask.class.getDeclaredField("frontier");
+    frontier.setAccessible(true);
+    frontier.set(jWeaverTask, FrontierConfig.memory().create());
 
-    var visitedUris = JWeaverTask.class.getDeclaredField("visitedUris");
-    visitedUris.setAccessible(true);
-    visitedUris.set(jWeaverTask, new HashSet<>());
+    var pendingLinks = JWeaverTask.class.getDeclaredField("pendingLinks");
+    pendingLinks.setAccessible(true);
+    pendingLinks.set(jWeaverTask, new AtomicInteger());
+
+    var seenUris = JWeaverTask.class.getDeclaredField("seenUris");
+    seenUris.setAccessible(true);
+    var visited = VisitedSetConfig.exact().create();
+    seenUris.set(jWeaverTask, visited);
+
+    var canonicalizer = JWeaverTask.class.getDeclaredField("canonicalizer");
+    canonicalizer.setAccessible(true);
+    canonicalizer.set(jWeaverTask, UrlCanonicalizer.defaults());
+
+    var budget = JWeaverTask.class.getDeclaredField("budget");
+    budget.setAccessible(true);
+    budget.set(jWeaverTask, BudgetTracker.unlimited());
+
+    var trapDetector = JWeaverTask.class.getDeclaredField("trapDetector");
+    trapDetector.setAccessible(true);
+    trapDetector.set(jWeaverTask, TrapDetector.disabled());
+
+    var journal = JWeaverTask.class.getDeclaredField("journal");
+    journal.setAccessible(true);
+    journal.set(jWeaverTask, CrawlJournal.disabled());
+
+    var pendingWrites = JWeaverTask.class.getDeclaredField("pendingWrites");
+    pendingWrites.setAccessible(true);
+    pendingWrites.set(jWeaverTask, ConcurrentHashMap.newKeySet());
+
+    var requestLimiter = JWeaverTask.class.getDeclaredField("requestLimiter");
+    requestLimiter.setAccessible(true);
+    requestLimiter.set(jWeaverTask, RequestLimiter.unlimited());
+
+    var aimdController = JWeaverTask.class.getDeclaredField("aimdController");
+    aimdController.setAccessible(true);
+    aimdController.set(jWeaverTask, AimdController.disabled());
+
+    var retryQueue = JWeaverTask.class.getDeclaredField("retryQueue");
+    retryQueue.setAccessible(true);
+    retryQueue.set(jWeaverTask, new DelayQueue<>());
+
+    var retryAttempts = JWeaverTask.class.getDeclaredField("retryAttempts");
+    retryAttempts.setAccessible(true);
+    retryAttempts.set(jWeaverTask, new ConcurrentHashMap<>());
+
+    var duplicateLinks = JWeaverTask.class.getDeclaredField("duplicateLinks");
+    duplicateLinks.setAccessible(true);
+    duplicateLinks.set(jWeaverTask, new LongAdder());
 
     var baseUri = JWeaverTask.class.getDeclaredField("baseUri");
     baseUri.setAccessible(true);
@@ -116,7 +188,16 @@ class JWeaverTaskTest {
 
     var pageLink = new PageLink(Constants.TEST_BASE_URI, 0);
     doCallRealMethod().when(jWeaverTask).start();
+    doCallRealMethod().when(jWeaverTask).openCrawl();
+    doCallRealMethod().when(jWeaverTask).startCrawl();
+    doCallRealMethod().when(jWeaverTask).finishCrawl();
+    doCallRealMethod().when(jWeaverTask).closeCrawl();
+    doCallRealMethod().when(jWeaverTask).crawlNext();
     doCallRealMethod().when(jWeaverTask).travelLinks();
+    doCallRealMethod().when(jWeaverTask).drainQueue();
+    doCallRealMethod().when(jWeaverTask).visit(any());
+    doCallRealMethod().when(jWeaverTask).processPage(any());
+    doCallRealMethod().when(jWeaverTask).enqueue(any());
     doCallRealMethod().when(jWeaverTask).processSuccessPage(any());
     var childLinks = new HashSet<PageLink>();
     for (int i = 0; i < 5; i++) {
@@ -128,6 +209,338 @@ class JWeaverTaskTest {
         .thenReturn(SuccessResultPage.create(pageLink, "", "", childLinks));
     jWeaverTask.start();
     verify(jWeaverTask, times(1)).start();
+    assertEquals(6, visited.size());
+  }
+
+  @Test
+  void testStartExecutionWithConcurrentRequests_VisitEachLinkOnce()
+      throws IOException, InterruptedException {
+    var requestCount = new ConcurrentHashMap<String, Integer>();
+    var task = TestTaskBuilder.crawling(MockHttpClients.ok(requestCount)).build();
+
+    task.start();
+
+    assertEquals(11, requestCount.size());
+    requestCount.values().forEach(count -> assertEquals(1, count));
+  }
+
+  @Test
+  void testStartExecutionWithAsyncFetchMode_VisitEachLinkOnce()
+      throws IOException, InterruptedException {
+    var requestCount = new ConcurrentHashMap<String, Integer>();
+    var client = MockHttpClients.ok(requestCount);
+    var task = TestTaskBuilder.crawling(client).fetchMode(FetchMode.ASYNC).build();
+
+    task.start();
+
+    assertEquals(11, requestCount.size());
+    requestCount.values().forEach(count -> assertEquals(1, count));
+    verify(client, times(1)).send(any(), any());
+    verify(client, times(10)).sendAsync(any(), any());
+  }
+
+  @Test
+  void testAsyncRequestNotSent_ReleaseAndReportError() throws IOException, InterruptedException {
+    var requestCount = new ConcurrentHashMap<String, Integer>();
+    var client = MockHttpClients.ok(requestCount);
+    var rejectedUri = Constants.TEST_BASE_URI_NEWS + 3;
+    doThrow(new IllegalArgumentException("Request rejected"))
+        .when(client)
+        .sendAsync(argThat(request -> request.uri().toString().equals(rejectedUri)), any());
+    var delay = Duration.ofMillis(1);
+    var writer = mock(JWeaverWriter.class);
+    var task =
+        TestTaskBuilder.crawling(client)
+            .fetchMode(FetchMode.ASYNC)
+            .writer(writer)
+            .requestLimiter(RequestLimiter.create(1, 1))
+            .aimdController(new AimdConfig(1, 1, delay, delay, Duration.ofSeconds(1), 0.1).create())
+            .build();
+
+    // a leaked permit, slot or pending link would keep the crawl from finishing
+    assertTimeoutPreemptively(Duration.ofSeconds(10), task::start);
+
+    assertEquals(10, requestCount.size());
+    assertFalse(requestCount.containsKey(rejectedUri));
+    verify(writer, times(1))
+        .processErrors(
+            any(),
+            argThat(errors -> errors.size() == 1 && errors.getFirst().uri().equals(rejectedUri)),
+            any());
+  }
+
+  @Test
+  void testStartExecution_EnqueueEachUrlOnce() throws IOException, InterruptedException {
+    var task = TestTaskBuilder.crawling(MockHttpClients.ok(new ConcurrentHashMap<>())).build();
+
+    task.start();
+
+    // every child page links to the ten pages already enqueued by the root
+    assertEquals(100, task.getDuplicateLinks());
+  }
+
+  @Test
+  void testStartExecution_RecordSeenSetLookups() throws IOException, InterruptedException {
+    var configs =
+        List.of(
+            VisitedSetConfig.exact(),
+            VisitedSetConfig.fingerprint(16),
+            VisitedSetConfig.bloom(16, 0.01, 1024));
+    for (var config : configs) {
+      var visitedSet = config.create();
+      var task =
+          TestTaskBuilder.crawling(MockHttpClients.ok(new ConcurrentHashMap<>()))
+              .visitedSet(visitedSet)
+              .build();
+
+      task.start();
+
+      // the root and its ten links are added, then every child page links to the ten again
+      var stats = visitedSet.stats();
+      assertEquals(111, stats.hits() + stats.misses());
+      assertTrue(stats.hits() >= 100, "hits: " + stats.hits());
+      assertTrue(stats.misses() > 0);
+    }
+  }
+
+  @Test
+  void testRelativeLinkOnSlashTerminatedPage_ResolveAgainstWrittenUrl()
+      throws IOException, InterruptedException {
+    var docs = Constants.TEST_BASE_URI + "/docs/";
+    var requestCount = new ConcurrentHashMap<String, Integer>();
+    var pages =
+        Map.of(
+            Constants.TEST_BASE_URI, "<a href=\"/docs/\">docs</a><a href=\"/docs/#top\">top</a>",
+            docs, "<a href=\"intro.html\">intro</a>",
+            docs + "intro.html", "<p>intro</p>");
+    var writer = mock(JWeaverWriter.class);
+    var task =
+        TestTaskBuilder.crawling(MockHttpClients.pages(requestCount, pages))
+            .parser(new JWeaverDocumentParser())
+            .writer(writer)
+            .build();
+
+    task.start();
+
+    // the two spellings of the docs page are fetched once, with its trailing slash
+    assertEquals(3, requestCount.size());
+    assertEquals(1, requestCount.get(docs + "intro.html"));
+    verify(writer, times(1)).processErrors(any(), argThat(List::isEmpty), any());
+  }
+
+  @Test
+  void testStartExecutionWithDiscoveryMode_SkipPageOutput()
+      throws IOException, InterruptedException {
+    var writer = mock(JWeaverWriter.class);
+    var parser = spy(new StaticLinkParser(Set.of(Constants.TEST_BASE_URI_NEWS)));
+    var task =
+        TestTaskBuilder.crawling(MockHttpClients.ok(new ConcurrentHashMap<>()))
+            .crawlMode(CrawlMode.DISCOVERY)
+            .parser(parser)
+            .writer(writer)
+            .build();
+
+    task.start();
+
+    verify(writer, never()).processSuccess(any(), any());
+    verify(writer, times(1)).processConnectionMap(any(), any(), any());
+    verify(parser, never()).parseBody(any(), any());
+    verify(parser, times(2)).parseOutline(any(), any());
+  }
+
+  @Test
+  void testStartExecutionWithPageBudget_StopAndPersistFrontier()
+      throws IOException, InterruptedException {
+    for (var fetchMode : FetchMode.values()) {
+      var requestCount = new ConcurrentHashMap<String, Integer>();
+      var writer = mock(JWeaverWriter.class);
+      var budget =
+          new BudgetTracker(CrawlBudget.unlimited().withMaxPages(4).withFrontierPersisted(), null);
+      var task =
+          TestTaskBuilder.crawling(MockHttpClients.ok(requestCount))
+              .fetchMode(fetchMode)
+              .writer(writer)
+              .budget(budget)
+              .build();
+
+      task.start();
+
+      assertEquals(4, requestCount.size());
+      verify(writer, times(1)).processFrontier(any(), argThat(links -> links.size() == 7), any());
+      verify(writer, times(1)).processConnectionMap(any(), any(), any());
+      verify(writer, times(1)).processErrors(any(), any(), any());
+    }
+  }
+
+  @Test
+  void testStartExecutionWithExhaustedGlobalBudget_SkipRoot()
+      throws IOException, InterruptedException {
+    var client = MockHttpClients.ok(new ConcurrentHashMap<>());
+    var writer = mock(JWeaverWriter.class);
+    var global = new BudgetTracker(CrawlBudget.unlimited().withMaxPages(1), null);
+    global.start();
+    assertTrue(global.tryAcquirePage());
+    var task =
+        TestTaskBuilder.crawling(client)
+            .writer(writer)
+            .budget(new BudgetTracker(CrawlBudget.unlimited(), global))
+            .build();
+
+    task.start();
+
+    verify(client, never()).send(any(), any());
+    verify(writer, never()).processFrontier(any(), any(), any());
+    verify(writer, times(1)).processConnectionMap(any(), any(), any());
+  }
+
+  @Test
+  void testStartExecutionResumedFromJournal_SkipCrawledPages(@TempDir Path tempDir)
+      throws IOException, InterruptedException {
+    var firstRequests = new ConcurrentHashMap<String, Integer>();
+    var checkpoint = new CheckpointConfig(tempDir, Duration.ofSeconds(1), false);
+    TestTaskBuilder.crawling(MockHttpClients.ok(firstRequests))
+        .budget(new BudgetTracker(CrawlBudget.unlimited().withMaxPages(4), null))
+        .journal(checkpoint.journal(Constants.TEST_BASE_URI))
+        .build()
+        .start();
+
+    var resumedRequests = new ConcurrentHashMap<String, Integer>();
+    var writer = mock(JWeaverWriter.class);
+    var task =
+        TestTaskBuilder.crawling(MockHttpClients.ok(resumedRequests))
+            .writer(writer)
+            // the resumed root is not fetched again, so it takes no page of the budget
+            .budget(new BudgetTracker(CrawlBudget.unlimited().withMaxPages(7), null))
+            .journal(CheckpointConfig.resumeFrom(tempDir).journal(Constants.TEST_BASE_URI))
+            .build();
+
+    task.start();
+
+    assertEquals(4, firstRequests.size());
+    assertEquals(7, resumedRequests.size());
+    firstRequests.keySet().forEach(url -> assertFalse(resumedRequests.containsKey(url)));
+    verify(writer, times(1))
+        .processConnectionMap(any(), argThat(connections -> connections.size() == 110), any());
+  }
+
+  @Test
+  void testStartExecutionResumedAfterFailedWrites_RefetchUnwrittenPages(@TempDir Path tempDir)
+      throws IOException, InterruptedException {
+    var firstRequests = new ConcurrentHashMap<String, Integer>();
+    var failingWriter = mock(JWeaverWriter.class);
+    doThrow(new OutputFileException(new IOException("disk full")))
+        .when(failingWriter)
+        .processSuccessBatch(any(), any());
+    var checkpoint = new CheckpointConfig(tempDir, Duration.ofSeconds(1), false);
+    TestTaskBuilder.crawling(MockHttpClients.ok(firstRequests))
+        .writer(failingWriter)
+        .budget(new BudgetTracker(CrawlBudget.unlimited().withMaxPages(4), null))
+        .journal(checkpoint.journal(Constants.TEST_BASE_URI))
+        .build()
+        .start();
+
+    var resumedRequests = new ConcurrentHashMap<String, Integer>();
+    TestTaskBuilder.crawling(MockHttpClients.ok(resumedRequests))
+        .journal(CheckpointConfig.resumeFrom(tempDir).journal(Constants.TEST_BASE_URI))
+        .build()
+        .start();
+
+    // the root page has no output, but none of the other pages of the first run was written
+    assertEquals(4, firstRequests.size());
+    assertEquals(10, resumedRequests.size());
+    assertFalse(resumedRequests.containsKey(Constants.TEST_BASE_URI));
+    firstRequests.keySet().stream()
+        .filter(url -> !url.equals(Constants.TEST_BASE_URI))
+        .forEach(url -> assertTrue(resumedRequests.containsKey(url)));
+  }
+
+  @Test
+  void testThrottledPageWithRetryAfter_RetryAndCrawl() throws IOException, InterruptedException {
+    for (var fetchMode : FetchMode.values()) {
+      var requestCount = new ConcurrentHashMap<String, Integer>();
+      var throttledUri = Constants.TEST_BASE_URI_NEWS + 3;
+      var writer = mock(JWeaverWriter.class);
+      var task =
+          TestTaskBuilder.crawling(MockHttpClients.throttling(requestCount, throttledUri, 2, "0"))
+              .fetchMode(fetchMode)
+              .writer(writer)
+              .build();
+
+      task.start();
+
+      assertEquals(11, requestCount.size());
+      assertEquals(3, requestCount.get(throttledUri));
+      verify(writer, times(1)).processErrors(any(), argThat(List::isEmpty), any());
+    }
+  }
+
+  @Test
+  void testThrottledPageRetries_NotChargedToPageBudget() throws IOException, InterruptedException {
+    for (var fetchMode : FetchMode.values()) {
+      var requestCount = new ConcurrentHashMap<String, Integer>();
+      var throttledUri = Constants.TEST_BASE_URI_NEWS + 3;
+      var budget = new BudgetTracker(CrawlBudget.unlimited().withMaxPages(12), null);
+      var task =
+          TestTaskBuilder.crawling(MockHttpClients.throttling(requestCount, throttledUri, 2, "0"))
+              .fetchMode(fetchMode)
+              .budget(budget)
+              .build();
+
+      task.start();
+
+      // the eleven pages fit the budget of twelve pages even though one of them was sent 3 times
+      assertEquals(11, requestCount.size());
+      assertEquals(3, requestCount.get(throttledUri));
+      assertEquals(11, budget.pages());
+    }
+  }
+
+  @Test
+  void testThrottledPageAfterMaxRetries_ReportError() throws IOException, InterruptedException {
+    var requestCount = new ConcurrentHashMap<String, Integer>();
+    var throttledUri = Constants.TEST_BASE_URI_NEWS + 3;
+    var writer = mock(JWeaverWriter.class);
+    var task =
+        TestTaskBuilder.crawling(
+                MockHttpClients.throttling(requestCount, throttledUri, Integer.MAX_VALUE, null))
+            .writer(writer)
+            .throttleConfig(new ThrottleConfig(2, Duration.ofMillis(1), Duration.ofMillis(5)))
+            .build();
+
+    task.start();
+
+    assertEquals(3, requestCount.get(throttledUri));
+    verify(writer, times(1))
+        .processErrors(
+            any(),
+            argThat(
+                errors ->
+                    errors.size() == 1
+                        && errors.getFirst().uri().equals(throttledUri)
+                        && errors.getFirst().error().equals("HTTP 503 after 2 retries")),
+            any());
+  }
+
+  @Test
+  void testGet_TakeAdaptiveSlotBeforeLimiterPermit() throws IOException, InterruptedException {
+    var client = MockHttpClients.ok(new ConcurrentHashMap<>());
+    var delay = Duration.ofMillis(1);
+    var controller = spy(new AimdConfig(1, 1, delay, delay, Duration.ofSeconds(1), 0.1).create());
+    var limiter = mock(RequestLimiter.class);
+    when(limiter.acquire(any())).thenThrow(new InterruptedException());
+    var task =
+        TestTaskBuilder.crawling(client).requestLimiter(limiter).aimdController(controller).build();
+    var link = new PageLink(Constants.TEST_BASE_URI_NEWS + 1, 1);
+
+    assertThrows(InterruptedException.class, () -> task.get(link));
+
+    var order = inOrder(controller, limiter);
+    order.verify(controller).acquire(task.getHost());
+    order.verify(limiter).acquire(task.getHost());
+    verify(client, never()).send(any(), any());
+    // the slot of the request which was never sent is free again
+    assertTimeoutPreemptively(
+        Duration.ofSeconds(5), () -> controller.acquire(task.getHost()).close());
   }
 
   @SuppressWarnings("unchecked")
@@ -140,12 +553,26 @@ class JWeaverTaskTest {
     var client = mock(HttpClient.class);
     httpClient.set(jWeaverTask, client);
 
-    var politenessDelay = JWeaverTask.class.getDeclaredField("politenessDelay");
-    politenessDelay.setAccessible(true);
-    politenessDelay.set(jWeaverTask, Duration.ofSeconds(1));
+    var politenessScheduler = JWeaverTask.class.getDeclaredField("politenessScheduler");
+    politenessScheduler.setAccessible(true);
+    politenessScheduler.set(jWeaverTask, new PolitenessScheduler(Duration.ofSeconds(1)));
+
+    var requestLimiter = JWeaverTask.class.getDeclaredField("requestLimiter");
+    requestLimiter.setAccessible(true);
+    requestLimiter.set(jWeaverTask, RequestLimiter.unlimited());
+
+    var aimdController = JWeaverTask.class.getDeclaredField("aimdController");
+    aimdController.setAccessible(true);
+    aimdController.set(jWeaverTask, AimdController.disabled());
+
+    var budget = JWeaverTask.class.getDeclaredField("budget");
+    budget.setAccessible(true);
+    budget.set(jWeaverTask, BudgetTracker.unlimited());
 
     var temp = new PageLink(Constants.TEST_BASE_URI_NEWS, 1);
     doCallRealMethod().when(jWeaverTask).get(temp);
+    doCallRealMethod().when(jWeaverTask).createRequest(temp);
+    doCallRealMethod().when(jWeaverTask).toResponseData(any());
     var mockedResp = mock(HttpResponse.class);
     when(mockedResp.headers()).thenReturn(HttpHeaders.of(new HashMap<>(), (x, y) -> true));
     when(mockedResp.statusCode()).thenReturn(200);
@@ -159,19 +586,24 @@ class JWeaverTaskTest {
   }
 
   @Test
-  void testCrawlParseHtml_Success() throws IOException, InterruptedException {
+  void testCrawlParseHtml_Success()
+      throws IOException, InterruptedException, NoSuchFieldException, IllegalAccessException {
     when(jWeaverTask.get(any())).thenReturn(new ResponseData<>(200, htmlBody));
     doCallRealMethod().when(jWeaverTask).crawl(any());
+    doCallRealMethod().when(jWeaverTask).toResultPage(any(), any());
     var pageLink = new PageLink(Constants.TEST_BASE_URI, 1);
     when(jWeaverTask.createFromHtmlBody(htmlBody, pageLink))
         .thenReturn(
             SuccessResultPage.create(
                 pageLink, parseTitle(pageLink.url()), parseBody(pageLink.url()), Set.of()));
     doCallRealMethod().when(jWeaverTask).addChildLinks(any(), any());
+    var canonicalizer = JWeaverTask.class.getDeclaredField("canonicalizer");
+    canonicalizer.setAccessible(true);
+    canonicalizer.set(jWeaverTask, UrlCanonicalizer.defaults());
     var resultPage = jWeaverTask.crawl(pageLink);
     assertNotNull(resultPage);
     assertTrue(resultPage.content().contains("My first paragraph"));
-    when(jWeaverTask.skipUrl(any(), any())).thenReturn(false);
+    when(jWeaverTask.skipUrl(any())).thenReturn(false);
     var pageLinks = jWeaverTask.addChildLinks(parseLinks(pageLink.url()), pageLink);
     assertNotNull(pageLinks);
     assertEquals(1, pageLinks.size());
@@ -183,6 +615,7 @@ class JWeaverTaskTest {
   void testCrawlProcessErrorResultPage_Failure() throws IOException, InterruptedException {
     when(jWeaverTask.get(any())).thenReturn(new ResponseData<>(400, htmlBody));
     doCallRealMethod().when(jWeaverTask).crawl(any());
+    doCallRealMethod().when(jWeaverTask).toResultPage(any(), any());
     PageLink pageLink = new PageLink(Constants.TEST_BASE_URI, 1);
     when(jWeaverTask.createFromHtmlBody(htmlBody, pageLink))
         .thenReturn(
@@ -198,6 +631,7 @@ class JWeaverTaskTest {
   void testCrawlProcessWhenHttpException_Failure() throws IOException, InterruptedException {
     when(jWeaverTask.get(any())).thenThrow(new HttpTimeoutException("connection timeout"));
     doCallRealMethod().when(jWeaverTask).crawl(any());
+    doCallRealMethod().when(jWeaverTask).toResultPage(any(), any());
     var pageLink = new PageLink(Constants.TEST_BASE_URI, 1);
     when(jWeaverTask.createFromHtmlBody(htmlBody, pageLink))
         .thenReturn(
@@ -214,6 +648,7 @@ class JWeaverTaskTest {
       throws IOException, InterruptedException {
     when(jWeaverTask.get(any())).thenThrow(new HttpTimeoutException("connection timeout"));
     doCallRealMethod().when(jWeaverTask).crawl(any());
+    doCallRealMethod().when(jWeaverTask).toResultPage(any(), any());
     doCallRealMethod().when(jWeaverTask).maybeThrow(any(), any());
     var pageLink = new PageLink(Constants.TEST_BASE_URI, 0);
     when(jWeaverTask.createFromHtmlBody(htmlBody, pageLink))
@@ -17,18 +17,22 @@
 
 package org.jweaver.crawler.internal.runner;
 
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.doCallRealMethod;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.util.List;
 import java.util.Set;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.jweaver.crawler.internal.test.Constants;
+import org.jweaver.crawler.internal.write.AsyncPageWriter;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
@@ -61,4 +65,20 @@ class TaskExecutorImplTest {
     verify(taskExecutor, times(1)).runParallel(anyList());
     verify(taskExecutor, times(1)).runSingleTask(any());
   }
+
+  @Test
+  void taskExecutorRunWithFailingTask_ClosePageWriter() {
+    var pageWriter = mock(AsyncPageWriter.class);
+    var task = mock(JWeaverTask.class);
+    doThrow(new IllegalStateException("Unable to fetch ResultPage for root URL"))
+        .when(task)
+        .start();
+
+    var executor = TaskExecutorImpl.create(pageWriter);
+
+    assertThrows(IllegalStateException.class, () -> executor.run(List.of(task)));
+    // the failure of a parallel task stays on its thread
+    executor.runParallel(List.of(task));
+    verify(pageWriter, times(2)).close();
+  }
 }
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.runner;
+
+import static org.mockito.Mockito.mock;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import org.jweaver.crawler.internal.checkpoint.CrawlJournal;
+import org.jweaver.crawler.internal.fetch.AimdController;
+import org.jweaver.crawler.internal.fetch.BodySizePolicy;
+import org.jweaver.crawler.internal.fetch.FetchMode;
+import org.jweaver.crawler.internal.fetch.HtmlBodyHandler;
+import org.jweaver.crawler.internal.fetch.PolitenessScheduler;
+import org.jweaver.crawler.internal.fetch.RequestLimiter;
+import org.jweaver.crawler.internal.fetch.ThrottleConfig;
+import org.jweaver.crawler.internal.frontier.FrontierConfig;
+import org.jweaver.crawler.internal.frontier.VisitedSet;
+import org.jweaver.crawler.internal.frontier.VisitedSetConfig;
+import org.jweaver.crawler.internal.parse.DocumentParser;
+import org.jweaver.crawler.internal.test.Constants;
+import org.jweaver.crawler.internal.test.StaticLinkParser;
+import org.jweaver.crawler.internal.url.TrapDetector;
+import org.jweaver.crawler.internal.url.UrlCanonicalizer;
+import org.jweaver.crawler.internal.url.UrlFilter;
+import org.jweaver.crawler.internal.write.AsyncPageWriter;
+import org.jweaver.crawler.internal.write.ExportConfig;
+import org.jweaver.crawler.internal.write.JWeaverWriter;
+
+/**
+ * Builds the tasks of the tests crawling {@link Constants#TEST_BASE_URI}. By default the root links
+ * to ten news pages and every page links to all of its siblings, the links are fetched by four
+ * blocking workers up to depth 2, and nothing limits the crawl.
+ */
+final class TestTaskBuilder {
+
+  private final HttpClient client;
+  private FetchMode fetchMode = FetchMode.BLOCKING;
+  private CrawlMode crawlMode = CrawlMode.FULL;
+  private DocumentParser parser = StaticLinkParser.siblings(10);
+  private JWeaverWriter writer = mock(JWeaverWriter.class);
+  private VisitedSet visitedSet = VisitedSetConfig.fingerprint(16).create();
+  private BudgetTracker budget = BudgetTracker.unlimited();
+  private CrawlJournal journal = CrawlJournal.disabled();
+  private RequestLimiter requestLimiter = RequestLimiter.unlimited();
+  private AimdController aimdController = AimdController.disabled();
+  private ThrottleConfig throttleConfig = ThrottleConfig.defaults();
+
+  private TestTaskBuilder(HttpClient client) {
+    this.client = client;
+  }
+
+  /**
+   * Starts building a task sending its requests to the given client.
+   *
+   * @param client The HTTP client of the task.
+   * @return The builder.
+   */
+  static TestTaskBuilder crawling(HttpClient client) {
+    return new TestTaskBuilder(client);
+  }
+
+  TestTaskBuilder fetchMode(FetchMode fetchMode) {
+    this.fetchMode = fetchMode;
+    return this;
+  }
+
+  TestTaskBuilder crawlMode(CrawlMode crawlMode) {
+    this.crawlMode = crawlMode;
+    return this;
+  }
+
+  TestTaskBuilder parser(DocumentParser parser) {
+    this.parser = parser;
+    return this;
+  }
+
+  TestTaskBuilder writer(JWeaverWriter writer) {
+    this.writer = writer;
+    return this;
+  }
+
+  TestTaskBuilder visitedSet(VisitedSet visitedSet) {
+    this.visitedSet = visitedSet;
+    return this;
+  }
+
+  TestTaskBuilder budget(BudgetTracker budget) {
+    this.budget = budget;
+    return this;
+  }
+
+  TestTaskBuilder journal(CrawlJournal journal) {
+    this.journal = journal;
+    return this;
+  }
+
+  TestTaskBuilder requestLimiter(RequestLimiter requestLimiter) {
+    this.requestLimiter = requestLimiter;
+    return this;
+  }
+
+  TestTaskBuilder aimdController(AimdController aimdController) {
+    this.aimdController = aimdController;
+    return this;
+  }
+
+  TestTaskBuilder throttleConfig(ThrottleConfig throttleConfig) {
+    this.throttleConfig = throttleConfig;
+    return this;
+  }
+
+  JWeaverTask build() {
+    return new JWeaverTask(
+        Constants.TEST_BASE_URI,
+        client,
+        new PolitenessScheduler(Duration.ZERO),
+        ExportConfig.exportDefault(),
+        2,
+        parser,
+        writer,
+        AsyncPageWriter.create(writer, 16, 1),
+        4,
+        fetchMode,
+        new HtmlBodyHandler(1024, BodySizePolicy.TRUNCATE),
+        crawlMode,
+        visitedSet,
+        FrontierConfig.memory().create(),
+        UrlCanonicalizer.defaults(),
+        UrlFilter.create(Constants.TEST_BASE_URI, List.of(), List.of()),
+        budget,
+        TrapDetector.disabled(),
+        journal,
+        requestLimiter,
+        aimdController,
+        throttleConfig);
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.test;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+/**
+ * The MockHttpClients class creates the mocked HTTP clients shared by the tests. Every client
+ * counts the requests it receives per URI and answers both {@code send} and {@code sendAsync},
+ * with the requested URI as the body of the response.
+ */
+public final class MockHttpClients {
+
+  private MockHttpClients() {}
+
+  /**
+   * Creates a client answering every request with a 200 response.
+   *
+   * @param requestCount The number of requests received per URI.
+   * @return The mocked HTTP client.
+   */
+  public static HttpClient ok(Map<String, Integer> requestCount)
+      throws IOException, InterruptedException {
+    return answering(
+        invocation -> {
+          HttpRequest request = invocation.getArgument(0);
+          requestCount.merge(request.uri().toString(), 1, Integer::sum);
+          return response(200, Map.of(), request.uri().toString());
+        });
+  }
+
+  /**
+   * Creates a client serving a set of pages, and answering the other URIs with a 404 response. As
+   * with a real server, the fragment of a URI is not part of the request.
+   *
+   * @param requestCount The number of requests received per URI.
+   * @param pages The body of each page by URI.
+   * @return The mocked HTTP client.
+   */
+  public static HttpClient pages(Map<String, Integer> requestCount, Map<String, String> pages)
+      throws IOException, InterruptedException {
+    return answering(
+        invocation -> {
+          HttpRequest request = invocation.getArgument(0);
+          var uri = request.uri().toString().split("#", 2)[0];
+          requestCount.merge(uri, 1, Integer::sum);
+          var body = pages.get(uri);
+          return body == null ? response(404, Map.of(), "") : response(200, Map.of(), body);
+        });
+  }
+
+  /**
+   * Creates a client throttling one URI the first times it is requested: it answers with a 429 and
+   * the given {@code Retry-After} header, or with a 503 without the header if it is null.
+   *
+   * @param requestCount The number of requests received per URI.
+   * @param throttledUri The throttled URI.
+   * @param throttledTimes The number of requests of the URI which are throttled.
+   * @param retryAfter The value of the {@code Retry-After} header, or null.
+   * @return The mocked HTTP client.
+   */
+  public static HttpClient throttling(
+      Map<String, Integer> requestCount, String throttledUri, int throttledTimes, String retryAfter)
+      throws IOException, InterruptedException {
+    return answering(
+        invocation -> {
+          HttpRequest request = invocation.getArgument(0);
+          var uri = request.uri().toString();
+          var count = requestCount.merge(uri, 1, Integer::sum);
+          var throttled = uri.equals(throttledUri) && count <= throttledTimes;
+          var headers =
+              throttled && retryAfter != null
+                  ? Map.of("Retry-After", List.of(retryAfter))
+                  : Map.<String, List<String>>of();
+          var status = retryAfter == null ? 503 : 429;
+          return response(throttled ? status : 200, headers, uri);
+        });
+  }
+
+  /**
+   * Creates a client answering every request with a 200 response after a short delay, and tracking
+   * the highest number of requests in flight at once.
+   *
+   * @param requestCount The number of requests received per URI.
+   * @param inFlight The number of requests in flight.
+   * @param maxInFlight The highest number of requests in flight seen.
+   * @return The mocked HTTP client.
+   */
+  public static HttpClient slow(
+      Map<String, Integer> requestCount, AtomicInteger inFlight, AtomicInteger maxInFlight)
+      throws IOException, InterruptedException {
+    return answering(
+        invocation -> {
+          maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+          try {
+            Thread.sleep(2);
+            HttpRequest request = invocation.getArgument(0);
+            requestCount.merge(request.uri().toString(), 1, Integer::sum);
+            return response(200, Map.of(), request.uri().toString());
+          } finally {
+            inFlight.decrementAndGet();
+          }
+        });
+  }
+
+  private static HttpClient answering(Answer<HttpResponse<String>> answer)
+      throws IOException, InterruptedException {
+    var client = mock(HttpClient.class);
+    when(client.send(any(), any())).thenAnswer(answer);
+    when(client.sendAsync(any(), any()))
+        .thenAnswer(
+            invocation -> CompletableFuture.supplyAsync(() -> safeAnswer(answer, invocation)));
+    return client;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static HttpResponse<String> response(
+      int status, Map<String, List<String>> headers, String body) {
+    var response = mock(HttpResponse.class);
+    when(response.statusCode()).thenReturn(status);
+    when(response.headers()).thenReturn(HttpHeaders.of(headers, (x, y) -> true));
+    when(response.body()).thenReturn(body);
+    return response;
+  }
+
+  private static <T> T safeAnswer(Answer<T> answer, InvocationOnMock invocation) {
+    try {
+      return answer.answer(invocation);
+    } catch (Throwable e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
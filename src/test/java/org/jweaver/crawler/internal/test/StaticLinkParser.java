@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.test;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.jweaver.crawler.internal.parse.DocumentParser;
+
+/**
+ * A document parser returning the same set of links for every page, and an empty title and body.
+ *
+ * @param links The links of every page.
+ */
+public record StaticLinkParser(Set<String> links) implements DocumentParser {
+
+  /**
+   * Creates a parser linking every page to the same news pages, so that every page links to all of
+   * its siblings.
+   *
+   * @param count The number of news pages.
+   * @return The parser.
+   */
+  public static StaticLinkParser siblings(int count) {
+    var links = new HashSet<String>();
+    for (int i = 0; i < count; i++) {
+      links.add(Constants.TEST_BASE_URI_NEWS + i);
+    }
+    return new StaticLinkParser(links);
+  }
+
+  @Override
+  public String parseTitle(String htmlBody, String pageUri) {
+    return "";
+  }
+
+  @Override
+  public String parseBody(String htmlBody, String pageUri) {
+    return "";
+  }
+
+  @Override
+  public Set<String> parseLinks(String htmlBody, String pageUri) {
+    return links;
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.url;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TrapDetectorTest {
+
+  private static final String BASE_URI = "https://x.com";
+
+  @Test
+  void testNumericPattern_SuppressBeyondLimit() {
+    var detector = new TrapDetectorConfig(512, 2, 8, 3).create();
+    for (int day = 1; day <= 3; day++) {
+      assertTrue(detector.allow(BASE_URI + "/calendar/2024/05/" + day));
+    }
+    assertFalse(detector.allow(BASE_URI + "/calendar/2024/05/4"));
+    assertFalse(detector.allow(BASE_URI + "/calendar/2025/01/1"));
+    assertTrue(detector.allow(BASE_URI + "/about"));
+    assertTrue(detector.allow(BASE_URI + "/news/1"));
+
+    assertEquals(
+        List.of(new SuppressedPattern("/calendar/{n}/{n}/{n}", TrapReason.PATTERN_LIMIT, 2)),
+        detector.suppressedPatterns());
+  }
+
+  @Test
+  void testRepeatedSegments_Suppress() {
+    var detector = TrapDetectorConfig.defaults().create();
+    assertTrue(detector.allow(BASE_URI + "/docs/a/docs/b"));
+    assertFalse(detector.allow(BASE_URI + "/docs/a/docs/a/docs/a"));
+    assertEquals(
+        List.of(new SuppressedPattern("/docs/**", TrapReason.REPEATED_SEGMENTS, 1)),
+        detector.suppressedPatterns());
+  }
+
+  @Test
+  void testQueryParametersAndLength_Suppress() {
+    var detector = new TrapDetectorConfig(64, 2, 3, 1000).create();
+    assertTrue(detector.allow(BASE_URI + "/search?a=1&b=2&c=3"));
+    assertFalse(detector.allow(BASE_URI + "/search?a=1&b=2&c=3&d=4"));
+    assertFalse(detector.allow(BASE_URI + "/" + "x".repeat(64)));
+    var reasons = detector.suppressedPatterns().stream().map(SuppressedPattern::reason).toList();
+    assertTrue(reasons.contains(TrapReason.QUERY_PARAMETERS));
+    assertTrue(reasons.contains(TrapReason.URL_LENGTH));
+  }
+
+  @Test
+  void testDisabled_AllowEveryUrl() {
+    var detector = TrapDetector.disabled();
+    assertTrue(detector.allow(BASE_URI + "/a/a/a/a/a?" + "p=1&".repeat(50)));
+    assertTrue(detector.suppressedPatterns().isEmpty());
+  }
+
+  @Test
+  void testInvalidConfig_ThrowIllegalArgument() {
+    var ex =
+        assertThrows(IllegalArgumentException.class, () -> new TrapDetectorConfig(0, 2, 8, 1000));
+    assertEquals("Trap detector limits must be greater than zero", ex.getMessage());
+  }
+}
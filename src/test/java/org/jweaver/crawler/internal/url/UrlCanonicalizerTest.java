@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.url;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class UrlCanonicalizerTest {
+
+  private final UrlCanonicalizer canonicalizer = UrlCanonicalizer.defaults();
+
+  @Test
+  void testCanonicalizeAuthority_LowercaseAndDropDefaultPort() {
+    assertCanonical("https://x.com/a", "HTTPS://X.com:443/a#top");
+    assertCanonical("http://x.com/", "http://x.com:80");
+    assertCanonical("http://x.com:8080/", "http://x.com:8080/");
+    assertCanonical("https://user@x.com/a", "https://user@X.com/a");
+    assertCanonical("https://[::1]/a", "https://[::1]:443/a");
+  }
+
+  @Test
+  void testCanonicalizePath_RemoveDotSegmentsAndKeepTrailingSlash() {
+    assertCanonical("https://x.com/a/", "https://x.com/a/");
+    assertCanonical("https://x.com/a/", "https://x.com/a/b/../");
+    assertCanonical("https://x.com/a/c", "https://x.com/a/./b/../c");
+    assertCanonical("https://x.com/a", "https://x.com/../../a");
+    assertCanonical("https://x.com/", "https://x.com/a/..");
+    assertCanonical("https://x.com/~user/%2F", "https://x.com/%7euser/%2f");
+  }
+
+  @Test
+  void testCanonicalizeQuery_SortAndStripTrackingParameters() {
+    assertCanonical("https://x.com/a?a=1&b=2", "https://x.com/a?b=2&a=1");
+    assertCanonical("https://x.com/a?a=1&b=2", "https://x.com/a?a=1&&b=2&");
+    assertCanonical("https://x.com/a?id=3", "https://x.com/a?utm_source=x&UTM_Medium=y&id=3");
+    assertCanonical("https://x.com/a", "https://x.com/a?gclid=1&jsessionid=2");
+    assertCanonical("https://x.com/a?sid=4", "https://x.com/a?sid=4");
+    assertCanonical("https://x.com/a", "https://x.com/a?#top");
+  }
+
+  @Test
+  void testNonHttpUrl_ReturnUrlUnchanged() {
+    assertCanonical("mailto:someone@x.com", "mailto:someone@x.com");
+    assertCanonical("ftp://X.com/a#b", "ftp://X.com/a#b");
+  }
+
+  @Test
+  void testCanonicalUrl_ReturnSameInstance() {
+    var url = "https://x.com/a?a=1&b=2";
+    assertSame(url, canonicalizer.canonicalize(url));
+  }
+
+  @Test
+  void testCustomRules_KeepTrailingSlashAndStripGivenParameters() {
+    var custom = UrlCanonicalizer.create(false, List.of("ref", "session_*"));
+    assertEquals(
+        "https://x.com/a/?utm_source=x",
+        custom.canonicalize("https://x.com/a/?session_id=1&utm_source=x&ref=home"));
+  }
+
+  @Test
+  void testStripTrailingSlash_KeepRootSlash() {
+    var custom = UrlCanonicalizer.create(true, List.of());
+    assertEquals("https://x.com/a", custom.canonicalize("https://x.com/a/"));
+    assertEquals("https://x.com/", custom.canonicalize("https://x.com/"));
+  }
+
+  @Test
+  void testDisabled_ReturnUrlUnchanged() {
+    var url = "HTTPS://X.com:443/a/#top";
+    assertSame(url, UrlCanonicalizer.disabled().canonicalize(url));
+  }
+
+  private void assertCanonical(String expected, String url) {
+    assertEquals(expected, canonicalizer.canonicalize(url));
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.url;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class UrlFilterTest {
+
+  private static final String BASE_URI = "https://www.x.com";
+
+  private final UrlFilter filter = UrlFilter.create(BASE_URI, List.of(), List.of());
+
+  @Test
+  void testSameHostUrl_Accept() {
+    assertTrue(filter.accept("https://x.com/a"));
+    assertTrue(filter.accept("http://WWW.X.com:8080/a?b=1#c"));
+    assertTrue(filter.accept("https://x.com"));
+  }
+
+  @Test
+  void testExternalUrl_Reject() {
+    assertFalse(filter.accept("https://y.com/a"));
+    assertFalse(filter.accept("https://sub.x.com/a"));
+    assertFalse(filter.accept("https://x.com.evil.org/a"));
+  }
+
+  @Test
+  void testIgnoredExtension_Reject() {
+    assertFalse(filter.accept("https://x.com/image.JPG"));
+    assertFalse(filter.accept("https://x.com/archive.tar.gz?download=1"));
+    assertTrue(filter.accept("https://x.com/page.html"));
+    assertTrue(filter.accept("https://x.com/file.pdf/view"));
+  }
+
+  @Test
+  void testMalformedUrl_Reject() {
+    assertFalse(filter.accept("mailto:someone@x.com"));
+    assertFalse(filter.accept("javascript:void(0)"));
+    assertFalse(filter.accept("https://x.com/a b"));
+    assertFalse(filter.accept("https://x.com/%zz"));
+    assertFalse(filter.accept("https://x.com:80a/"));
+    assertFalse(filter.accept("https://x.com/a#b#c"));
+  }
+
+  @Test
+  void testIncludeAndExcludeRules_FilterPaths() {
+    var rules =
+        UrlFilter.create(
+            BASE_URI,
+            List.of(UrlRule.glob("/blog/**"), UrlRule.pathPrefix("/docs/")),
+            List.of(UrlRule.regex("[?&]page=\\d+"), UrlRule.glob("/blog/*/draft")));
+    assertTrue(rules.accept("https://x.com/blog/2024/post"));
+    assertTrue(rules.accept("https://x.com/docs/guide"));
+    assertFalse(rules.accept("https://x.com/about"));
+    assertFalse(rules.accept("https://x.com/blog/2024/post?page=2"));
+    assertFalse(rules.accept("https://x.com/blog/2024/draft"));
+  }
+}
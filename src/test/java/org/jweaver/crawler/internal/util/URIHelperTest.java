@@ -35,6 +35,11 @@ class URIHelperTest {
     assertTrue(URIHelper.isAllowedUrl("https://192.168.10.2:8080/file.unknown"));
   }
 
+  @Test
+  void testNotAllowedTwoPartExtension_ReturnFalse() {
+    assertFalse(URIHelper.isAllowedUrl("https://192.168.10.2:8080/file.tar.gz"));
+  }
+
   @Test
   void testExternalUri_ReturnSuccess() {
     assertTrue(URIHelper.isExternalUri("https://192.168.1.0:8080", "https://192.168.2.0:8080"));
@@ -0,0 +1,250 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.write;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.jweaver.crawler.internal.exception.OutputFileException;
+import org.jweaver.crawler.internal.result.Connection;
+import org.jweaver.crawler.internal.result.NodeError;
+import org.jweaver.crawler.internal.result.PageLink;
+import org.jweaver.crawler.internal.result.SuccessResultPage;
+import org.jweaver.crawler.internal.test.Constants;
+
+class AsyncPageWriterTest {
+
+  final ExportConfig config = ExportConfig.exportDefault();
+
+  @Test
+  void testFlush_WaitForEveryPage() {
+    var writer = new RecordingWriter(new CountDownLatch(0));
+    var pageWriter = AsyncPageWriter.create(writer, 4, 2);
+    for (int i = 0; i < 50; i++) {
+      pageWriter.submit(page(i), config);
+    }
+    pageWriter.flush();
+    assertEquals(50, writer.pageCount());
+  }
+
+  @Test
+  void testQueuedPages_WrittenInBatch() throws InterruptedException {
+    var release = new CountDownLatch(1);
+    var writer = new RecordingWriter(release);
+    var pageWriter = AsyncPageWriter.create(writer, 16, 1);
+    pageWriter.submit(page(0), config);
+    assertTrue(writer.started.await(5, TimeUnit.SECONDS));
+    for (int i = 1; i <= 5; i++) {
+      pageWriter.submit(page(i), config);
+    }
+    release.countDown();
+    pageWriter.flush();
+    assertEquals(List.of(1, 5), writer.batchSizes);
+  }
+
+  @Test
+  void testFullQueue_BlockSubmit() throws InterruptedException {
+    var release = new CountDownLatch(1);
+    var writer = new RecordingWriter(release);
+    var pageWriter = AsyncPageWriter.create(writer, 1, 1);
+    pageWriter.submit(page(0), config);
+    assertTrue(writer.started.await(5, TimeUnit.SECONDS));
+    pageWriter.submit(page(1), config);
+
+    var producer = Thread.ofVirtual().start(() -> pageWriter.submit(page(2), config));
+    assertFalse(producer.join(Duration.ofMillis(200)));
+
+    release.countDown();
+    assertTrue(producer.join(Duration.ofSeconds(5)));
+    pageWriter.flush();
+    assertEquals(3, writer.pageCount());
+  }
+
+  @Test
+  void testFailedWrite_KeepWriting() {
+    var writer =
+        new RecordingWriter(new CountDownLatch(0)) {
+          @Override
+          public void processSuccess(SuccessResultPage page, ExportConfig exportConfiguration) {
+            if (page.uri().endsWith("0")) {
+              throw new OutputFileException(new IOException("disk full"));
+            }
+            super.processSuccess(page, exportConfiguration);
+          }
+        };
+    var pageWriter = AsyncPageWriter.create(writer, 1, 1);
+    pageWriter.submit(page(0), config);
+    pageWriter.flush();
+    pageWriter.submit(page(1), config);
+    pageWriter.flush();
+    assertEquals(1, writer.pageCount());
+  }
+
+  @Test
+  void testSubmit_CompleteOnceWritten() throws InterruptedException {
+    var release = new CountDownLatch(1);
+    var writer = new RecordingWriter(release);
+    var pageWriter = AsyncPageWriter.create(writer, 4, 1);
+    var written = pageWriter.submit(page(0), config);
+    assertTrue(writer.started.await(5, TimeUnit.SECONDS));
+    assertFalse(written.isDone());
+
+    release.countDown();
+    written.join();
+    assertEquals(1, writer.pageCount());
+    pageWriter.close();
+  }
+
+  @Test
+  void testFailedWrite_CompleteExceptionally() {
+    var writer =
+        new RecordingWriter(new CountDownLatch(0)) {
+          @Override
+          public void processSuccess(SuccessResultPage page, ExportConfig exportConfiguration) {
+            throw new OutputFileException(new IOException("disk full"));
+          }
+        };
+    var pageWriter = AsyncPageWriter.create(writer, 1, 1);
+    var written = pageWriter.submit(page(0), config);
+    var ex = assertThrows(CompletionException.class, written::join);
+    assertInstanceOf(OutputFileException.class, ex.getCause());
+    pageWriter.close();
+  }
+
+  @Test
+  void testWriterError_CompleteExceptionallyAndKeepWriting() {
+    var failures = new AtomicInteger(1);
+    var writer =
+        new RecordingWriter(new CountDownLatch(0)) {
+          @Override
+          public void processSuccess(SuccessResultPage page, ExportConfig exportConfiguration) {
+            if (failures.getAndDecrement() > 0) {
+              throw new StackOverflowError();
+            }
+            super.processSuccess(page, exportConfiguration);
+          }
+        };
+    var pageWriter = AsyncPageWriter.create(writer, 1, 1);
+    var written = pageWriter.submit(page(0), config).orTimeout(5, TimeUnit.SECONDS);
+    var ex = assertThrows(CompletionException.class, written::join);
+    assertInstanceOf(StackOverflowError.class, ex.getCause());
+    // the worker survives the error and writes the next page
+    pageWriter.submit(page(1), config).orTimeout(5, TimeUnit.SECONDS).join();
+    pageWriter.close();
+  }
+
+  @Test
+  void testNoPageSubmitted_StartNoWorker() {
+    var pageWriter = AsyncPageWriter.create(new RecordingWriter(new CountDownLatch(0)), 4, 2);
+    assertTrue(pageWriter.workers().isEmpty());
+    pageWriter.close();
+  }
+
+  @Test
+  void testClose_WriteEveryPageAndStopWorkers() {
+    var writer = new RecordingWriter(new CountDownLatch(0));
+    var pageWriter = AsyncPageWriter.create(writer, 4, 2);
+    for (int i = 0; i < 10; i++) {
+      pageWriter.submit(page(i), config);
+    }
+    var workers = pageWriter.workers();
+    assertEquals(2, workers.size());
+
+    pageWriter.close();
+
+    assertEquals(10, writer.pageCount());
+    assertTrue(pageWriter.workers().isEmpty());
+    workers.forEach(worker -> assertFalse(worker.isAlive()));
+    // a closed writer starts new workers for the next pages
+    pageWriter.submit(page(10), config);
+    pageWriter.close();
+    assertEquals(11, writer.pageCount());
+  }
+
+  @Test
+  void testInvalidSettings_ThrowIllegalArgument() {
+    var writer = new RecordingWriter(new CountDownLatch(0));
+    var ex =
+        assertThrows(IllegalArgumentException.class, () -> AsyncPageWriter.create(writer, 0, 1));
+    assertEquals("Write queue capacity must be greater than zero", ex.getMessage());
+    ex = assertThrows(IllegalArgumentException.class, () -> AsyncPageWriter.create(writer, 1, 0));
+    assertEquals("Writer workers must be greater than zero", ex.getMessage());
+  }
+
+  static SuccessResultPage page(int i) {
+    return SuccessResultPage.create(
+        new PageLink(Constants.TEST_BASE_URI_NEWS + i, 1), "title", "content", Set.of());
+  }
+
+  /** Records the written pages, holding the first batch until the latch is released. */
+  static class RecordingWriter implements JWeaverWriter {
+
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch release;
+    final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+    final List<String> pages = Collections.synchronizedList(new ArrayList<>());
+
+    RecordingWriter(CountDownLatch release) {
+      this.release = release;
+    }
+
+    int pageCount() {
+      return pages.size();
+    }
+
+    @Override
+    public void processSuccessBatch(
+        List<SuccessResultPage> successResultPages, ExportConfig exportConfiguration) {
+      started.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      batchSizes.add(successResultPages.size());
+      JWeaverWriter.super.processSuccessBatch(successResultPages, exportConfiguration);
+    }
+
+    @Override
+    public void processSuccess(SuccessResultPage page, ExportConfig exportConfiguration) {
+      pages.add(page.uri());
+    }
+
+    @Override
+    public void processErrors(
+        String baseUri, List<NodeError> nodeErrorList, ExportConfig exportConfiguration) {}
+
+    @Override
+    public void processConnectionMap(
+        String baseUri, List<Connection> connections, ExportConfig exportConfiguration) {}
+  }
+}
@@ -19,6 +19,8 @@ package org.jweaver.crawler.internal.write;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
 import org.junit.jupiter.api.Test;
@@ -38,6 +40,39 @@ class ExportConfigTest {
     assertEquals(".md", exportConfig.format().extension());
   }
 
+  @Test
+  void testJsonlExport_Success() throws IOException {
+    var exportConfig = ExportConfig.exportJsonl(Constants.TEST_OUTPUT_DIR, true, 1024, 10);
+    assertEquals(".jsonl", exportConfig.format().extension());
+    assertTrue(exportConfig.metadata());
+  }
+
+  @Test
+  void testJsonlExportWithEmptySegments_ThrowIllegalArgument() {
+    var ex =
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> ExportConfig.exportJsonl(Constants.TEST_OUTPUT_DIR, true, 0, 10));
+    assertEquals("Segment size must be greater than zero", ex.getMessage());
+  }
+
+  @Test
+  void testCompressedJsonlExport_Success() throws IOException {
+    var exportConfig = ExportConfig.exportJsonl(Constants.TEST_OUTPUT_DIR, true, 1024, 10, 6);
+    var jsonlConfig = (JsonlExportConfig) exportConfig;
+    assertTrue(jsonlConfig.compressed());
+    assertEquals(".jsonl.gz", jsonlConfig.segmentExtension());
+  }
+
+  @Test
+  void testJsonlExportWithInvalidCompression_ThrowIllegalArgument() {
+    var ex =
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> ExportConfig.exportJsonl(Constants.TEST_OUTPUT_DIR, true, 1024, 10, 10));
+    assertEquals("Compression level must be between 0 and 9", ex.getMessage());
+  }
+
   @Test
   void testDefaultExport_Success() {
     var exportConfig = ExportConfig.exportDefault();
@@ -27,12 +27,17 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.jweaver.crawler.internal.result.Connection;
 import org.jweaver.crawler.internal.result.Metadata;
 import org.jweaver.crawler.internal.result.NodeError;
@@ -76,14 +81,15 @@ class JWeaverFileWriterTest {
   }
 
   @Test
-  void serializeOutputJsonContent_Success() throws JsonProcessingException {
+  void serializeOutputJsonContent_Success() throws IOException {
     var jsonText =
         "{\"metadata\":{\"source\":\"https://192.168.12.0:8080\",\"depth\":1,\"retrievedOn\":\"123456T654321\",\"characters\":11},\"title\":\"JWeaver\",\"content\":\"Hello World\"}";
     var dateTime = "123456T654321";
     var metadata = new Metadata(hostName, 1, dateTime, 11);
     var output = new Output(metadata, "JWeaver", "Hello World");
-    var json = fileWriter.convertToJson(output);
-    assertEquals(jsonText, json);
+    var out = new ByteArrayOutputStream();
+    fileWriter.writeJson(out, output);
+    assertEquals(jsonText, out.toString(StandardCharsets.UTF_8));
   }
 
   @Test
@@ -150,6 +156,61 @@ Hello World
     verify(mockedInstance, times(0)).getFile(any(), any());
   }
 
+  @Test
+  void testWriteJsonPage_StreamToFile(@TempDir Path tempDir) throws IOException {
+    var successResultPage =
+        SuccessResultPage.create(new PageLink(hostName, 1), "JWeaver", "a".repeat(405), Set.of());
+    var config = ExportConfig.exportJson(tempDir.toString(), true);
+    fileWriter.processSuccess(successResultPage, config);
+
+    List<Path> files;
+    try (var list = Files.list(tempDir)) {
+      files = list.toList();
+    }
+    assertEquals(1, files.size());
+    var record = JWeaverFileWriter.objectMapper.readTree(files.getFirst().toFile());
+    assertEquals("a".repeat(405), record.get("content").asText());
+    assertEquals(hostName, record.get("metadata").get("source").asText());
+  }
+
+  @Test
+  void serializeMarkdownWithTrailingLineBreaks_MatchLineSplit() {
+    var content = "First\n\nSecond\nThird\n\n";
+    var expected = new StringBuilder("### JWeaver\n\n");
+    for (var line : content.split("\n")) {
+      expected.append(line).append("\n\n");
+    }
+    var markdown = JWeaverFileWriter.MarkdownTemplate.create("JWeaver", content);
+    assertEquals(expected.toString(), markdown);
+  }
+
+  @Test
+  void testWriteJsonlPages_AppendToSegments(@TempDir Path tempDir) throws IOException {
+    var config = ExportConfig.exportJsonl(tempDir.toString(), true, 1024 * 1024, 3);
+    var pages = new ArrayList<SuccessResultPage>();
+    for (int i = 0; i < 4; i++) {
+      pages.add(
+          SuccessResultPage.create(
+              new PageLink(hostName + "/" + i, 1), "JWeaver", "a".repeat(405), Set.of()));
+    }
+    fileWriter.processSuccessBatch(pages.subList(0, 3), config);
+    fileWriter.processSuccess(pages.get(3), config);
+    fileWriter.flush();
+
+    List<Path> segments;
+    try (var files = Files.list(tempDir)) {
+      segments = files.sorted().toList();
+    }
+    assertEquals(2, segments.size());
+    assertTrue(segments.getFirst().getFileName().toString().startsWith("192_168_12_0-"));
+    assertTrue(segments.getFirst().getFileName().toString().endsWith("-00000.jsonl"));
+    var lines = Files.readAllLines(segments.getFirst());
+    assertEquals(3, lines.size());
+    var record = JWeaverFileWriter.objectMapper.readTree(lines.getFirst());
+    assertEquals(hostName + "/0", record.get("metadata").get("source").asText());
+    assertEquals(1, Files.readAllLines(segments.get(1)).size());
+  }
+
   @Test
   void testWriterFile_ReturnValidFile() throws IOException {
     var fileWriter1 = JWeaverFileWriter.create();
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2024  Loizos Loizou
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.jweaver.crawler.internal.write;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SegmentWriterTest {
+
+  @TempDir Path tempDir;
+
+  @Test
+  void testRecordLimit_RollSegment() throws IOException {
+    var segmentWriter = new SegmentWriter(tempDir, "host", ".jsonl", 1024, 2, 0);
+    segmentWriter.append(records(5, "abc"));
+    segmentWriter.close();
+
+    assertEquals(List.of("abc", "abc"), Files.readAllLines(segmentWriter.segmentPath(0)));
+    assertEquals(List.of("abc", "abc"), Files.readAllLines(segmentWriter.segmentPath(1)));
+    assertEquals(List.of("abc"), Files.readAllLines(segmentWriter.segmentPath(2)));
+    assertFalse(Files.exists(segmentWriter.segmentPath(3)));
+  }
+
+  @Test
+  void testByteLimit_RollSegment() throws IOException {
+    var segmentWriter = new SegmentWriter(tempDir, "host", ".jsonl", 10, 100, 0);
+    segmentWriter.append(records(3, "abcd"));
+    segmentWriter.append(records(1, "x".repeat(20)));
+    segmentWriter.close();
+
+    assertEquals(10, Files.size(segmentWriter.segmentPath(0)));
+    assertEquals(5, Files.size(segmentWriter.segmentPath(1)));
+    // a record larger than the limit gets a segment of its own
+    assertEquals(21, Files.size(segmentWriter.segmentPath(2)));
+  }
+
+  @Test
+  void testAppendAfterClose_StartNewSegment() throws IOException {
+    var segmentWriter = new SegmentWriter(tempDir, "host", ".jsonl", 1024, 100, 0);
+    segmentWriter.append(records(1, "first"));
+    segmentWriter.close();
+    segmentWriter.append(records(1, "second"));
+    segmentWriter.close();
+
+    assertEquals(List.of("first"), Files.readAllLines(segmentWriter.segmentPath(0)));
+    assertEquals(List.of("second"), Files.readAllLines(segmentWriter.segmentPath(1)));
+  }
+
+  @Test
+  void testCompressedSegments_ReadableAsSeparateGzipFiles() throws IOException {
+    var segmentWriter = new SegmentWriter(tempDir, "host", ".jsonl.gz", 1024 * 1024, 50, 6);
+    var record = "{\"content\":\"" + "lorem ipsum ".repeat(40) + "\"}";
+    segmentWriter.append(records(100, record));
+    segmentWriter.close();
+
+    for (int i = 0; i < 2; i++) {
+      var segment = segmentWriter.segmentPath(i);
+      try (var in = new GZIPInputStream(Files.newInputStream(segment))) {
+        var lines = new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\n");
+        assertEquals(50, lines.length);
+        assertEquals(record, lines[0]);
+      }
+      assertTrue(Files.size(segment) * 10 < 50L * record.length());
+    }
+  }
+
+  @Test
+  void testAppend_FlushRecordsOfOpenSegment() throws IOException {
+    var segmentWriter = new SegmentWriter(tempDir, "host", ".jsonl", 1024, 100, 0);
+    segmentWriter.append(records(2, "abc"));
+
+    assertEquals(List.of("abc", "abc"), Files.readAllLines(segmentWriter.segmentPath(0)));
+    segmentWriter.close();
+  }
+
+  @Test
+  void testCompressedAppend_FlushRecordsOfOpenSegment() throws IOException {
+    var segmentWriter = new SegmentWriter(tempDir, "host", ".jsonl.gz", 1024, 100, 6);
+    segmentWriter.append(records(2, "abc"));
+
+    // the segment has no gzip trailer yet, so it is read up to the end of the flushed data
+    var content = new ByteArrayOutputStream();
+    try (var in = new GZIPInputStream(Files.newInputStream(segmentWriter.segmentPath(0)))) {
+      int read;
+      while ((read = in.read()) >= 0) {
+        content.write(read);
+      }
+    } catch (EOFException e) {
+      // expected for an open segment
+    }
+    assertEquals("abc\nabc\n", content.toString(StandardCharsets.UTF_8));
+    segmentWriter.close();
+  }
+
+  static List<byte[]> records(int count, String value) {
+    var records = new ArrayList<byte[]>();
+    for (int i = 0; i < count; i++) {
+      records.add(value.getBytes(StandardCharsets.UTF_8));
+    }
+    return records;
+  }
+}